@@ -0,0 +1,438 @@
+package backend;
+
+import backend.resource.IssueIndex;
+import backend.resource.Model;
+import backend.resource.MultiModel;
+import backend.resource.TurboIssue;
+import filter.expression.CompiledFilter;
+import filter.expression.FilterExpression;
+import filter.expression.KeyedIssueComparator;
+import filter.expression.Qualifier;
+import com.google.common.collect.Lists;
+import util.ParallelMapper;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The sorted issues matching a filter expression, materialized from a snapshot of the repo models.
+ *
+ * A result can be brought up to date with newer models by re-evaluating only the issues which have
+ * changed in them since, and splicing those back into the sorted issues. Results are recomputed in
+ * full if the default repo, the set of repos, or any repo's labels, milestones or users changed,
+ * or if the expression depends on state which changes without issues changing (see
+ * {@link Qualifier#dependsOnTransientState}).
+ *
+ * Issues are ordered by the given comparator, then by repo and position within the repo, which is
+ * the order a stable sort of the matching issues would give. The sort keys of each matching issue
+ * are looked up once, when it is first found to match (see {@link KeyedIssueComparator}), and kept
+ * for as long as the issue does not change. Instances are immutable.
+ *
+ * If the expression has a count qualifier, only that many issues are kept, picked with a bounded heap
+ * rather than by sorting all matching issues. Otherwise issues are sorted lazily: {@link #getIssues}
+ * is a view which sorts only as far as it has been read, so showing the first screen of a large panel
+ * does not sort the issues below it.
+ *
+ * When run by a {@link ParallelMapper}, issues are filtered (see {@link CompiledFilter}) and sorted or
+ * picked in chunks in parallel. As the order is total, the outcome is the same as when run serially.
+ */
+public final class FilterResult {
+
+    // The number of issues sorted by each parallel task
+    private static final int CHUNK_SIZE = 4096;
+
+    private final FilterExpression filterExpr;
+    private final String defaultRepo;
+    private final List<Model> models;
+    private final List<IssueIndex> indexes;
+    private final List<BitSet> matches;
+    private final Optional<Integer> count;
+    private final SortedEntries sorted;
+
+    private FilterResult(FilterExpression filterExpr, String defaultRepo, List<Model> models,
+                         List<IssueIndex> indexes, List<BitSet> matches, Optional<Integer> count,
+                         SortedEntries sorted) {
+        this.filterExpr = filterExpr;
+        this.defaultRepo = defaultRepo;
+        this.models = models;
+        this.indexes = indexes;
+        this.matches = matches;
+        this.count = count;
+        this.sorted = sorted;
+    }
+
+    /**
+     * @param filterExpr the expression to evaluate, with milestone aliases already replaced
+     * @throws filter.ParseException if the expression has an invalid count qualifier
+     */
+    public static FilterResult compute(MultiModel models, FilterExpression filterExpr,
+                                       Comparator<TurboIssue> comparator) {
+        Optional<Integer> count = Qualifier.determineCount(filterExpr);
+        KeyedIssueComparator keyedComparator = KeyedIssueComparator.of(comparator);
+        CompiledFilter compiled = CompiledFilter.compile(models, filterExpr);
+        List<Model> repoModels = models.toModels();
+        List<IssueIndex> indexes = new ArrayList<>();
+        List<BitSet> matches = new ArrayList<>();
+        List<Entry> entries = new ArrayList<>();
+
+        for (int repo = 0; repo < repoModels.size(); repo++) {
+            IssueIndex index = repoModels.get(repo).getIssueIndex();
+            BitSet repoMatches = compiled.getMatchingIssues(index, index.all());
+            indexes.add(index);
+            matches.add(repoMatches);
+            entries.addAll(entriesOf(index, repo, repoMatches, keyedComparator));
+        }
+
+        Comparator<Entry> entryComparator = entryComparator(keyedComparator);
+        SortedEntries sorted = count.isPresent()
+            ? new SortedEntries(select(entries, count.get(), entryComparator), entryComparator)
+            : new SortedEntries(entries, 0, entryComparator);
+        return new FilterResult(filterExpr, models.getDefaultRepo(), repoModels, indexes, matches, count, sorted);
+    }
+
+    /**
+     * Brings this result up to date with the current state of {@code models}.
+     *
+     * @return this result if no issue changed, otherwise a new result
+     */
+    public FilterResult update(MultiModel models, Comparator<TurboIssue> comparator) {
+        List<Model> repoModels = models.toModels();
+        if (!Objects.equals(defaultRepo, models.getDefaultRepo())
+            || Qualifier.dependsOnTransientState(filterExpr)
+            || !haveSameResources(this.models, repoModels)) {
+            return compute(models, filterExpr, comparator);
+        }
+
+        List<IssueIndex> newIndexes = new ArrayList<>();
+        List<BitSet> changes = new ArrayList<>();
+        boolean anyChanged = false;
+        for (int repo = 0; repo < repoModels.size(); repo++) {
+            IssueIndex index = repoModels.get(repo).getIssueIndex();
+            Optional<BitSet> changed = index.changedSince(indexes.get(repo));
+            if (!changed.isPresent()) {
+                return compute(models, filterExpr, comparator);
+            }
+            newIndexes.add(index);
+            changes.add(changed.get());
+            anyChanged = anyChanged || !changed.get().isEmpty();
+        }
+        if (!anyChanged) {
+            return this;
+        }
+
+        // Drop the changed issues from the sorted entries, then merge back those which still match
+        KeyedIssueComparator keyedComparator = KeyedIssueComparator.of(comparator);
+        CompiledFilter compiled = CompiledFilter.compile(models, filterExpr);
+        List<BitSet> newMatches = new ArrayList<>();
+        List<Entry> added = new ArrayList<>();
+        for (int repo = 0; repo < repoModels.size(); repo++) {
+            BitSet changed = changes.get(repo);
+            BitSet changedMatches = compiled.getMatchingIssues(newIndexes.get(repo), changed);
+            BitSet repoMatches = (BitSet) matches.get(repo).clone();
+            repoMatches.andNot(changed);
+            repoMatches.or(changedMatches);
+            newMatches.add(repoMatches);
+            added.addAll(entriesOf(newIndexes.get(repo), repo, changedMatches, keyedComparator));
+        }
+        Comparator<Entry> entryComparator = entryComparator(keyedComparator);
+        SortedEntries kept = sorted.without(changes);
+        SortedEntries newSorted;
+
+        if (!count.isPresent()) {
+            newSorted = kept.with(sort(added, entryComparator));
+        } else if (kept.size() == sorted.size() || sorted.size() < count.get()) {
+            // Issues which were not picked are unchanged and still rank below those kept,
+            // so they need not be considered again
+            newSorted = kept.with(sort(added, entryComparator)).limit(count.get());
+        } else {
+            // Some picked issues changed, and any of the issues not picked may now take their place
+            List<Entry> entries = new ArrayList<>();
+            for (int repo = 0; repo < repoModels.size(); repo++) {
+                entries.addAll(entriesOf(newIndexes.get(repo), repo, newMatches.get(repo), keyedComparator));
+            }
+            newSorted = new SortedEntries(select(entries, count.get(), entryComparator), entryComparator);
+        }
+
+        return new FilterResult(filterExpr, defaultRepo, repoModels, newIndexes, newMatches, count, newSorted);
+    }
+
+    /**
+     * @return the matching issues, in sorted order. The list is a read-only view, which sorts
+     * issues as they are read; it may be read by any thread.
+     */
+    public List<TurboIssue> getIssues() {
+        return Collections.unmodifiableList(Lists.transform(sorted, entry -> entry.issue));
+    }
+
+    private static boolean haveSameResources(List<Model> previous, List<Model> current) {
+        if (previous.size() != current.size()) {
+            return false;
+        }
+        for (int i = 0; i < previous.size(); i++) {
+            Model before = previous.get(i);
+            Model after = current.get(i);
+            if (before != after && !(before.getRepoId().equals(after.getRepoId())
+                && before.getLabels().equals(after.getLabels())
+                && before.getMilestones().equals(after.getMilestones())
+                && before.getUsers().equals(after.getUsers()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the entries, by sorting chunks in parallel and merging them if run by a parallel mapper.
+     */
+    private static List<Entry> sort(List<Entry> entries, Comparator<Entry> comparator) {
+        if (!ParallelMapper.inParallelMapper() || entries.size() <= CHUNK_SIZE) {
+            List<Entry> result = new ArrayList<>(entries);
+            result.sort(comparator);
+            return result;
+        }
+
+        int middle = entries.size() / 2;
+        ForkJoinTask<List<Entry>> left = ForkJoinTask.adapt(() -> sort(entries.subList(0, middle), comparator));
+        ForkJoinTask<List<Entry>> right =
+            ForkJoinTask.adapt(() -> sort(entries.subList(middle, entries.size()), comparator));
+        ForkJoinTask.invokeAll(left, right);
+        return merge(left.join(), right.join(), comparator);
+    }
+
+    /**
+     * Picks the first {@code count} entries in order, by picking from chunks in parallel and merging
+     * them if run by a parallel mapper.
+     */
+    private static List<Entry> select(List<Entry> entries, int count, Comparator<Entry> comparator) {
+        if (!ParallelMapper.inParallelMapper() || entries.size() <= CHUNK_SIZE) {
+            return heapSelect(entries, count, comparator);
+        }
+
+        int middle = entries.size() / 2;
+        ForkJoinTask<List<Entry>> left =
+            ForkJoinTask.adapt(() -> select(entries.subList(0, middle), count, comparator));
+        ForkJoinTask<List<Entry>> right =
+            ForkJoinTask.adapt(() -> select(entries.subList(middle, entries.size()), count, comparator));
+        ForkJoinTask.invokeAll(left, right);
+        List<Entry> result = merge(left.join(), right.join(), comparator);
+        return new ArrayList<>(result.subList(0, Math.min(count, result.size())));
+    }
+
+    /**
+     * Picks the first {@code count} entries in order, keeping the entries picked so far in a heap
+     * with the last of them at the top.
+     */
+    private static List<Entry> heapSelect(List<Entry> entries, int count, Comparator<Entry> comparator) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Entry> heap = new PriorityQueue<>(Math.min(count, entries.size()) + 1,
+            comparator.reversed());
+        for (Entry entry : entries) {
+            if (heap.size() < count) {
+                heap.add(entry);
+            } else if (comparator.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Entry> result = new ArrayList<>(heap);
+        result.sort(comparator);
+        return result;
+    }
+
+    private static List<Entry> entriesOf(IssueIndex index, int repo, BitSet positions,
+                                         KeyedIssueComparator comparator) {
+        List<Entry> result = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            TurboIssue issue = index.getIssue(i);
+            result.add(new Entry(issue, comparator.keyOf(issue), repo, i));
+        }
+        return result;
+    }
+
+    private static Comparator<Entry> entryComparator(KeyedIssueComparator comparator) {
+        return (a, b) -> {
+            int result = comparator.compareKeys(a.key, b.key);
+            if (result != 0) {
+                return result;
+            }
+            return a.repo != b.repo
+                ? Integer.compare(a.repo, b.repo)
+                : Integer.compare(a.position, b.position);
+        };
+    }
+
+    private static List<Entry> merge(List<Entry> left, List<Entry> right, Comparator<Entry> comparator) {
+        List<Entry> result = new ArrayList<>(left.size() + right.size());
+        int l = 0;
+        int r = 0;
+        while (l < left.size() && r < right.size()) {
+            if (comparator.compare(left.get(l), right.get(r)) <= 0) {
+                result.add(left.get(l++));
+            } else {
+                result.add(right.get(r++));
+            }
+        }
+        result.addAll(left.subList(l, left.size()));
+        result.addAll(right.subList(r, right.size()));
+        return result;
+    }
+
+    /**
+     * Entries which are sorted on demand. The first {@code sortedCount} entries are the least of all,
+     * in order; the rest come after them, in no particular order.
+     *
+     * Reading an entry which is not yet sorted sorts the entries up to at least twice as far as
+     * before, by partitioning the rest around it first, so reading every entry in turn takes about as
+     * long as sorting them all at once.
+     */
+    private static final class SortedEntries extends AbstractList<Entry> implements RandomAccess {
+
+        // The fewest entries sorted at a time, about a screen or two of a panel
+        private static final int MIN_SORTED = 64;
+
+        private final Entry[] entries;
+        private final Comparator<Entry> comparator;
+        private int sortedCount;
+
+        SortedEntries(List<Entry> entries, int sortedCount, Comparator<Entry> comparator) {
+            this.entries = entries.toArray(new Entry[entries.size()]);
+            this.sortedCount = sortedCount;
+            this.comparator = comparator;
+        }
+
+        /**
+         * @param entries entries which are already sorted
+         */
+        SortedEntries(List<Entry> entries, Comparator<Entry> comparator) {
+            this(entries, entries.size(), comparator);
+        }
+
+        @Override
+        public synchronized Entry get(int i) {
+            if (i < 0 || i >= entries.length) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", size: " + entries.length);
+            }
+            sortUpTo(i + 1);
+            return entries[i];
+        }
+
+        @Override
+        public int size() {
+            return entries.length;
+        }
+
+        /**
+         * @return these entries less those at the given positions, keeping what was sorted
+         */
+        synchronized SortedEntries without(List<BitSet> positions) {
+            List<Entry> kept = new ArrayList<>(entries.length);
+            int keptSortedCount = 0;
+            for (int i = 0; i < entries.length; i++) {
+                if (!positions.get(entries[i].repo).get(entries[i].position)) {
+                    kept.add(entries[i]);
+                    keptSortedCount += i < sortedCount ? 1 : 0;
+                }
+            }
+            return new SortedEntries(kept, keptSortedCount, comparator);
+        }
+
+        /**
+         * @param additions sorted entries to add
+         * @return these entries and the additions, keeping what was sorted
+         */
+        synchronized SortedEntries with(List<Entry> additions) {
+            List<Entry> sortedPart = Arrays.asList(entries).subList(0, sortedCount);
+            List<Entry> rest = Arrays.asList(entries).subList(sortedCount, entries.length);
+
+            // Additions which come before the last sorted entry are merged into the sorted entries,
+            // and the rest are either appended to them, or to the unsorted entries if there are any
+            int before = 0;
+            while (sortedCount > 0 && before < additions.size()
+                && comparator.compare(additions.get(before), entries[sortedCount - 1]) < 0) {
+                before++;
+            }
+            List<Entry> result = merge(sortedPart, additions.subList(0, before), comparator);
+            if (rest.isEmpty()) {
+                result.addAll(additions.subList(before, additions.size()));
+                return new SortedEntries(result, comparator);
+            }
+            int resultSortedCount = result.size();
+            result.addAll(rest);
+            result.addAll(additions.subList(before, additions.size()));
+            return new SortedEntries(result, resultSortedCount, comparator);
+        }
+
+        /**
+         * @return the first {@code count} of these entries
+         */
+        synchronized SortedEntries limit(int count) {
+            sortUpTo(count);
+            List<Entry> result = Arrays.asList(entries).subList(0, Math.min(count, entries.length));
+            return new SortedEntries(result, comparator);
+        }
+
+        private void sortUpTo(int count) {
+            if (count <= sortedCount) {
+                return;
+            }
+            int end = Math.min(entries.length, Math.max(count, Math.max(MIN_SORTED, 2 * sortedCount)));
+            if (end < entries.length) {
+                partition(sortedCount, entries.length, end);
+            }
+            Arrays.sort(entries, sortedCount, end, comparator);
+            sortedCount = end;
+        }
+
+        /**
+         * Reorders the entries in [from, to) so that those before {@code at} come before those after it.
+         */
+        private void partition(int from, int to, int at) {
+            int low = from;
+            int high = to - 1;
+            while (low < high) {
+                Entry pivot = entries[low + (high - low) / 2];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (comparator.compare(entries[i], pivot) < 0) {
+                        i++;
+                    }
+                    while (comparator.compare(entries[j], pivot) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        Entry entry = entries[i];
+                        entries[i++] = entries[j];
+                        entries[j--] = entry;
+                    }
+                }
+                if (at <= j) {
+                    high = j;
+                } else if (at >= i) {
+                    low = i;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A matching issue and its sort keys, along with where it is found in the models.
+     */
+    private static final class Entry {
+        private final TurboIssue issue;
+        private final Object[] key;
+        private final int repo;
+        private final int position;
+
+        Entry(TurboIssue issue, Object[] key, int repo, int position) {
+            this.issue = issue;
+            this.key = key;
+            this.repo = repo;
+            this.position = position;
+        }
+    }
+}
@@ -69,17 +69,36 @@ public final class IssueMetadata {
     }
 
     /**
-     * Reconciles a newly-updated metadata instance against older data.
+     * Constructs a metadata instance from one stored in a previous session. Its events and
+     * comments may have changed since, so it is not known to be the latest.
+     */
+    public static IssueMetadata restored(List<TurboIssueEvent> events, List<Comment> comments,
+                                         String eventsETag, String commentsETag,
+                                         LocalDateTime nonSelfUpdatedAt, String user) {
+        return new IssueMetadata(events, comments, false, eventsETag, commentsETag, nonSelfUpdatedAt, user);
+    }
+
+    /**
+     * Reconciles a newly-updated metadata instance against older data. Events and comments are only
+     * downloaded when their ETags change, so the existing ones are kept when their ETags are unchanged.
      */
     public IssueMetadata reconcile(LocalDateTime nonSelfUpdatedAt,
-                                   List<TurboIssueEvent> existingEvents, String existingETag) {
-        List<TurboIssueEvent> newEvents;
-        if (existingETag.equals(eventsETag)) {
-            newEvents = new ArrayList<>(existingEvents);
-        } else {
-            newEvents = new ArrayList<>(events);
+                                   List<TurboIssueEvent> existingEvents, String existingEventsETag,
+                                   List<Comment> existingComments, String existingCommentsETag) {
+        boolean isEventsUnchanged = existingEventsETag.equals(eventsETag);
+        boolean isCommentsUnchanged = existingCommentsETag.equals(commentsETag);
+        List<TurboIssueEvent> newEvents = new ArrayList<>(isEventsUnchanged ? existingEvents : events);
+        List<Comment> newComments = new ArrayList<>(isCommentsUnchanged ? existingComments : comments);
+
+        if (isEventsUnchanged || isCommentsUnchanged) {
+            // The existing events or comments were not downloaded again, so they were not counted yet
+            LocalDateTime existingUpdatedAt = computeNonSelfUpdatedAt(newEvents, newComments, user);
+            if (existingUpdatedAt.isAfter(nonSelfUpdatedAt)) {
+                nonSelfUpdatedAt = existingUpdatedAt;
+            }
         }
-        return new IssueMetadata(newEvents, comments, isLatest, eventsETag, commentsETag, nonSelfUpdatedAt, user);
+        return new IssueMetadata(newEvents, newComments, isLatest, eventsETag, commentsETag, nonSelfUpdatedAt,
+            user);
     }
 
     /**
@@ -199,6 +218,14 @@ public final class IssueMetadata {
         return commentsETag;
     }
 
+    /**
+     * @return the user from whose perspective the computed properties were computed, or an empty
+     * string for intermediate metadata
+     */
+    public String getUser() {
+        return user;
+    }
+
     @Override
     public String toString() {
         return "Events: " + events.toString() + ", " + "comments: " + comments.toString();
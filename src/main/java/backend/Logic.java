@@ -36,8 +36,9 @@ public class Logic {
     private final MultiModel models;
     private final UIManager uiManager;
     protected final Preferences prefs;
-    private final RepoIO repoIO = TestController.createApplicationRepoIO();
-    private final RepoOpControl repoOpControl = new RepoOpControl(repoIO);
+    private final RepoIO repoIO;
+    private final RepoOpControl repoOpControl;
+    private final RepoPollingPriorities pollingPriorities = new RepoPollingPriorities();
 
     public LoginController loginController;
     public UpdateController updateController;
@@ -46,6 +47,8 @@ public class Logic {
         this.uiManager = uiManager;
         this.prefs = prefs;
         this.models = models.orElse(new MultiModel(prefs));
+        repoIO = TestController.createApplicationRepoIO(prefs);
+        repoOpControl = new RepoOpControl(repoIO);
 
         loginController = new LoginController(this);
         updateController = new UpdateController(this);
@@ -77,17 +80,37 @@ public class Logic {
         return repoIO.isRepositoryValid(repoId);
     }
 
+    /**
+     * Updates the open repos which are due for an update, going by how active they have been
+     * and whether they are shown, then refreshes the UI. Repos not due are left as they are.
+     */
     public void refresh() {
-        String message = "Refreshing " + models.toModels().stream()
+        long now = System.currentTimeMillis();
+        Set<String> focusedRepos = getFocusedRepos();
+        Set<String> visibleRepos = getVisibleRepos();
+
+        List<Model> toUpdate = new ArrayList<>();
+        List<CompletableFuture<Model>> updatedModels = new ArrayList<>();
+        for (Model model : models.toModels()) {
+            if (pollingPriorities.shouldUpdate(model.getRepoId(), focusedRepos, visibleRepos, now)) {
+                toUpdate.add(model);
+                updatedModels.add(repoOpControl.updateModel(model).thenApply(updated -> {
+                    pollingPriorities.recordUpdate(model, updated, System.currentTimeMillis());
+                    return updated;
+                }));
+            } else {
+                updatedModels.add(CompletableFuture.completedFuture(model));
+            }
+        }
+
+        String message = "Refreshing " + toUpdate.stream()
                 .map(Model::getRepoId)
                 .collect(Collectors.joining(", "));
 
         logger.info(message);
         UI.status.displayMessage(message);
 
-        Futures.sequence(models.toModels().stream()
-                .map(repoOpControl::updateModel)
-                .collect(Collectors.toList()))
+        Futures.sequence(updatedModels)
                 .thenApply(models::replace)
                 .thenRun(this::refreshUI)
                 .thenCompose(n -> getRateLimitResetTime())
@@ -95,6 +118,39 @@ public class Logic {
                 .exceptionally(Futures::log);
     }
 
+    /**
+     * @return the repos in the selected panel, or the default repo if none is selected, in lower case
+     */
+    private Set<String> getFocusedRepos() {
+        Set<String> repos = new HashSet<>();
+        uiManager.getSelectedPanel().ifPresent(panel -> repos.addAll(getReposInPanel(panel)));
+        if (repos.isEmpty() && getDefaultRepo() != null) {
+            repos.add(getDefaultRepo());
+        }
+        return Utility.convertSetToLowerCase(repos);
+    }
+
+    /**
+     * @return the repos in the panels scrolled into view, in lower case
+     */
+    private Set<String> getVisibleRepos() {
+        Set<String> repos = new HashSet<>();
+        uiManager.getPanelsInView().forEach(panel -> repos.addAll(getReposInPanel(panel)));
+        return Utility.convertSetToLowerCase(repos);
+    }
+
+    /**
+     * @return the repos a panel's filter refers to, or the default repo if it refers to none
+     */
+    private Set<String> getReposInPanel(FilterPanel panel) {
+        Set<String> repos = new HashSet<>(
+                Qualifier.getMetaQualifierContent(panel.getCurrentFilterExpression(), QualifierType.REPO));
+        if (repos.isEmpty() && getDefaultRepo() != null) {
+            repos.add(getDefaultRepo());
+        }
+        return repos;
+    }
+
     /**
      * Opens repoId if it isn't already open, else simply refreshes the UI
      * After opening the repo, it will trigger a PrimaryRepoOpenedEvent
@@ -225,7 +281,10 @@ public class Logic {
     public void removeUnusedModels(Set<String> reposInUse) {
         models.toModels().stream().map(Model::getRepoId)
                 .filter(repoId -> !reposInUse.contains(repoId.toLowerCase()))
-                .forEach(models::removeRepoModelById);
+                .forEach(repoId -> {
+                    models.removeRepoModelById(repoId);
+                    pollingPriorities.remove(repoId);
+                });
     }
 
     public ImmutablePair<Integer, Long> updateRemainingRate
@@ -356,29 +415,51 @@ public class Logic {
         return !Qualifier.getMetaQualifierContent(panel.getCurrentFilterExpression(), QualifierType.REPO).isEmpty();
     }
 
+    public CompletableFuture<Boolean> getIssueMetadata(String repoId, List<TurboIssue> issues) {
+        return getIssueMetadata(repoId, issues, () -> {});
+    }
+
     /**
      * Retrieves metadata for given issues from the repository source, and then processes them for non-self
-     * update timings.
+     * update timings. Metadata is inserted in chunks as it is retrieved, rather than once all of it is,
+     * and stored once all of it is retrieved.
      *
      * @param repoId The repository containing issues to retrieve metadata for.
      * @param issues Issues sharing the same repository requiring a metadata update.
+     * @param onChunkInserted Called whenever a chunk of metadata has been inserted.
      * @return True if metadata retrieval was a success, false otherwise.
      */
-    public CompletableFuture<Boolean> getIssueMetadata(String repoId, List<TurboIssue> issues) {
+    public CompletableFuture<Boolean> getIssueMetadata(String repoId, List<TurboIssue> issues,
+                                                       Runnable onChunkInserted) {
         String message = "Getting metadata for " + repoId + "...";
         logger.info("Getting metadata for issues " + issues);
         UI.status.displayMessage(message);
 
-        return repoIO.getIssueMetadata(repoId, issues).thenApply(this::processUpdates)
-                .thenApply(metadata -> insertMetadata(metadata, repoId, prefs.getLastLoginUsername()))
-                .exceptionally(withResult(false));
+        Set<Integer> insertedIssues = Collections.synchronizedSet(new HashSet<>());
+        return repoIO.getIssueMetadata(repoId, issues, chunk -> {
+            models.insertMetadata(repoId, processUpdates(chunk), prefs.getLastLoginUsername());
+            insertedIssues.addAll(chunk.keySet());
+            onChunkInserted.run();
+        }).thenApply(metadata -> {
+            saveInsertedMetadata(repoId, insertedIssues);
+            UI.status.displayMessage("Received metadata from " + repoId + "!");
+            return true;
+        }).exceptionally(withResult(false));
     }
 
-    private boolean insertMetadata(Map<Integer, IssueMetadata> metadata, String repoId, String currentUser) {
-        String updatedMessage = "Received metadata from " + repoId + "!";
-        UI.status.displayMessage(updatedMessage);
-        models.insertMetadata(repoId, metadata, currentUser);
-        return true;
+    /**
+     * Stores the metadata of some issues as it is in the model. What was inserted, rather than what was
+     * downloaded, is stored, as events are only downloaded when they change.
+     */
+    private void saveInsertedMetadata(String repoId, Set<Integer> issueIds) {
+        Map<Integer, IssueMetadata> inserted = new HashMap<>();
+        synchronized (issueIds) {
+            models.getModelById(repoId).ifPresent(model -> issueIds.forEach(issueId ->
+                model.getIssueById(issueId).ifPresent(issue -> inserted.put(issueId, issue.getMetadata()))));
+        }
+        if (!inserted.isEmpty()) {
+            repoIO.saveIssueMetadata(repoId, inserted);
+        }
     }
 
     // Adds update times to the metadata map
@@ -0,0 +1,113 @@
+package backend;
+
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how long to wait between refreshes, so that refreshing does not use up the API rate limit
+ * before it is reset.
+ *
+ * The cost of a refresh cycle is the number of requests used between the starts of two refreshes, as
+ * seen from the rate limits reported after requests. The remaining requests, less a reserve for what
+ * the user does, are spread over the time left until the rate limit is reset. When they run out,
+ * refreshes wait for the reset, after which they go back to the shortest period.
+ *
+ * This class is thread-safe.
+ */
+public class RefreshScheduler {
+
+    private static final Logger logger = HTLog.get(RefreshScheduler.class);
+
+    // Periods are in seconds
+    public static final int MIN_PERIOD = 60;
+
+    // Requests left for what the user does, e.g. opening repos or changing labels
+    public static final int RESERVED_REQUESTS = 200;
+
+    // The number of past refresh cycles whose cost is used to estimate the cost of the next
+    private static final int COST_HISTORY_SIZE = 10;
+
+    // Waited after a reset before refreshing, as clocks may differ slightly
+    private static final int RESET_MARGIN = 5;
+
+    // Costs of recent refresh cycles, oldest first
+    private final Deque<Integer> costHistory = new ArrayDeque<>();
+
+    // The rate limits last reported, or -1 if none were
+    private int remaining = -1;
+    private long resetTime = -1;
+
+    // The rate limits reported last before the current refresh cycle started, or -1 if there were none
+    private int cycleStartRemaining = -1;
+    private long cycleStartResetTime = -1;
+
+    /**
+     * Records the rate limits reported after a request.
+     *
+     * @param remaining the number of requests remaining
+     * @param resetTime when the rate limit is next reset, in epoch milliseconds
+     */
+    public synchronized void updateRateLimits(int remaining, long resetTime) {
+        this.remaining = remaining;
+        this.resetTime = resetTime;
+    }
+
+    /**
+     * Records the start of a refresh, which ends the previous refresh cycle.
+     */
+    public synchronized void refreshStarted() {
+        // Cycles across a reset are not counted, as their cost cannot be known
+        if (cycleStartRemaining >= 0 && cycleStartResetTime == resetTime && remaining <= cycleStartRemaining) {
+            costHistory.addLast(cycleStartRemaining - remaining);
+            if (costHistory.size() > COST_HISTORY_SIZE) {
+                costHistory.removeFirst();
+            }
+        }
+        cycleStartRemaining = remaining;
+        cycleStartResetTime = resetTime;
+    }
+
+    /**
+     * @return the estimated number of requests used by a refresh cycle, at least 1
+     */
+    public synchronized int getEstimatedCost() {
+        if (costHistory.isEmpty()) {
+            return 1;
+        }
+        int total = costHistory.stream().mapToInt(Integer::intValue).sum();
+        return Math.max(1, (int) Math.ceil((double) total / costHistory.size()));
+    }
+
+    /**
+     * @param now the current time, in epoch milliseconds
+     * @return the number of seconds to wait before the next refresh
+     */
+    public synchronized int getPeriod(long now) {
+        if (remaining < 0 || now >= resetTime) {
+            // Nothing is known yet, or the rate limit has just been reset
+            return MIN_PERIOD;
+        }
+
+        long secondsToReset = TimeUnit.MILLISECONDS.toSeconds(resetTime - now);
+        int cost = getEstimatedCost();
+        int usable = remaining - RESERVED_REQUESTS;
+        if (usable < cost) {
+            int period = (int) Math.max(MIN_PERIOD, secondsToReset + RESET_MARGIN);
+            logger.info(String.format("%d requests remaining; waiting %ds for the rate limit to be reset",
+                remaining, period));
+            return period;
+        }
+
+        long affordableRefreshes = usable / cost;
+        int period = (int) Math.max(MIN_PERIOD, (long) Math.ceil((double) secondsToReset / affordableRefreshes));
+        if (period > MIN_PERIOD) {
+            logger.info(String.format("%d requests remaining, about %d per refresh; refreshing every %ds",
+                remaining, cost, period));
+        }
+        return period;
+    }
+}
@@ -2,10 +2,12 @@ package backend;
 
 import backend.github.GitHubSource;
 import backend.interfaces.RepoSource;
+import backend.binary.BinaryStore;
 import backend.interfaces.RepoStore;
 import backend.json.JSONStore;
 import backend.resource.Model;
 import backend.resource.TurboIssue;
+import backend.resource.serialization.SerializableChanges;
 import backend.resource.serialization.SerializableModel;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.Logger;
@@ -15,12 +17,16 @@ import util.events.ShowErrorDialogEvent;
 import util.events.UpdateProgressEvent;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static util.Futures.withResult;
 
 public class RepoIO {
@@ -28,25 +34,44 @@ public class RepoIO {
     private static final Logger logger = HTLog.get(RepoIO.class);
 
     private final RepoSource repoSource;
-    private final JSONStore jsonStore;
+    private final RepoStore repoStore;
 
     private final List<String> storedRepos;
 
+    // Stored metadata of each repo by issue id, which is only loaded once metadata is needed for the repo
+    private final Map<String, CompletableFuture<Map<Integer, IssueMetadata>>> storedMetadata =
+        new ConcurrentHashMap<>();
+
     private static final int MAX_REDOWNLOAD_TRIES = 2;
+    public static final String STORE_FORMAT_BINARY = "binary";
+    public static final String STORE_FORMAT_JSON = "json";
 
     /**
      * Contructs a RepoIO providing IO operations on repositories, taking in various optional
      * parameters for repos source and storage which are useful for testing purposes.
      * @param repoSource optional source of repos. Default to GitHubSource if not present
-     * @param jsonStore optional storage for repos. Default to a new JSONStore if not present
+     * @param repoStore optional storage for repos. Default to a new JSONStore if not present
      * @param storeDirectory optional directory for storing repos. Default value is in RepoStore.
      */
-    public RepoIO(Optional<RepoSource> repoSource, Optional<JSONStore> jsonStore,
+    public RepoIO(Optional<RepoSource> repoSource, Optional<? extends RepoStore> repoStore,
                   Optional<String> storeDirectory) {
-        this.repoSource = repoSource.orElseGet(() -> new GitHubSource());
+        // The directory is changed first, as sources keep their caches inside it
         storeDirectory.ifPresent((dir) -> RepoStore.changeDirectory(dir));
-        this.jsonStore = jsonStore.orElseGet(() -> new JSONStore());
-        storedRepos = new ArrayList<>(this.jsonStore.getStoredRepos());
+        this.repoSource = repoSource.orElseGet(() -> new GitHubSource());
+        this.repoStore = repoStore.isPresent() ? repoStore.get() : new JSONStore();
+        storedRepos = new ArrayList<>(this.repoStore.getStoredRepos());
+    }
+
+    /**
+     * Creates a store for repos in the given format.
+     * @param storeFormat "binary" for a BinaryStore, which migrates repos stored as JSON on first load;
+     *                    anything else, including null, for a JSONStore
+     */
+    public static RepoStore createStore(String storeFormat) {
+        if (STORE_FORMAT_BINARY.equalsIgnoreCase(storeFormat)) {
+            return new BinaryStore();
+        }
+        return new JSONStore();
     }
 
     public List<String> getStoredRepos() {
@@ -68,9 +93,9 @@ public class RepoIO {
                 repoName.equalsIgnoreCase(repoId)).findFirst();
         if (matchingRepoName.isPresent()) {
             // TODO avoid CI deadlock in the .exceptionally call. Explanation:
-            /* loadRepoFromStoreAsync will execute in jsonStore's single thread pool, and if
+            /* loadRepoFromStoreAsync will execute in repoStore's single thread pool, and if
              it has an exception then downloadRepoFromSourceBlocking will also run there. Eventually,
-             this results in jsonStore.saveRepository in updateModel being placed as another Task on the
+             this results in repoStore.saveRepository in updateModel being placed as another Task on the
              same thread pool. However, since the current task is still carrying out and waiting for the second
              task to complete, the program gets deadlocked on the CI.
              One example of how this can happen is when storedRepos contains the repo name but the json was
@@ -85,11 +110,12 @@ public class RepoIO {
 
     public CompletableFuture<Boolean> removeRepository(String repoId) {
         storedRepos.remove(repoId);
-        return jsonStore.removeStoredRepo(repoId);
+        storedMetadata.remove(repoId);
+        return repoStore.removeStoredRepo(repoId);
     }
 
     private CompletableFuture<Model> loadRepoFromStoreAsync(String repoId) {
-        return jsonStore.loadRepository(repoId)
+        return repoStore.loadRepository(repoId)
                 .thenCompose(this::updateModel);
     }
 
@@ -129,8 +155,7 @@ public class RepoIO {
                 boolean corruptedJson = false;
                 if (!model.equals(newModel)) {
                     try {
-                        corruptedJson =
-                                jsonStore.saveRepository(newModel.getRepoId(), new SerializableModel(newModel)).get();
+                        corruptedJson = saveChanges(model, newModel).get();
                     } catch (InterruptedException | ExecutionException ex) {
                         corruptedJson = true;
                     }
@@ -156,8 +181,60 @@ public class RepoIO {
             }).exceptionally(withResult(new Model(model.getRepoId())));
     }
 
+    /**
+     * Saves only what changed between two successive models of a repo where possible, rather than
+     * the whole repo.
+     */
+    private CompletableFuture<Boolean> saveChanges(Model previous, Model current) {
+        Optional<SerializableChanges> changes = SerializableChanges.between(previous, current);
+        if (changes.isPresent()) {
+            return repoStore.saveRepositoryChanges(current.getRepoId(), changes.get(),
+                () -> new SerializableModel(current));
+        }
+        return repoStore.saveRepository(current.getRepoId(), new SerializableModel(current));
+    }
+
     public CompletableFuture<Map<Integer, IssueMetadata>> getIssueMetadata(String repoId, List<TurboIssue> issues) {
-        return repoSource.downloadMetadata(repoId, issues);
+        return getIssueMetadata(repoId, issues, chunk -> {});
+    }
+
+    /**
+     * Downloads the metadata of some issues of a repo. Issues without metadata from this session are given
+     * their stored metadata first, so that its ETags are used in conditional requests.
+     *
+     * @param chunkListener receives the downloaded metadata in chunks as it is downloaded
+     */
+    public CompletableFuture<Map<Integer, IssueMetadata>> getIssueMetadata(String repoId, List<TurboIssue> issues,
+        Consumer<Map<Integer, IssueMetadata>> chunkListener) {
+        return getStoredMetadata(repoId)
+            .thenCompose(stored -> {
+                synchronized (stored) {
+                    issues.stream()
+                        .filter(issue -> isNullOrEmpty(issue.getMetadata().getEventsETag()))
+                        .filter(issue -> stored.containsKey(issue.getId()))
+                        .forEach(issue -> issue.setMetadata(stored.get(issue.getId())));
+                }
+                return repoSource.downloadMetadata(repoId, issues, chunkListener);
+            });
+    }
+
+    /**
+     * Stores the metadata of some issues of a repo, along with what is already stored for its other issues.
+     */
+    public CompletableFuture<Boolean> saveIssueMetadata(String repoId, Map<Integer, IssueMetadata> metadata) {
+        return getStoredMetadata(repoId)
+            .thenCompose(stored -> {
+                Map<Integer, IssueMetadata> toSave;
+                synchronized (stored) {
+                    stored.putAll(metadata);
+                    toSave = new HashMap<>(stored);
+                }
+                return repoStore.saveMetadata(repoId, toSave);
+            });
+    }
+
+    private CompletableFuture<Map<Integer, IssueMetadata>> getStoredMetadata(String repoId) {
+        return storedMetadata.computeIfAbsent(repoId, repoStore::loadMetadata);
     }
 
     public CompletableFuture<Boolean> replaceIssueLabels(TurboIssue issue, List<String> labels) {
@@ -0,0 +1,131 @@
+package backend;
+
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which repos to update on each refresh, based on how recently they changed.
+ *
+ * A repo which changed recently is updated on every refresh. The longer a repo goes without changing,
+ * the fewer refreshes it is updated on: the number of refreshes between its updates doubles every time
+ * its time since the last change doubles, up to MAX_INTERVAL. Focused repos, i.e. those in the selected
+ * panel, are always updated, and repos in other panels scrolled into view are updated at least every
+ * VISIBLE_MAX_INTERVAL refreshes.
+ *
+ * This class is thread-safe.
+ */
+public class RepoPollingPriorities {
+
+    private static final Logger logger = HTLog.get(RepoPollingPriorities.class);
+
+    // Repos which changed within this time are updated on every refresh
+    public static final long HOT_PERIOD = TimeUnit.MINUTES.toMillis(10);
+
+    // The largest numbers of refreshes between updates of a repo
+    public static final int MAX_INTERVAL = 16;
+    public static final int VISIBLE_MAX_INTERVAL = 2;
+
+    private static class RepoActivity {
+        long lastChangeTime;
+        int refreshesSinceUpdate = 0;
+
+        RepoActivity(long lastChangeTime) {
+            this.lastChangeTime = lastChangeTime;
+        }
+    }
+
+    // Activity by repo id, in lower case. Guarded by this.
+    private final Map<String, RepoActivity> activities = new HashMap<>();
+
+    /**
+     * Decides whether to update a repo on the refresh happening now. Must be called once for each open
+     * repo on every refresh.
+     *
+     * @param focusedRepos repos which are always updated, in lower case
+     * @param visibleRepos repos which are updated more often, in lower case
+     * @param now the current time, in epoch milliseconds
+     */
+    public synchronized boolean shouldUpdate(String repoId, Set<String> focusedRepos, Set<String> visibleRepos,
+                                             long now) {
+        String key = repoId.toLowerCase();
+        // A repo first seen, e.g. just opened, counts as having just changed
+        RepoActivity activity = activities.computeIfAbsent(key, k -> new RepoActivity(now));
+        activity.refreshesSinceUpdate++;
+
+        int interval = getInterval(activity, now);
+        if (focusedRepos.contains(key)) {
+            interval = 1;
+        } else if (visibleRepos.contains(key)) {
+            interval = Math.min(interval, VISIBLE_MAX_INTERVAL);
+        }
+
+        if (activity.refreshesSinceUpdate < interval) {
+            logger.info(HTLog.format(repoId, "Skipping update; updated every %d refreshes", interval));
+            return false;
+        }
+        activity.refreshesSinceUpdate = 0;
+        return true;
+    }
+
+    /**
+     * Records the changes to a repo found by an update.
+     *
+     * @param now the time the update was made, in epoch milliseconds
+     */
+    public synchronized void recordUpdate(Model previous, Model updated, long now) {
+        boolean isChanged = countChangedIssues(previous, updated) > 0 || isOtherwiseChanged(previous, updated);
+
+        RepoActivity activity = activities.computeIfAbsent(updated.getRepoId().toLowerCase(),
+            k -> new RepoActivity(now));
+        if (isChanged) {
+            activity.lastChangeTime = now;
+        }
+    }
+
+    /**
+     * Forgets a repo, e.g. when it is no longer open.
+     */
+    public synchronized void remove(String repoId) {
+        activities.remove(repoId.toLowerCase());
+    }
+
+    /**
+     * @return the number of refreshes between updates of a repo, going by its activity alone
+     */
+    private static int getInterval(RepoActivity activity, long now) {
+        long idlePeriods = (now - activity.lastChangeTime) / HOT_PERIOD;
+        int interval = 1;
+        while (interval < MAX_INTERVAL && idlePeriods >= interval * 2) {
+            interval *= 2;
+        }
+        return interval;
+    }
+
+    private static int countChangedIssues(Model previous, Model updated) {
+        int count = 0;
+        for (TurboIssue issue : updated.getIssues()) {
+            Optional<TurboIssue> previousIssue = previous.getIssueById(issue.getId());
+            if (!previousIssue.isPresent() || !previousIssue.get().getUpdatedAt().equals(issue.getUpdatedAt())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isOtherwiseChanged(Model previous, Model updated) {
+        UpdateSignature previousSignature = previous.getUpdateSignature();
+        UpdateSignature updatedSignature = updated.getUpdateSignature();
+        return !Objects.equals(previousSignature.labelsETag, updatedSignature.labelsETag)
+            || !Objects.equals(previousSignature.milestonesETag, updatedSignature.milestonesETag)
+            || !Objects.equals(previousSignature.collaboratorsETag, updatedSignature.collaboratorsETag);
+    }
+}
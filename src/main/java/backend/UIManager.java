@@ -12,6 +12,7 @@ import util.events.UpdateRateLimitsEvent;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class UIManager {
 
@@ -38,5 +39,21 @@ public class UIManager {
     public List<FilterPanel> getAllPanels() {
         return ui.guiController.getAllPanels();
     }
+
+    /**
+     * Gets the list of panels currently scrolled into view in the UI
+     * @return
+     */
+    public List<FilterPanel> getPanelsInView() {
+        return ui.guiController.getPanelsInView();
+    }
+
+    /**
+     * Gets the panel currently selected in the UI, if any
+     * @return
+     */
+    public Optional<FilterPanel> getSelectedPanel() {
+        return ui.guiController.getSelectedPanel();
+    }
 }
 
@@ -3,6 +3,7 @@ package backend;
 import backend.resource.Model;
 import backend.resource.MultiModel;
 import backend.resource.TurboIssue;
+import filter.expression.CompiledFilter;
 import filter.expression.FilterExpression;
 import filter.expression.Qualifier;
 import org.apache.logging.log4j.Logger;
@@ -11,6 +12,7 @@ import ui.GuiElement;
 import ui.issuepanel.FilterPanel;
 import util.Futures;
 import util.HTLog;
+import util.ParallelMapper;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -25,8 +27,25 @@ import java.util.stream.Collectors;
 public class UpdateController {
     private static final Logger logger = HTLog.get(UpdateController.class);
 
+    // The number of filter expressions whose results are kept for incremental recomputation
+    private static final int MATERIALIZED_RESULTS_LIMIT = 64;
+
     private final Logic logic;
 
+    // Processes filter expressions in parallel, as configured in preferences. Replaced when that changes.
+    private ParallelMapper mapper = new ParallelMapper(1);
+    private int mapperThreadsSetting = 1;
+
+    // Results of recently processed filter expressions (with milestone aliases replaced), least recently
+    // used first. Guarded by itself.
+    private final Map<FilterExpression, FilterResult> materializedResults =
+        new LinkedHashMap<FilterExpression, FilterResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FilterExpression, FilterResult> eldest) {
+                return size() > MATERIALIZED_RESULTS_LIMIT;
+            }
+        };
+
     public UpdateController(Logic logic) {
         this.logic = logic;
     }
@@ -54,10 +73,12 @@ public class UpdateController {
                 return;
             }
 
-            // If there are issues requiring metadata update, we dispatch the metadata requests...
+            // If there are issues requiring metadata update, we dispatch the metadata requests,
+            // filtering again as each chunk of metadata arrives...
             ArrayList<CompletableFuture<Boolean>> metadataRetrievalTasks = new ArrayList<>();
             toUpdate.forEach((repoId, issues) ->
-                    metadataRetrievalTasks.add(logic.getIssueMetadata(repoId, issues)));
+                    metadataRetrievalTasks.add(logic.getIssueMetadata(repoId, issues,
+                            () -> logic.updateUI(processFilter(filterExprs)))));
             // ...and then wait for all of them to complete.
             Futures.sequence(metadataRetrievalTasks)
                     .thenAccept(results -> logger.info("Metadata retrieval successful for "
@@ -96,12 +117,15 @@ public class UpdateController {
      */
     private Map<String, List<TurboIssue>> tallyMetadataUpdate(List<FilterExpression> filterExprs) {
         MultiModel models = logic.getModels();
-        List<TurboIssue> allModelIssues = models.getIssues();
-
-        return filterExprs.stream()
+        List<Model> repoModels = models.toModels();
+        List<FilterExpression> updatedFilterExprs = filterExprs.stream()
                 .filter(Qualifier::hasUpdatedQualifier)
-                .flatMap(filterExpr -> allModelIssues.stream()
-                        .filter(issue -> Qualifier.process(models, filterExpr, issue)))
+                .collect(Collectors.toList());
+
+        return getMapper().map(updatedFilterExprs,
+                        filterExpr -> CompiledFilter.compile(models, filterExpr).getMatchingIssues(repoModels))
+                .stream()
+                .flatMap(List::stream)
                 .distinct()
                 .collect(Collectors.groupingBy(TurboIssue::getRepoId));
     }
@@ -110,34 +134,75 @@ public class UpdateController {
      * Filters, sorts and counts issues within the model according to the given filter expressions.
      * In here, "processed" is equivalent to "filtered, sorted and counted".
      *
+     * Filtering and sorting results are materialized per filter expression, so that issues which have
+     * not changed since an expression was last processed are not filtered or sorted again.
+     *
+     * Filter expressions may be processed in parallel (see {@link prefs.Preferences#getFilterThreads}). The
+     * results are the same as when they are processed serially.
+     *
      * @param filterExprs Filter expressions to process.
      * @return Filter expressions and their corresponding issues after filtering, sorting and counting.
      */
     private Map<FilterExpression, List<GuiElement>> processFilter(List<FilterExpression> filterExprs) {
         MultiModel models = logic.getModels();
-        List<TurboIssue> allModelIssues = models.getIssues();
 
-        Map<FilterExpression, List<GuiElement>> processed = new HashMap<>();
+        List<FilterExpression> distinctFilterExprs = filterExprs.stream().distinct().collect(Collectors.toList());
 
-        filterExprs.stream().distinct().forEach(filterExpr -> {
+        List<List<GuiElement>> processedElements = getMapper().map(distinctFilterExprs, filterExpr -> {
             boolean hasUpdatedQualifier = Qualifier.hasUpdatedQualifier(filterExpr);
 
             FilterExpression filterExprNoAlias = Qualifier.replaceMilestoneAliases(models, filterExpr);
 
-            List<TurboIssue> processedIssues = allModelIssues.stream()
-                    .filter(issue -> Qualifier.process(models, filterExprNoAlias, issue))
-                    .sorted(determineComparator(filterExprNoAlias, hasUpdatedQualifier))
-                    .limit(Qualifier.determineCount(allModelIssues, filterExprNoAlias))
-                    .collect(Collectors.toList());
-
-            List<GuiElement> processedElements = produceGuiElements(models, processedIssues);
+            // Limited to the count given in the expression, if any
+            List<TurboIssue> processedIssues = materialize(models, filterExprNoAlias,
+                    determineComparator(filterExprNoAlias, hasUpdatedQualifier))
+                    .getIssues();
 
-            processed.put(filterExpr, processedElements);
+            return produceGuiElements(models, processedIssues);
         });
 
+        Map<FilterExpression, List<GuiElement>> processed = new HashMap<>();
+        for (int i = 0; i < distinctFilterExprs.size(); i++) {
+            processed.put(distinctFilterExprs.get(i), processedElements.get(i));
+        }
         return processed;
     }
 
+    /**
+     * @return a mapper with the number of threads currently configured for filtering
+     */
+    private synchronized ParallelMapper getMapper() {
+        int threadsSetting = logic.prefs.getFilterThreads();
+        if (threadsSetting != mapperThreadsSetting) {
+            mapper.shutdown();
+            mapper = new ParallelMapper(threadsSetting);
+            mapperThreadsSetting = threadsSetting;
+            logger.info("Filtering with " + mapper.getThreads() + " thread(s)");
+        }
+        return mapper;
+    }
+
+    /**
+     * Brings the materialized result of a filter expression up to date with the models, computing it
+     * afresh if there is none.
+     */
+    private FilterResult materialize(MultiModel models, FilterExpression filterExpr,
+                                     Comparator<TurboIssue> comparator) {
+        FilterResult previous;
+        synchronized (materializedResults) {
+            previous = materializedResults.get(filterExpr);
+        }
+
+        FilterResult result = previous == null
+                ? FilterResult.compute(models, filterExpr, comparator)
+                : previous.update(models, comparator);
+
+        synchronized (materializedResults) {
+            materializedResults.put(filterExpr, result);
+        }
+        return result;
+    }
+
     /**
      * Produces a suitable comparator based on the given filter expression.
      *
@@ -166,7 +231,9 @@ public class UpdateController {
 
     /**
      * Constructs GuiElements (including all necessary references to labels/milestones/users to properly display
-     * the issue) corresponding to a list of issues without changing the order.
+     * the issue) corresponding to a list of issues without changing the order. Elements are all constructed
+     * here, off the UI thread and against the models as they are now, which also completes any sorting
+     * deferred by {@link FilterResult}.
      *
      * @param models The MultiModel from which necessary references are extracted.
      * @param processedIssues The list of issues to construct GUIElements for.
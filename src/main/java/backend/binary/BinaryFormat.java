@@ -0,0 +1,396 @@
+package backend.binary;
+
+import backend.UpdateSignature;
+import backend.resource.serialization.SerializableIssue;
+import backend.resource.serialization.SerializableLabel;
+import backend.resource.serialization.SerializableMilestone;
+import backend.resource.serialization.SerializableModel;
+import backend.resource.serialization.SerializableUser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The binary format of stored repos, version 1.
+ *
+ * A stored repo starts with a magic number, the format version and the repo id. Every other string
+ * is written once, in a string table which follows, and referred to by its index in it. Integers are
+ * written as variable-length quantities (zigzag-encoded if they may be negative), timestamps as epoch
+ * seconds and nanoseconds in UTC, and the labels of an issue as an array of string indices.
+ *
+ * <pre>
+ * repo      = magic version string(repoId) strings signature labels milestones users issues
+ * strings   = count string*                      string = length utf8Bytes
+ * signature = 0 | 1 ref(issues) ref(labels) ref(milestones) ref(collaborators) zigzag(lastCheckTime)
+ * labels    = count (ref(fullName) ref(colour))*
+ * milestones= count (zigzag(id) ref(title) date(dueDate) ref(description) bool(isOpen) openIssues closedIssues)*
+ * users     = count (ref(loginName) ref(realName) ref(avatarURL))*
+ * issues    = count (zigzag(id) ref(title) ref(creator) time(createdAt) flags ref(description) time(updatedAt)
+ *             commentCount [ref(assignee)] [zigzag(milestone)] count ref(label)*)*
+ * ref       = 0 for null, otherwise 1 + the index of the string
+ * time      = 0 for null, otherwise (1 + nanos) zigzag(epochSecond)
+ * date      = 0 for none, otherwise 1 zigzag(epochDay)
+ * </pre>
+ */
+final class BinaryFormat {
+
+    static final int MAGIC = 0x48545253; // "HTRS"
+    static final int VERSION = 1;
+
+    private static final int PULL_REQUEST = 1;
+    private static final int OPEN = 2;
+    private static final int HAS_ASSIGNEE = 4;
+    private static final int HAS_MILESTONE = 8;
+
+    private BinaryFormat() {}
+
+    @SuppressWarnings("unused")
+    private void ______WRITING______() {}
+
+    public static void write(SerializableModel model, OutputStream output) throws IOException {
+        Writer writer = new Writer(output, stringTableOf(model));
+
+        writer.writeInt(MAGIC);
+        writer.writeVarLong(VERSION);
+        writer.writeString(model.repoId);
+        writer.writeVarLong(writer.strings.size());
+        for (String string : writer.strings.keySet()) {
+            writer.writeString(string);
+        }
+
+        UpdateSignature signature = model.updateSignature;
+        if (signature == null || signature.isEmpty()) {
+            writer.writeVarLong(0);
+        } else {
+            writer.writeVarLong(1);
+            writer.writeRef(signature.issuesETag);
+            writer.writeRef(signature.labelsETag);
+            writer.writeRef(signature.milestonesETag);
+            writer.writeRef(signature.collaboratorsETag);
+            writer.writeZigZag(signature.lastCheckTime.getTime());
+        }
+
+        writer.writeVarLong(model.labels.size());
+        for (SerializableLabel label : model.labels) {
+            writer.writeRef(label.getFullName());
+            writer.writeRef(label.getColour());
+        }
+
+        writer.writeVarLong(model.milestones.size());
+        for (SerializableMilestone milestone : model.milestones) {
+            writer.writeZigZag(milestone.getId());
+            writer.writeRef(milestone.getTitle());
+            writer.writeDate(milestone.getDueDate());
+            writer.writeRef(milestone.getDescription());
+            writer.writeVarLong(milestone.isOpen() ? 1 : 0);
+            writer.writeVarLong(milestone.getOpenIssues());
+            writer.writeVarLong(milestone.getClosedIssues());
+        }
+
+        writer.writeVarLong(model.users.size());
+        for (SerializableUser user : model.users) {
+            writer.writeRef(user.getLoginName());
+            writer.writeRef(user.getRealName());
+            writer.writeRef(user.getAvatarURL());
+        }
+
+        writer.writeVarLong(model.issues.size());
+        for (SerializableIssue issue : model.issues) {
+            Optional<String> assignee = orEmpty(issue.getAssignee());
+            Optional<Integer> milestone = orEmpty(issue.getMilestone());
+            List<String> labels = issue.getLabels() == null ? new ArrayList<>() : issue.getLabels();
+
+            writer.writeZigZag(issue.getId());
+            writer.writeRef(issue.getTitle());
+            writer.writeRef(issue.getCreator());
+            writer.writeTime(issue.getCreatedAt());
+            writer.writeVarLong((issue.isPullRequest() ? PULL_REQUEST : 0)
+                | (issue.isOpen() ? OPEN : 0)
+                | (assignee.isPresent() ? HAS_ASSIGNEE : 0)
+                | (milestone.isPresent() ? HAS_MILESTONE : 0));
+            writer.writeRef(issue.getDescription());
+            writer.writeTime(issue.getUpdatedAt());
+            writer.writeVarLong(issue.getCommentCount());
+            if (assignee.isPresent()) {
+                writer.writeRef(assignee.get());
+            }
+            if (milestone.isPresent()) {
+                writer.writeZigZag(milestone.get());
+            }
+            writer.writeVarLong(labels.size());
+            for (String label : labels) {
+                writer.writeRef(label);
+            }
+        }
+    }
+
+    /**
+     * @return the index of each string in the model other than the repo id, in order of first appearance
+     */
+    private static Map<String, Integer> stringTableOf(SerializableModel model) {
+        StringTable table = new StringTable();
+        UpdateSignature signature = model.updateSignature;
+        if (signature != null && !signature.isEmpty()) {
+            table.add(signature.issuesETag);
+            table.add(signature.labelsETag);
+            table.add(signature.milestonesETag);
+            table.add(signature.collaboratorsETag);
+        }
+        for (SerializableLabel label : model.labels) {
+            table.add(label.getFullName());
+            table.add(label.getColour());
+        }
+        for (SerializableMilestone milestone : model.milestones) {
+            table.add(milestone.getTitle());
+            table.add(milestone.getDescription());
+        }
+        for (SerializableUser user : model.users) {
+            table.add(user.getLoginName());
+            table.add(user.getRealName());
+            table.add(user.getAvatarURL());
+        }
+        for (SerializableIssue issue : model.issues) {
+            table.add(issue.getTitle());
+            table.add(issue.getCreator());
+            table.add(issue.getDescription());
+            orEmpty(issue.getAssignee()).ifPresent(table::add);
+            if (issue.getLabels() != null) {
+                issue.getLabels().forEach(table::add);
+            }
+        }
+        return table.indices;
+    }
+
+    private static <T> Optional<T> orEmpty(Optional<T> optional) {
+        return optional == null ? Optional.empty() : optional;
+    }
+
+    @SuppressWarnings("unused")
+    private void ______READING______() {}
+
+    /**
+     * @throws IllegalArgumentException if the buffer does not hold a repo in this format
+     * @throws java.nio.BufferUnderflowException if the buffer holds only part of a repo
+     */
+    public static String readRepoId(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a stored repo");
+        }
+        long version = readVarLong(buffer);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported stored repo version " + version);
+        }
+        return readString(buffer);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the buffer does not hold a repo in this format
+     * @throws java.nio.BufferUnderflowException if the buffer holds only part of a repo
+     * @throws IndexOutOfBoundsException if the repo refers to strings it does not have
+     */
+    public static SerializableModel read(ByteBuffer buffer) {
+        String repoId = readRepoId(buffer);
+        String[] strings = new String[readCount(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(buffer);
+        }
+        Reader reader = new Reader(buffer, strings);
+
+        UpdateSignature signature = UpdateSignature.EMPTY;
+        if (reader.readVarLong() != 0) {
+            signature = new UpdateSignature(reader.readRef(), reader.readRef(), reader.readRef(),
+                reader.readRef(), new Date(reader.readZigZag()));
+        }
+
+        List<SerializableLabel> labels = new ArrayList<>();
+        for (int i = reader.readCount(); i > 0; i--) {
+            labels.add(new SerializableLabel(reader.readRef(), reader.readRef()));
+        }
+
+        List<SerializableMilestone> milestones = new ArrayList<>();
+        for (int i = reader.readCount(); i > 0; i--) {
+            milestones.add(new SerializableMilestone((int) reader.readZigZag(), reader.readRef(),
+                reader.readDate(), reader.readRef(), reader.readVarLong() != 0,
+                (int) reader.readVarLong(), (int) reader.readVarLong()));
+        }
+
+        List<SerializableUser> users = new ArrayList<>();
+        for (int i = reader.readCount(); i > 0; i--) {
+            users.add(new SerializableUser(reader.readRef(), reader.readRef(), reader.readRef()));
+        }
+
+        List<SerializableIssue> issues = new ArrayList<>();
+        for (int i = reader.readCount(); i > 0; i--) {
+            int id = (int) reader.readZigZag();
+            String title = reader.readRef();
+            String creator = reader.readRef();
+            LocalDateTime createdAt = reader.readTime();
+            long flags = reader.readVarLong();
+            String description = reader.readRef();
+            LocalDateTime updatedAt = reader.readTime();
+            int commentCount = (int) reader.readVarLong();
+            Optional<String> assignee = (flags & HAS_ASSIGNEE) != 0
+                ? Optional.ofNullable(reader.readRef())
+                : Optional.empty();
+            Optional<Integer> milestone = (flags & HAS_MILESTONE) != 0
+                ? Optional.of((int) reader.readZigZag())
+                : Optional.empty();
+            List<String> issueLabels = new ArrayList<>();
+            for (int j = reader.readCount(); j > 0; j--) {
+                issueLabels.add(reader.readRef());
+            }
+            issues.add(new SerializableIssue(id, title, creator, createdAt, (flags & PULL_REQUEST) != 0,
+                description, updatedAt, commentCount, (flags & OPEN) != 0, assignee, issueLabels, milestone));
+        }
+
+        return new SerializableModel(repoId, signature, issues, labels, milestones, users);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length quantity");
+    }
+
+    private static int readCount(ByteBuffer buffer) {
+        long count = readVarLong(buffer);
+        if (count > buffer.remaining()) {
+            // Each element takes at least a byte
+            throw new IllegalArgumentException("Malformed count " + count);
+        }
+        return (int) count;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readCount(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> indices = new LinkedHashMap<>();
+
+        void add(String string) {
+            if (string != null) {
+                indices.putIfAbsent(string, indices.size());
+            }
+        }
+    }
+
+    private static final class Writer {
+        private final OutputStream output;
+        private final Map<String, Integer> strings;
+
+        Writer(OutputStream output, Map<String, Integer> strings) {
+            this.output = output;
+            this.strings = strings;
+        }
+
+        void writeInt(int value) throws IOException {
+            output.write(value >>> 24);
+            output.write(value >>> 16);
+            output.write(value >>> 8);
+            output.write(value);
+        }
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7fL) != 0) {
+                output.write((int) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            output.write((int) value);
+        }
+
+        void writeZigZag(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String string) throws IOException {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            output.write(bytes);
+        }
+
+        void writeRef(String string) throws IOException {
+            writeVarLong(string == null ? 0 : strings.get(string) + 1);
+        }
+
+        void writeTime(LocalDateTime time) throws IOException {
+            if (time == null) {
+                writeVarLong(0);
+            } else {
+                writeVarLong(time.getNano() + 1);
+                writeZigZag(time.toEpochSecond(ZoneOffset.UTC));
+            }
+        }
+
+        void writeDate(Optional<LocalDate> date) throws IOException {
+            if (date == null || !date.isPresent()) {
+                writeVarLong(0);
+            } else {
+                writeVarLong(1);
+                writeZigZag(date.get().toEpochDay());
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        Reader(ByteBuffer buffer, String[] strings) {
+            this.buffer = buffer;
+            this.strings = strings;
+        }
+
+        long readVarLong() {
+            return BinaryFormat.readVarLong(buffer);
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        int readCount() {
+            return BinaryFormat.readCount(buffer);
+        }
+
+        String readRef() {
+            long ref = readVarLong();
+            return ref == 0 ? null : strings[(int) (ref - 1)];
+        }
+
+        LocalDateTime readTime() {
+            long nanos = readVarLong();
+            if (nanos == 0) {
+                return null;
+            }
+            return LocalDateTime.ofEpochSecond(readZigZag(), (int) (nanos - 1), ZoneOffset.UTC);
+        }
+
+        Optional<LocalDate> readDate() {
+            if (readVarLong() == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(LocalDate.ofEpochDay(readZigZag()));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package backend.binary;
+
+import backend.interfaces.RepoStore;
+import backend.interfaces.StoreManifest;
+import backend.json.JSONStore;
+import backend.resource.Model;
+import backend.resource.serialization.SerializableModel;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Stores repos in the compact binary format of {@link BinaryFormat}, which is read from memory-mapped
+ * files rather than parsed from text.
+ *
+ * Repos stored by a JSONStore in the same directory are migrated on first load: they are read as
+ * JSON, written in the binary format, and their JSON files are deleted.
+ */
+public class BinaryStore extends RepoStore {
+
+    private static final Logger logger = HTLog.get(BinaryStore.class);
+
+    static final String EXTENSION = "bin";
+
+    private final JSONStore legacyStore;
+    private final StoreManifest manifest = new StoreManifest(EXTENSION, BinaryStore::readManifestEntry);
+
+    public BinaryStore() {
+        this(new JSONStore());
+    }
+
+    /**
+     * @param legacyStore the store to migrate repos stored as JSON from
+     */
+    public BinaryStore(JSONStore legacyStore) {
+        this.legacyStore = legacyStore;
+    }
+
+    @Override
+    protected String getExtension() {
+        return EXTENSION;
+    }
+
+    @Override
+    protected StoreManifest getManifest() {
+        return manifest;
+    }
+
+    @Override
+    public CompletableFuture<Model> loadRepository(String repoId) {
+        CompletableFuture<Model> response = new CompletableFuture<>();
+        addTask(new ReadTask(repoId, legacyStore, manifest, response));
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveRepository(String repoId, SerializableModel model) {
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        addTask(new WriteTask(repoId, model, manifest, response));
+        return response;
+    }
+
+    /**
+     * Stored repos are listed from the manifest, along with the repos still stored as JSON.
+     */
+    @Override
+    public List<String> getStoredRepos() {
+        List<String> repos = manifest.getEntries().stream()
+                .map(entry -> {
+                    logger.info("Adding " + entry.fileName + " to stored repository list. ");
+                    return entry.repoId;
+                })
+                .collect(Collectors.toList());
+        for (String repoId : legacyStore.getStoredRepos()) {
+            if (!repos.contains(repoId)) {
+                repos.add(repoId);
+            }
+        }
+        return repos;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeStoredRepo(String repoId) {
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        addTask(new DeleteTask(repoId, manifest, response));
+        return response;
+    }
+
+    static Optional<String> getRepoPath(String repoId) {
+        return RepoStore.getRepoPath(repoId, EXTENSION);
+    }
+
+    /**
+     * @return the path of the JSON file a repo is stored in if it has yet to be migrated
+     */
+    static Optional<String> getLegacyRepoPath(String repoId) {
+        return RepoStore.getRepoPath(repoId, "json");
+    }
+
+    /**
+     * Maps a file into memory to be read. Pages of the file are only read when the buffer is.
+     */
+    static MappedByteBuffer map(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Reads the manifest entry of the repo stored in a file. The whole file is decoded, to check that
+     * it is well-formed.
+     */
+    private static Optional<StoreManifest.Entry> readManifestEntry(Path p, long lastWriteTime) {
+        try {
+            SerializableModel model = BinaryFormat.read(map(String.valueOf(p.toAbsolutePath())));
+            String fileName = String.valueOf(p.getFileName());
+            if (fileName.equalsIgnoreCase(escapeRepoName(model.repoId, EXTENSION))) {
+                return Optional.of(new StoreManifest.Entry(model.repoId, fileName, model.issues.size(),
+                    model.updateSignature, lastWriteTime));
+            }
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            logger.error("Unable to load repository from " + p.getFileName());
+        }
+        return Optional.empty();
+    }
+
+    static boolean exists(Optional<String> path) {
+        return path.isPresent() && new File(path.get()).isFile();
+    }
+}
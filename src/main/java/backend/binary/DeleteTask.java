@@ -0,0 +1,37 @@
+package backend.binary;
+
+import backend.interfaces.MetadataStore;
+import backend.interfaces.RepoJournal;
+import backend.interfaces.RepoStore;
+import backend.interfaces.StoreManifest;
+import backend.interfaces.StoreTask;
+import util.Utility;
+
+import java.util.concurrent.CompletableFuture;
+
+class DeleteTask extends StoreTask {
+    private final StoreManifest manifest;
+    public final CompletableFuture<Boolean> response;
+
+    protected DeleteTask(String repoId, StoreManifest manifest, CompletableFuture<Boolean> response) {
+        super(repoId);
+        this.manifest = manifest;
+        this.response = response;
+    }
+
+    /**
+     * Deletes both the binary file of the repo and its JSON file, if it was never migrated.
+     */
+    @Override
+    public void run() {
+        boolean failed = BinaryStore.exists(BinaryStore.getRepoPath(repoId))
+                && Utility.deleteFile(BinaryStore.getRepoPath(repoId).get());
+        manifest.recordRemoval(repoId);
+        RepoJournal.clear(repoId);
+        MetadataStore.clear(repoId);
+        if (BinaryStore.exists(BinaryStore.getLegacyRepoPath(repoId))) {
+            failed = RepoStore.delete(repoId) || failed;
+        }
+        response.complete(failed);
+    }
+}
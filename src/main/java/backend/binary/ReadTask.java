@@ -0,0 +1,88 @@
+package backend.binary;
+
+import backend.interfaces.RepoJournal;
+import backend.interfaces.StoreManifest;
+import backend.interfaces.StoreTask;
+import backend.json.JSONStore;
+import backend.resource.Model;
+import backend.resource.serialization.SerializableModel;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+import util.exceptions.BinaryLoadException;
+import util.exceptions.RepoStoreException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+class ReadTask extends StoreTask {
+
+    private static final Logger logger = HTLog.get(ReadTask.class);
+
+    private final JSONStore legacyStore;
+    private final StoreManifest manifest;
+    public final CompletableFuture<Model> response;
+
+    public ReadTask(String repoId, JSONStore legacyStore, StoreManifest manifest,
+                    CompletableFuture<Model> response) {
+        super(repoId);
+        this.legacyStore = legacyStore;
+        this.manifest = manifest;
+        this.response = response;
+    }
+
+    @Override
+    public void run() {
+        try {
+            Optional<String> repoPath = BinaryStore.getRepoPath(repoId);
+            boolean unmigrated = !BinaryStore.exists(repoPath)
+                    && BinaryStore.exists(BinaryStore.getLegacyRepoPath(repoId));
+            Model model = unmigrated ? migrate(repoId) : load(repoId, repoPath);
+            response.complete(model);
+        } catch (RepoStoreException e) {
+            logger.error(HTLog.format(repoId, "Unable to load from store"));
+            response.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Loads repository data from its memory-mapped binary file into a new Model, with the changes in its
+     * journal applied.
+     * @throws BinaryLoadException when the file cannot be read or is corrupted
+     */
+    private Model load(String repoId, Optional<String> repoPath) throws RepoStoreException {
+        if (!repoPath.isPresent()) {
+            throw new BinaryLoadException(new IOException("Unable to access store directory"));
+        }
+        try {
+            SerializableModel sModel = BinaryFormat.read(BinaryStore.map(repoPath.get()));
+            logger.info(HTLog.format(repoId, "Data loaded from binary store"));
+            return new Model(RepoJournal.replay(repoId, sModel));
+        } catch (IOException e) {
+            logger.error("Unable to load " + repoId + " from binary store");
+            throw new BinaryLoadException(e);
+        } catch (IllegalArgumentException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            logger.error(HTLog.format(repoId, "Binary data is corrupted"));
+            throw new BinaryLoadException(e);
+        }
+    }
+
+    /**
+     * Loads a repo stored as JSON, then stores it in the binary format in its place.
+     */
+    private Model migrate(String repoId) throws RepoStoreException {
+        Model model;
+        try {
+            model = legacyStore.loadRepository(repoId).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new BinaryLoadException(e);
+        }
+        if (!WriteTask.save(repoId, new SerializableModel(model), manifest)) {
+            legacyStore.removeMigratedRepo(repoId);
+            logger.info(HTLog.format(repoId, "Migrated from JSON to binary store"));
+        }
+        return model;
+    }
+}
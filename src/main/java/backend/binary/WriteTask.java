@@ -0,0 +1,59 @@
+package backend.binary;
+
+import backend.interfaces.RepoJournal;
+import backend.interfaces.StoreManifest;
+import backend.interfaces.StoreTask;
+import backend.resource.serialization.SerializableModel;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+import util.Utility;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+class WriteTask extends StoreTask {
+
+    private static final Logger logger = HTLog.get(WriteTask.class);
+
+    public final SerializableModel toSave;
+    private final StoreManifest manifest;
+    public final CompletableFuture<Boolean> response;
+
+    public WriteTask(String repoName, SerializableModel toSave, StoreManifest manifest,
+                     CompletableFuture<Boolean> response) {
+        super(repoName);
+        this.toSave = toSave;
+        this.manifest = manifest;
+        this.response = response;
+    }
+
+    @Override
+    public void run() {
+        response.complete(save(repoId, toSave, manifest));
+    }
+
+    /**
+     * Writes a repo to a temporary file, which then replaces the stored repo, so that it is never
+     * left partly written. The save is then recorded in the manifest, and the journal of the repo cleared.
+     * @return true on failure to write the repo, false otherwise
+     */
+    static boolean save(String repoId, SerializableModel model, StoreManifest manifest) {
+        Optional<String> repoPath = BinaryStore.getRepoPath(repoId);
+        if (!repoPath.isPresent()) {
+            return true;
+        }
+        try {
+            Utility.writeFileAtomically(Paths.get(repoPath.get()), output -> BinaryFormat.write(model, output));
+        } catch (IOException e) {
+            logger.error(e.getLocalizedMessage(), e);
+            manifest.recordRemoval(repoId);
+            return true;
+        }
+        manifest.recordSave(repoId, model.issues.size(), model.updateSignature);
+        RepoJournal.clear(repoId);
+        logger.info(HTLog.format(repoId, "Written to binary store"));
+        return false;
+    }
+}
@@ -4,26 +4,51 @@ import backend.RepoIO;
 import backend.control.operations.*;
 import backend.resource.Model;
 import backend.resource.TurboIssue;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import util.HTLog;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
  * A means of repo-level synchronisation for select RepoIO operations.
+ *
+ * Each repo has a queue of operations, which are performed one at a time in the order they were enqueued.
+ * Queues do not have threads of their own: an operation is started on a thread of a small shared pool,
+ * and the next one is started once it completes, so no thread is held while an operation is in progress.
+ * A repo's queue only exists while it has operations waiting or in progress.
  */
 public class RepoOpControl {
 
     private static final Logger logger = LogManager.getLogger(RepoOpControl.class.getName());
 
+    // Threads only start operations, which do their work asynchronously, so few are needed however many
+    // repos are open
+    public static final int POOL_SIZE = 4;
+
+    // Shared by every instance
+    private static final ExecutorService pool = Executors.newFixedThreadPool(POOL_SIZE,
+        new ThreadFactoryBuilder().setNameFormat("repo-op-%d").setDaemon(true).build());
+
     private final RepoIO repoIO;
 
-    private final ExecutorService pool = Executors.newCachedThreadPool();
-    private final Map<String, BlockingQueue<RepoOp>> queues = new HashMap<>();
+    // Operations waiting to be performed, by repo. A repo has a queue here if and only if it has an
+    // operation waiting or in progress. Guarded by itself, along with the queues it contains.
+    private final Map<String, Deque<RepoOp<?>>> queues = new HashMap<>();
+
+    // The number of operations which were merged into or cancelled by others instead of being performed
+    private final AtomicInteger coalescedOpCount = new AtomicInteger(0);
 
     public RepoOpControl(RepoIO repoIO) {
         this.repoIO = repoIO;
@@ -36,77 +61,158 @@ public class RepoOpControl {
      */
 
     public CompletableFuture<Model> openRepository(String repoId) {
-        init(repoId);
         CompletableFuture<Model> result = new CompletableFuture<>();
         enqueue(new OpenRepoOp(repoId, repoIO, result));
         return result;
     }
 
     public CompletableFuture<Boolean> removeRepository(String repoId) {
-        init(repoId);
         CompletableFuture<Boolean> result = new CompletableFuture<>();
         enqueue(new RemoveRepoOp(repoId, repoIO, result));
         return result;
     }
 
     public CompletableFuture<Model> updateModel(Model oldModel) {
-        init(oldModel.getRepoId());
         CompletableFuture<Model> result = new CompletableFuture<>();
         enqueue(new UpdateModelOp(oldModel, repoIO, result));
         return result;
     }
 
     public CompletableFuture<Boolean> replaceIssueLabels(TurboIssue issue, List<String> labels) {
-        init(issue.getRepoId());
         CompletableFuture<Boolean> result = new CompletableFuture<>();
         enqueue(new ReplaceIssueLabelsOp(repoIO, result, issue, labels));
         return result;
     }
 
     /**
-     * Ensures that repo-specific state is initialised. Should be called
-     * at the start of each operation method.
+     * @return the number of operations waiting to be performed on a repo, not counting the one in progress
      */
-    private void init(String repoId) {
-        boolean isNewRepo = !queues.containsKey(repoId);
-        if (isNewRepo) {
-            // We want an unbounded deque so enqueueing will never block
-            // and can flexibly add and remove operations.
-            queues.put(repoId, new LinkedBlockingDeque<>());
-            pool.execute(() -> dequeue(repoId));
+    public int getQueueDepth(String repoId) {
+        synchronized (queues) {
+            Deque<RepoOp<?>> q = queues.get(repoId);
+            return q == null ? 0 : q.size();
+        }
+    }
+
+    /**
+     * @return the number of operations waiting to be performed on each repo with operations
+     *         waiting or in progress
+     */
+    public Map<String, Integer> getQueueDepths() {
+        synchronized (queues) {
+            Map<String, Integer> depths = new HashMap<>();
+            queues.forEach((repoId, q) -> depths.put(repoId, q.size()));
+            return depths;
         }
     }
 
+    /**
+     * @return the number of operations which were not performed, as they were coalesced with others
+     */
+    public int getCoalescedOpCount() {
+        return coalescedOpCount.get();
+    }
+
     /**
      * Enqueues an operation to be handled later. Operations on the same repo
-     * (and in the same queue) are guaranteed to be handled by the same thread.
+     * (and in the same queue) are guaranteed to be handled one at a time, in order.
+     *
+     * Operations are coalesced with those still waiting in the queue where possible:
+     * - an update right after another waiting update is merged into it, completing the results of both
+     * - a removal cancels the updates waiting before it, completing their results with the old models
+     * - a label replacement right after another waiting one on the same issue takes its place, completing
+     *   the results of both
+     */
+    private void enqueue(RepoOp<?> op) {
+        synchronized (queues) {
+            Deque<RepoOp<?>> q = queues.get(op.repoId());
+            if (q == null) {
+                // The repo has no operation in progress, so this one can be started right away
+                q = new ArrayDeque<>();
+                q.add(op);
+                queues.put(op.repoId(), q);
+                pool.execute(() -> dequeue(op.repoId()));
+                return;
+            }
+
+            if (op instanceof UpdateModelOp && mergeUpdate(q, (UpdateModelOp) op)) {
+                return;
+            }
+            if (op instanceof RemoveRepoOp) {
+                cancelUpdates(q);
+            }
+            if (op instanceof ReplaceIssueLabelsOp) {
+                supersedeLabelsReplacement(q, (ReplaceIssueLabelsOp) op);
+            }
+            q.add(op);
+        }
+    }
+
+    /**
+     * @return true if the update was merged into an update waiting at the tail of the queue
      */
-    private void enqueue(RepoOp op) {
-        BlockingQueue<RepoOp> q = queues.get(op.repoId());
+    private boolean mergeUpdate(Deque<RepoOp<?>> q, UpdateModelOp op) {
+        RepoOp<?> last = q.peekLast();
+        if (!(last instanceof UpdateModelOp)) {
+            return false;
+        }
+        if (!op.mergeInto((UpdateModelOp) last)) {
+            return false;
+        }
+        coalescedOpCount.incrementAndGet();
+        logger.info(HTLog.format(op.repoId(), "Merged update into a waiting update"));
+        return true;
+    }
 
-        // TODO scan queue for patterns
+    private void cancelUpdates(Deque<RepoOp<?>> q) {
+        Iterator<RepoOp<?>> it = q.iterator();
+        while (it.hasNext()) {
+            RepoOp<?> waiting = it.next();
+            if (waiting instanceof UpdateModelOp) {
+                it.remove();
+                ((UpdateModelOp) waiting).cancel();
+                coalescedOpCount.incrementAndGet();
+                logger.info(HTLog.format(waiting.repoId(), "Cancelled update waiting before removal"));
+            }
+        }
+    }
 
-        try {
-            q.put(op);
-        } catch (InterruptedException e) {
-            logger.error(e.getLocalizedMessage(), e);
+    private void supersedeLabelsReplacement(Deque<RepoOp<?>> q, ReplaceIssueLabelsOp op) {
+        RepoOp<?> last = q.peekLast();
+        if (last instanceof ReplaceIssueLabelsOp && op.isOnSameIssue((ReplaceIssueLabelsOp) last)) {
+            q.removeLast();
+            op.supersede((ReplaceIssueLabelsOp) last);
+            coalescedOpCount.incrementAndGet();
+            logger.info(HTLog.format(op.repoId(), "Superseded a waiting replacement of labels"));
         }
     }
 
     /**
-     * Dequeues an operation to handle it. This method may block in two scenarios:
-     * if the queue is empty (in which case take blocks) or when waiting for a task
-     * (in which case get blocks).
+     * Dequeues the next operation on a repo and starts it, arranging for the one after it to be
+     * dequeued once it completes. Removes the repo's queue if there are no more operations.
      */
     private void dequeue(String repoId) {
-        BlockingQueue<RepoOp> q = queues.get(repoId);
+        RepoOp<?> op;
+        synchronized (queues) {
+            op = queues.get(repoId).poll();
+            if (op == null) {
+                queues.remove(repoId);
+                return;
+            }
+        }
 
-        while (true) {
-            try {
-                q.take().perform().get();
-            } catch (ExecutionException | InterruptedException e) {
+        CompletableFuture<?> performing;
+        try {
+            performing = op.perform();
+        } catch (RuntimeException e) {
+            logger.error(e.getLocalizedMessage(), e);
+            performing = CompletableFuture.completedFuture(null);
+        }
+        performing.whenComplete((result, e) -> {
+            if (e != null) {
                 logger.error(e.getLocalizedMessage(), e);
             }
-        }
+            pool.execute(() -> dequeue(repoId));
+        });
     }
 }
@@ -32,6 +32,22 @@ public class ReplaceIssueLabelsOp implements RepoOp<Boolean> {
         return issue.getRepoId();
     }
 
+    /**
+     * @return true if the other operation replaces the labels of the same issue
+     */
+    public boolean isOnSameIssue(ReplaceIssueLabelsOp other) {
+        return issue.getRepoId().equalsIgnoreCase(other.issue.getRepoId()) && issue.getId() == other.issue.getId();
+    }
+
+    /**
+     * Takes the place of an earlier operation on the same issue which will not be performed,
+     * completing its result with the result of this one.
+     */
+    public void supersede(ReplaceIssueLabelsOp earlier) {
+        assert isOnSameIssue(earlier);
+        result.thenAccept(earlier.result::complete);
+    }
+
     @Override
     public CompletableFuture<Boolean> perform() {
         return repoIO.replaceIssueLabels(issue, labels)
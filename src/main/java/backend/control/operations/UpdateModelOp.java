@@ -1,22 +1,28 @@
 package backend.control.operations;
 
-import static util.Futures.chain;
-
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import backend.RepoIO;
 import backend.resource.Model;
 
+/**
+ * Updates a model. Several callers may wait on the same update, which completes all their results.
+ */
 public class UpdateModelOp implements RepoOp<Model> {
 
     private final Model oldModel;
     private final RepoIO repoIO;
-    private final CompletableFuture<Model> result;
+
+    // Guarded by this
+    private final List<CompletableFuture<Model>> results = new ArrayList<>();
+    private boolean isStarted = false;
 
     public UpdateModelOp(Model oldModel, RepoIO repoIO, CompletableFuture<Model> result) {
         this.oldModel = oldModel;
         this.repoIO = repoIO;
-        this.result = result;
+        results.add(result);
     }
 
     @Override
@@ -24,9 +30,47 @@ public class UpdateModelOp implements RepoOp<Model> {
         return oldModel.getRepoId();
     }
 
+    /**
+     * Merges this update into one waiting to be performed, so that it completes the results of both.
+     *
+     * @return false if the waiting update has already started, in which case this one must be performed
+     */
+    public boolean mergeInto(UpdateModelOp waiting) {
+        List<CompletableFuture<Model>> toMerge;
+        synchronized (this) {
+            toMerge = new ArrayList<>(results);
+        }
+        return waiting.addResults(toMerge);
+    }
+
+    private synchronized boolean addResults(List<CompletableFuture<Model>> moreResults) {
+        if (isStarted) {
+            return false;
+        }
+        results.addAll(moreResults);
+        return true;
+    }
+
+    /**
+     * Completes the results with the old model, without updating it. Must only be called on an
+     * update which will not be performed.
+     */
+    public synchronized void cancel() {
+        isStarted = true;
+        results.forEach(result -> result.complete(oldModel));
+    }
+
     @Override
     public CompletableFuture<Model> perform() {
+        List<CompletableFuture<Model>> toComplete;
+        synchronized (this) {
+            isStarted = true;
+            toComplete = new ArrayList<>(results);
+        }
         return repoIO.updateModel(oldModel)
-            .thenApply(chain(result));
+            .thenApply(model -> {
+                toComplete.forEach(result -> result.complete(model));
+                return model;
+            });
     }
 }
@@ -4,55 +4,163 @@ import backend.IssueMetadata;
 import backend.interfaces.Repo;
 import backend.interfaces.TaskRunner;
 import backend.resource.TurboIssue;
+import github.GitHubClientEx;
 import github.TurboIssueEvent;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.Comment;
 import util.HTLog;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * Downloads the metadata of issues, a few issues at a time. Metadata is handed to a listener in chunks
+ * as it is downloaded, so that it can be used before the metadata of every issue is downloaded.
+ *
+ * As with pages of issues, downloads slow down to one issue at a time when the remaining rate limit
+ * gets low.
+ */
 public class DownloadMetadataTask extends GitHubRepoTask<Map<Integer, IssueMetadata>> {
 
     private static final Logger logger = HTLog.get(DownloadMetadataTask.class);
 
+    // The largest number of issues whose metadata is downloaded at a time
+    public static final int MAX_CONCURRENT_ISSUES = 4;
+
+    // The number of issues whose metadata is handed to the listener at a time
+    public static final int CHUNK_SIZE = 10;
+
     private final String repoId;
     private final List<TurboIssue> issuesToUpdate;
+    private final Consumer<Map<Integer, IssueMetadata>> chunkListener;
+
+    private final AtomicInteger nextIssue = new AtomicInteger(0);
+
+    // Downloaded metadata not yet handed to the listener. Guarded by itself.
+    private final Map<Integer, IssueMetadata> pendingChunk = new HashMap<>();
+
+    // Held while the listener runs, so that it never runs concurrently
+    private final Object listenerLock = new Object();
 
     public DownloadMetadataTask(TaskRunner taskRunner, Repo repo, String repoId,
                                 List<TurboIssue> issuesToUpdate) {
+        this(taskRunner, repo, repoId, issuesToUpdate, chunk -> {});
+    }
+
+    /**
+     * @param chunkListener receives the downloaded metadata in chunks, never concurrently, before the
+     *                      response is completed with the metadata of every issue
+     */
+    public DownloadMetadataTask(TaskRunner taskRunner, Repo repo, String repoId,
+                                List<TurboIssue> issuesToUpdate,
+                                Consumer<Map<Integer, IssueMetadata>> chunkListener) {
         super(taskRunner, repo);
         this.repoId = repoId;
         this.issuesToUpdate = issuesToUpdate;
+        this.chunkListener = chunkListener;
     }
 
+    /**
+     * Starts workers which take issues in turn, completing the response once the last of them is done,
+     * without waiting for them on a thread of the task runner.
+     */
     @Override
     public void run() {
         Map<Integer, IssueMetadata> result = new HashMap<>();
+        Executor executor = taskRunner::execute;
 
-        issuesToUpdate.forEach(issue -> {
-            String currEventsETag = issue.getMetadata().getEventsETag();
-            String currCommentsETag = issue.getMetadata().getCommentsETag();
-            int id = issue.getId();
-
-            ImmutablePair<List<TurboIssueEvent>, String> changes = repo.getUpdatedEvents(repoId, id, currEventsETag);
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(MAX_CONCURRENT_ISSUES, issuesToUpdate.size()); i++) {
+            boolean isFirstWorker = i == 0;
+            workers.add(CompletableFuture.runAsync(() -> downloadIssues(isFirstWorker, result), executor));
+        }
 
-            List<TurboIssueEvent> events = changes.getLeft();
-            String updatedEventsETag = changes.getRight();
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[workers.size()])).whenComplete((done, e) -> {
+            if (e != null) {
+                logger.error(HTLog.format(repoId, "Unable to download metadata"), e);
+                response.completeExceptionally(e);
+                return;
+            }
+            handChunk(true);
 
-            List<Comment> comments = repo.getAllComments(repoId, issue);
+            logger.info(HTLog.format(repoId, "Downloaded " + result.entrySet().stream()
+                .map(entry -> "(" + entry.getValue().summarise() + ") for #" + entry.getKey())
+                .collect(Collectors.joining(", "))));
 
-            IssueMetadata metadata = IssueMetadata.intermediate(events, comments, updatedEventsETag, currCommentsETag);
-            result.put(id, metadata);
+            response.complete(result);
         });
+    }
+
+    /**
+     * Downloads the metadata of issues until there are none left, or until the rate limit gets low
+     * if this is not the first worker.
+     */
+    private void downloadIssues(boolean isFirstWorker, Map<Integer, IssueMetadata> result) {
+        while (GitHubClientEx.canWorkerContinue(isFirstWorker, repo.getRemainingRequests())) {
+            int index = nextIssue.getAndIncrement();
+            if (index >= issuesToUpdate.size()) {
+                return;
+            }
+            TurboIssue issue = issuesToUpdate.get(index);
+            IssueMetadata metadata = downloadMetadata(issue);
+            synchronized (result) {
+                result.put(issue.getId(), metadata);
+            }
+            synchronized (pendingChunk) {
+                pendingChunk.put(issue.getId(), metadata);
+            }
+            handChunk(false);
+        }
+    }
+
+    private IssueMetadata downloadMetadata(TurboIssue issue) {
+        String currEventsETag = issue.getMetadata().getEventsETag();
+        String currCommentsETag = issue.getMetadata().getCommentsETag();
+        int id = issue.getId();
+
+        ImmutablePair<List<TurboIssueEvent>, String> changes = repo.getUpdatedEvents(repoId, id, currEventsETag);
 
-        logger.info(HTLog.format(repoId, "Downloaded " + result.entrySet().stream()
-            .map(entry -> "(" + entry.getValue().summarise() + ") for #" + entry.getKey())
-            .collect(Collectors.joining(", "))));
+        List<TurboIssueEvent> events = changes.getLeft();
+        String updatedEventsETag = changes.getRight();
+
+        ImmutablePair<List<Comment>, String> commentChanges =
+            repo.getUpdatedComments(repoId, issue, currCommentsETag);
+
+        List<Comment> comments = commentChanges.getLeft();
+        String updatedCommentsETag = commentChanges.getRight();
+
+        return IssueMetadata.intermediate(events, comments, updatedEventsETag, updatedCommentsETag);
+    }
 
-        response.complete(result);
+    /**
+     * Hands the pending metadata to the listener if there is a full chunk of it. The chunk is taken
+     * off the pending metadata first, so that other workers can keep adding to it while the listener runs.
+     *
+     * @param isLast whether to hand over whatever is pending, as no more metadata will be downloaded
+     */
+    private void handChunk(boolean isLast) {
+        Map<Integer, IssueMetadata> chunk;
+        synchronized (pendingChunk) {
+            if (pendingChunk.isEmpty() || !isLast && pendingChunk.size() < CHUNK_SIZE) {
+                return;
+            }
+            chunk = new HashMap<>(pendingChunk);
+            pendingChunk.clear();
+        }
+        synchronized (listenerLock) {
+            try {
+                chunkListener.accept(chunk);
+            } catch (RuntimeException e) {
+                HTLog.error(logger, e);
+            }
+        }
     }
 }
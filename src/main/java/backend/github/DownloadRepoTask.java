@@ -8,6 +8,8 @@ import org.apache.logging.log4j.Logger;
 import util.HTLog;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class DownloadRepoTask extends GitHubRepoTask<Model> {
 
@@ -20,14 +22,32 @@ public class DownloadRepoTask extends GitHubRepoTask<Model> {
         this.repoId = repoId;
     }
 
+    /**
+     * Downloads the four kinds of resources of the repo in parallel, completing the response once the
+     * last of them is downloaded, without waiting for them on a thread of the task runner.
+     */
     @Override
     public void run() {
-        List<TurboIssue> issues = repo.getIssues(repoId);
-        List<TurboLabel> labels = repo.getLabels(repoId);
-        List<TurboMilestone> milestones = repo.getMilestones(repoId);
-        List<TurboUser> users = repo.getCollaborators(repoId);
-        Model result = new Model(repoId, issues, labels, milestones, users, UpdateSignature.EMPTY);
-        logger.info(HTLog.format(repoId, "Downloaded " + result.summarise()));
-        response.complete(result);
+        Executor executor = taskRunner::execute;
+        CompletableFuture<List<TurboIssue>> issues =
+            CompletableFuture.supplyAsync(() -> repo.getIssues(repoId), executor);
+        CompletableFuture<List<TurboLabel>> labels =
+            CompletableFuture.supplyAsync(() -> repo.getLabels(repoId), executor);
+        CompletableFuture<List<TurboMilestone>> milestones =
+            CompletableFuture.supplyAsync(() -> repo.getMilestones(repoId), executor);
+        CompletableFuture<List<TurboUser>> users =
+            CompletableFuture.supplyAsync(() -> repo.getCollaborators(repoId), executor);
+
+        CompletableFuture.allOf(issues, labels, milestones, users).whenComplete((done, e) -> {
+            if (e != null) {
+                logger.error(HTLog.format(repoId, "Unable to download repo"), e);
+                response.completeExceptionally(e);
+                return;
+            }
+            Model result = new Model(repoId, issues.join(), labels.join(), milestones.join(), users.join(),
+                UpdateSignature.EMPTY);
+            logger.info(HTLog.format(repoId, "Downloaded " + result.summarise()));
+            response.complete(result);
+        });
     }
 }
@@ -2,10 +2,12 @@ package backend.github;
 
 import backend.UserCredentials;
 import backend.interfaces.Repo;
+import backend.interfaces.RepoStore;
 import backend.resource.TurboIssue;
 import backend.resource.TurboLabel;
 import backend.resource.TurboMilestone;
 import backend.resource.TurboUser;
+import com.google.gson.reflect.TypeToken;
 import github.*;
 import github.update.*;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -24,20 +26,36 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_ISSUES;
 import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_REPOS;
 
 public class GitHubRepo implements Repo {
 
     private static final Logger logger = HTLog.get(GitHubRepo.class);
 
-    private final GitHubClientEx client = new GitHubClientEx();
+    // The largest number of pages of issues downloaded at a time when a repo is first downloaded
+    private static final int MAX_CONCURRENT_PAGES = 4;
+
+    // Separates the ETags of the comments and the review comments of a pull request
+    private static final String COMMENTS_ETAG_SEPARATOR = "|";
+
+    // Responses to GET requests are kept on disk in this directory inside the store directory, so that
+    // requesting them again only costs a revalidation
+    private static final String RESPONSE_CACHE_SUBDIRECTORY = "responses";
+    private static final long MAX_RESPONSE_CACHE_BYTES = 50 * 1024 * 1024;
+
+    private final GitHubClientEx client = new GitHubClientEx()
+        .setResponseCache(new HttpResponseCache(RepoStore.getSubdirectory(RESPONSE_CACHE_SUBDIRECTORY),
+            MAX_RESPONSE_CACHE_BYTES));
     private final IssueServiceEx issueService = new IssueServiceEx(client);
     private final PullRequestServiceEx pullRequestService = new PullRequestServiceEx(client);
     private final CollaboratorService collaboratorService = new CollaboratorService(client);
     private final LabelServiceEx labelService = new LabelServiceEx(client);
     private final MilestoneService milestoneService = new MilestoneService(client);
+    private final ParallelPageDownloader pageDownloader = new ParallelPageDownloader(client, MAX_CONCURRENT_PAGES);
 
     @Override
     public boolean login(UserCredentials credentials) {
@@ -150,48 +168,20 @@ public class GitHubRepo implements Repo {
         Map<String, String> filters = new HashMap<>();
         filters.put(IssueService.FIELD_FILTER, "all");
         filters.put(IssueService.FILTER_STATE, "all");
-        return getAll(issueService.pageIssues(RepositoryId.createFromId(repoId), filters), repoId).stream()
-            .map(i -> new TurboIssue(repoId, i))
-            .collect(Collectors.toList());
-    }
-
-    private List<Issue> getAll(PageIterator<Issue> iterator, String repoId) {
-        List<Issue> elements = new ArrayList<>();
-
-        // Assume there is at least one page
-        int knownLastPage = 1;
-
-        try {
-            while (iterator.hasNext()) {
-                Collection<Issue> additions = iterator.next();
-                elements.addAll(additions);
-
-                // Compute progress
-
-                // iterator.getLastPage() only has a value after iterator.next() is called,
-                // so it's used directly in this loop. It returns the 1-based index of the last
-                // page, except when we are actually on the last page, in which case it returns -1.
-                // This portion deals with all these quirks.
-
-                knownLastPage = Math.max(knownLastPage, iterator.getLastPage());
-                int totalIssueCount = knownLastPage * PagedRequest.PAGE_SIZE;
-                // Total is approximate: always >= the actual amount
-                assert totalIssueCount >= elements.size();
+        String uri = SEGMENT_REPOS + "/" + RepositoryId.createFromId(repoId).generateId() + SEGMENT_ISSUES;
 
-                float progress = (float) elements.size() / (float) totalIssueCount;
+        List<Issue> issues = pageDownloader.getAll(uri, filters, new TypeToken<List<Issue>>() {}.getType(),
+            (pagesDownloaded, pageCount) -> {
+                float progress = (float) pagesDownloaded / (float) pageCount;
                 UI.events.triggerEvent(new UpdateProgressEvent(repoId, progress));
-                logger.info(HTLog.format(repoId, "Loaded %d issues (%.0f%% done)",
-                    elements.size(), progress * 100));
-            }
-            UI.events.triggerEvent(new UpdateProgressEvent(repoId));
-        } catch (NoSuchPageException pageException) {
-            try {
-                throw pageException.getCause();
-            } catch (IOException e) {
-                HTLog.error(logger, e);
-            }
-        }
-        return elements;
+                logger.info(HTLog.format(repoId, "Loaded %d of %d pages of issues (%.0f%% done)",
+                    pagesDownloaded, pageCount, progress * 100));
+            });
+        UI.events.triggerEvent(new UpdateProgressEvent(repoId));
+
+        return issues.stream()
+            .map(i -> new TurboIssue(repoId, i))
+            .collect(Collectors.toList());
     }
 
     @Override
@@ -230,22 +220,45 @@ public class GitHubRepo implements Repo {
     }
 
     /**
-     * Get all types of comments for an issue. Review comments and commit comments
-     * are only relevant if the issue is a also pull request
-     * @param repoId
-     * @param issue
-     * @return list of comments for an issue
+     * Gets the comments of an issue, and the review comments of a pull request, only if either changed.
+     * Both kinds of comments are downloaded once either changes, as they are kept together.
+     *
+     * @param eTag the ETags of the comments and review comments, separated by COMMENTS_ETAG_SEPARATOR
      */
     @Override
-    public List<Comment> getAllComments(String repoId, TurboIssue issue) {
-        List<Comment> result = new ArrayList<>();
+    public ImmutablePair<List<Comment>, String> getUpdatedComments(String repoId, TurboIssue issue, String eTag) {
+        RepositoryId repository = RepositoryId.createFromId(repoId);
+        String[] eTags = (eTag == null ? "" : eTag).split(Pattern.quote(COMMENTS_ETAG_SEPARATOR), -1);
+        String commentsETag = eTags[0];
+        String reviewCommentsETag = eTags.length > 1 ? eTags[1] : "";
+
+        CommentUpdateService commentService = new CommentUpdateService(client, issue.getId(), commentsETag);
+        List<Comment> comments = new ArrayList<>(commentService.getUpdatedItems(repository));
+        boolean isCommentsModified = !commentService.getUpdatedETags().equals(commentsETag);
+        if (!issue.isPullRequest()) {
+            return isCommentsModified
+                ? new ImmutablePair<>(comments, commentService.getUpdatedETags())
+                : new ImmutablePair<>(new ArrayList<>(), eTag);
+        }
 
-        result.addAll(getComments(repoId, issue.getId()));
-        if (issue.isPullRequest()) {
-            result.addAll(getReviewComments(repoId, issue.getId()));
+        ReviewCommentUpdateService reviewCommentService =
+            new ReviewCommentUpdateService(client, issue.getId(), reviewCommentsETag);
+        List<ReviewComment> reviewComments = reviewCommentService.getUpdatedItems(repository);
+        boolean isReviewCommentsModified = !reviewCommentService.getUpdatedETags().equals(reviewCommentsETag);
+        if (!isCommentsModified && !isReviewCommentsModified) {
+            return new ImmutablePair<>(new ArrayList<>(), eTag);
         }
 
-        return result;
+        if (!isCommentsModified) {
+            commentService = new CommentUpdateService(client, issue.getId(), "");
+            comments = new ArrayList<>(commentService.getUpdatedItems(repository));
+        } else if (!isReviewCommentsModified) {
+            reviewCommentService = new ReviewCommentUpdateService(client, issue.getId(), "");
+            reviewComments = reviewCommentService.getUpdatedItems(repository);
+        }
+        comments.addAll(reviewComments);
+        return new ImmutablePair<>(comments,
+            commentService.getUpdatedETags() + COMMENTS_ETAG_SEPARATOR + reviewCommentService.getUpdatedETags());
     }
 
     @Override
@@ -282,5 +295,10 @@ public class GitHubRepo implements Repo {
     public ImmutablePair<Integer, Long> getRateLimitResetTime() throws IOException {
         return client.getRateLimitResetTime();
     }
+
+    @Override
+    public int getRemainingRequests() {
+        return client.getRemainingRequests();
+    }
 }
 
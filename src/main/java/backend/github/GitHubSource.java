@@ -13,6 +13,7 @@ import util.HTLog;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class GitHubSource extends RepoSource {
 
@@ -50,8 +51,9 @@ public class GitHubSource extends RepoSource {
     }
 
     @Override
-    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId, List<TurboIssue> issues) {
-        return addTask(new DownloadMetadataTask(this, gitHub, repoId, issues)).response;
+    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId, List<TurboIssue> issues,
+        Consumer<Map<Integer, IssueMetadata>> chunkListener) {
+        return addTask(new DownloadMetadataTask(this, gitHub, repoId, issues, chunkListener)).response;
     }
 
     @Override
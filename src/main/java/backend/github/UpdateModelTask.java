@@ -7,7 +7,7 @@ import backend.resource.*;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
 
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 public class UpdateModelTask extends GitHubRepoTask<Model> {
 
@@ -32,23 +32,31 @@ public class UpdateModelTask extends GitHubRepoTask<Model> {
         taskRunner.execute(milestonesTask);
         taskRunner.execute(usersTask);
 
-        try {
-            GitHubRepoTask.Result<TurboIssue> issuesResult = issuesTask.response.get();
-            GitHubRepoTask.Result<TurboLabel> labelsResult = labelsTask.response.get();
-            GitHubRepoTask.Result<TurboMilestone> milestonesResult = milestonesTask.response.get();
-            GitHubRepoTask.Result<TurboUser> usersResult = usersTask.response.get();
-
-            UpdateSignature newSignature =
-                new UpdateSignature(issuesResult.eTag, labelsResult.eTag,
-                    milestonesResult.eTag, usersResult.eTag, issuesResult.lastCheckTime);
-
-            Model result = new Model(model.getRepoId(), issuesResult.items,
-                labelsResult.items, milestonesResult.items, usersResult.items, newSignature);
-
-            logger.info(HTLog.format(model.getRepoId(), "Updated model with " + result.summarise()));
-            response.complete(result);
-        } catch (InterruptedException | ExecutionException e) {
-            HTLog.error(logger, e);
-        }
+        // Completes the response once the last of the subtasks completes, without waiting for them
+        // on a thread of the task runner
+        CompletableFuture.allOf(issuesTask.response, labelsTask.response, milestonesTask.response,
+            usersTask.response).whenComplete((done, e) -> {
+                if (e != null) {
+                    logger.error(HTLog.format(model.getRepoId(), "Unable to update model"), e);
+                    response.completeExceptionally(e);
+                    return;
+                }
+                GitHubRepoTask.Result<TurboIssue> issuesResult = issuesTask.response.join();
+                GitHubRepoTask.Result<TurboLabel> labelsResult = labelsTask.response.join();
+                GitHubRepoTask.Result<TurboMilestone> milestonesResult = milestonesTask.response.join();
+                GitHubRepoTask.Result<TurboUser> usersResult = usersTask.response.join();
+
+                UpdateSignature newSignature =
+                    new UpdateSignature(issuesResult.eTag, labelsResult.eTag,
+                        milestonesResult.eTag, usersResult.eTag, issuesResult.lastCheckTime);
+
+                Model result = new Model(model.getRepoId(), issuesResult.items,
+                    labelsResult.items, milestonesResult.items, usersResult.items, newSignature);
+                // Most issues are carried over unchanged, so only the changed ones need to be indexed again
+                result.inheritIssueIndex(model);
+
+                logger.info(HTLog.format(model.getRepoId(), "Updated model with " + result.summarise()));
+                response.complete(result);
+            });
     }
 }
@@ -0,0 +1,60 @@
+package backend.interfaces;
+
+import backend.resource.serialization.SerializableChanges;
+import backend.resource.serialization.SerializableModel;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+class AppendTask extends StoreTask {
+
+    private static final Logger logger = HTLog.get(AppendTask.class);
+
+    public final SerializableChanges changes;
+    private final Supplier<SerializableModel> model;
+    private final RepoStore store;
+    public final CompletableFuture<Boolean> response;
+
+    public AppendTask(String repoId, SerializableChanges changes, Supplier<SerializableModel> model,
+                      RepoStore store, CompletableFuture<Boolean> response) {
+        super(repoId);
+        this.changes = changes;
+        this.model = model;
+        this.store = store;
+        this.response = response;
+    }
+
+    /**
+     * The changes are only appended if they follow on from the repo as the store holds it, going by its
+     * update signature. Otherwise, e.g. if its file is corrupted, or the repo was downloaded again rather
+     * than loaded from the store, appending them would leave the store with a mix of the two.
+     *
+     * A full save is only queued here, to be done in the background after this task. It comes before any
+     * later changes to the repo, as they are only saved once this task's response is complete.
+     */
+    @Override
+    public void run() {
+        long savedSize = store.getSavedSize(repoId);
+        StoreManifest manifest = store.getManifest();
+        if (savedSize == 0 || !manifest.getUpdateSignature(repoId).equals(Optional.of(changes.baseSignature))) {
+            logger.info(HTLog.format(repoId, "Changes do not follow on from the stored repo; saving in full"));
+            store.saveRepository(repoId, model.get())
+                .thenAccept(response::complete);
+            return;
+        }
+
+        boolean failed = RepoJournal.append(repoId, changes);
+        if (!failed) {
+            manifest.recordAppend(repoId, changes.updateSignature);
+            logger.info(HTLog.format(repoId, "Appended %d changed issue(s) to journal", changes.issues.size()));
+            if (RepoJournal.size(repoId) > RepoStore.COMPACTION_RATIO * savedSize) {
+                logger.info(HTLog.format(repoId, "Compacting journal"));
+                store.saveRepository(repoId, model.get());
+            }
+        }
+        response.complete(failed);
+    }
+}
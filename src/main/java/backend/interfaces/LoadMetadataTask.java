@@ -0,0 +1,21 @@
+package backend.interfaces;
+
+import backend.IssueMetadata;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+class LoadMetadataTask extends StoreTask {
+
+    public final CompletableFuture<Map<Integer, IssueMetadata>> response;
+
+    public LoadMetadataTask(String repoId, CompletableFuture<Map<Integer, IssueMetadata>> response) {
+        super(repoId);
+        this.response = response;
+    }
+
+    @Override
+    public void run() {
+        response.complete(MetadataStore.load(repoId));
+    }
+}
@@ -0,0 +1,89 @@
+package backend.interfaces;
+
+import backend.IssueMetadata;
+import backend.resource.serialization.SerializableIssueMetadata;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+import util.Utility;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the metadata of the issues of a repo between sessions, in a file next to the repo. Metadata
+ * is kept apart from repos, as it is only downloaded for some issues, and only needed for some panels.
+ */
+public final class MetadataStore {
+
+    private static final Logger logger = HTLog.get(MetadataStore.class);
+
+    private static final Type METADATA_TYPE = new TypeToken<List<SerializableIssueMetadata>>() {}.getType();
+    private static final String EXTENSION = "metadata";
+
+    private MetadataStore() {}
+
+    /**
+     * @return the stored metadata of the issues of a repo by issue id, which is empty if there is none
+     * or it cannot be read
+     */
+    public static Map<Integer, IssueMetadata> load(String repoId) {
+        Path path = RepoStore.getSidePath(repoId, EXTENSION);
+        if (!Files.isRegularFile(path)) {
+            return new HashMap<>();
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<SerializableIssueMetadata> stored = RepoStore.GSON.fromJson(reader, METADATA_TYPE);
+            Map<Integer, IssueMetadata> result = new HashMap<>();
+            if (stored != null) {
+                stored.forEach(metadata -> result.put(metadata.getIssueId(), metadata.toIssueMetadata()));
+            }
+            logger.info(HTLog.format(repoId, "Loaded metadata of %d issue(s)", result.size()));
+            return result;
+        } catch (IOException | JsonParseException | NullPointerException e) {
+            logger.error(HTLog.format(repoId, "Unable to load stored metadata"), e);
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Replaces the stored metadata of the issues of a repo, through a temporary file so that it is never
+     * left partly written.
+     * @return true on failure to store the metadata, false otherwise
+     */
+    public static boolean save(String repoId, Map<Integer, IssueMetadata> metadata) {
+        List<SerializableIssueMetadata> toStore = metadata.entrySet().stream()
+            .map(entry -> new SerializableIssueMetadata(entry.getKey(), entry.getValue()))
+            .collect(Collectors.toList());
+        try {
+            Utility.writeFileAtomically(RepoStore.getSidePath(repoId, EXTENSION), output -> {
+                Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                RepoStore.GSON.toJson(toStore, METADATA_TYPE, writer);
+                writer.flush();
+            });
+            return false;
+        } catch (IOException e) {
+            logger.error(HTLog.format(repoId, "Unable to store metadata"), e);
+            return true;
+        }
+    }
+
+    /**
+     * Removes the stored metadata of a repo, when the repo is removed.
+     * @return true on failure to remove it, false otherwise
+     */
+    public static boolean clear(String repoId) {
+        return RepoStore.deleteSideFile(repoId, EXTENSION);
+    }
+}
@@ -37,10 +37,14 @@ public interface Repo {
     ImmutablePair<List<TurboIssueEvent>, String> getUpdatedEvents(String repoId, int issueId, String eTag);
     List<Comment> getComments(String repoId, int issueId);
     List<ReviewComment> getReviewComments(String repoId, int pullRequestId);
-    List<Comment> getAllComments(String repoId, TurboIssue issue);
+    // All comments of an issue if they changed since the given ETag, or no comments and the same ETag otherwise
+    ImmutablePair<List<Comment>, String> getUpdatedComments(String repoId, TurboIssue issue, String eTag);
 
     boolean isRepositoryValid(String repoId);
     List<Label> setLabels(String repoId, int issueId, List<String> labels) throws IOException;
     ImmutablePair<Integer, Long> getRateLimitResetTime() throws IOException;
 
+    // The number of requests remaining as of the last request, or -1 if it is not known
+    int getRemainingRequests();
+
 }
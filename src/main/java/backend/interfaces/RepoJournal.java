@@ -0,0 +1,112 @@
+package backend.interfaces;
+
+import backend.resource.serialization.SerializableChanges;
+import backend.resource.serialization.SerializableModel;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only journal of the changes made to a stored repo since it was last saved in full, kept in
+ * a file next to it. Each line of the journal is the JSON of the changes of one update.
+ *
+ * Stores replay the journal over a repo whenever they load it, and clear it whenever they save the
+ * whole repo. Changes are only appended if they were made to the repo as the store holds it, which is
+ * checked again when they are replayed. A line which was only partly written, e.g. because the application
+ * was closed while appending it, ends the journal: it and whatever follows it are discarded. Its changes
+ * are then downloaded again, as the update signature of the repo is also that of the last complete line.
+ */
+public final class RepoJournal {
+
+    private static final Logger logger = HTLog.get(RepoJournal.class);
+
+    private static final String EXTENSION = "journal";
+
+    private RepoJournal() {}
+
+    /**
+     * Appends the changes of an update to the journal of a repo.
+     * @return true on failure to append them, false otherwise
+     */
+    public static boolean append(String repoId, SerializableChanges changes) {
+        byte[] line = (RepoStore.GSON.toJson(changes) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(RepoStore.getSidePath(repoId, EXTENSION),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return false;
+        } catch (IOException e) {
+            logger.error(HTLog.format(repoId, "Unable to append to journal"), e);
+            return true;
+        }
+    }
+
+    /**
+     * Applies the journal of a repo, if it has one, to its last full save.
+     * @return the repo with all the changes in the journal applied
+     */
+    public static SerializableModel replay(String repoId, SerializableModel model) {
+        Path path = RepoStore.getSidePath(repoId, EXTENSION);
+        if (!Files.isRegularFile(path)) {
+            return model;
+        }
+        long validLength = 0;
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                SerializableChanges changes = RepoStore.GSON.fromJson(line, SerializableChanges.class);
+                if (changes == null || changes.issues == null) {
+                    throw new JsonParseException("Incomplete journal entry");
+                }
+                if (changes.baseSignature != null && !changes.baseSignature.equals(model.updateSignature)) {
+                    throw new JsonParseException("Journal entry does not follow the previous one");
+                }
+                model = changes.applyTo(model);
+                validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                replayed++;
+            }
+        } catch (IOException | JsonParseException e) {
+            logger.error(HTLog.format(repoId, "Journal is corrupted after %d update(s); discarding the rest",
+                replayed));
+            truncate(path, validLength);
+        }
+        logger.info(HTLog.format(repoId, "Replayed %d update(s) from journal", replayed));
+        return model;
+    }
+
+    /**
+     * Removes the journal of a repo, once it is saved in full or removed.
+     * @return true on failure to remove it, false otherwise
+     */
+    public static boolean clear(String repoId) {
+        return RepoStore.deleteSideFile(repoId, EXTENSION);
+    }
+
+    /**
+     * @return the size of the journal of a repo in bytes, 0 if it has none
+     */
+    public static long size(String repoId) {
+        return new File(String.valueOf(RepoStore.getSidePath(repoId, EXTENSION))).length();
+    }
+
+    private static void truncate(Path path, long length) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        } catch (IOException e) {
+            logger.error("Unable to truncate " + path.getFileName(), e);
+        }
+    }
+}
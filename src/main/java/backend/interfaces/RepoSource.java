@@ -10,11 +10,27 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public abstract class RepoSource implements TaskRunner {
 
-    private final ExecutorService pool = Executors.newCachedThreadPool();
+    // The largest number of requests to the source made at a time. Tasks never wait on one another,
+    // so queued tasks only wait for a thread to become free.
+    private static final int POOL_SIZE = 8;
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+    private final ExecutorService pool = createPool();
+
+    private static ExecutorService createPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE,
+            IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        // Like a cached pool, threads are not kept around when there is nothing to do
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
 
     @Override
     public <R> RepoTask<R> addTask(RepoTask<R> task) {
@@ -35,8 +51,16 @@ public abstract class RepoSource implements TaskRunner {
 
     public abstract CompletableFuture<Model> updateModel(Model model);
 
-    public abstract CompletableFuture<Map<Integer, IssueMetadata>>
-        downloadMetadata(String repoId, List<TurboIssue> issues);
+    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId, List<TurboIssue> issues) {
+        return downloadMetadata(repoId, issues, chunk -> {});
+    }
+
+    /**
+     * @param chunkListener receives the downloaded metadata in chunks as it is downloaded, before the
+     *                      response is completed with all of it
+     */
+    public abstract CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId,
+        List<TurboIssue> issues, Consumer<Map<Integer, IssueMetadata>> chunkListener);
 
     public abstract CompletableFuture<Boolean> isRepositoryValid(String repoId);
 
@@ -1,22 +1,55 @@
 package backend.interfaces;
 
+import backend.IssueMetadata;
 import backend.resource.Model;
+import backend.resource.serialization.SerializableChanges;
 import backend.resource.serialization.SerializableModel;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
 import util.Utility;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 public abstract class RepoStore {
+
+    private static final Logger logger = HTLog.get(RepoStore.class);
+
+    /**
+     * Shared by all store tasks and the files kept next to repos. Repos are streamed to and from files
+     * with it, rather than converted to and from strings of whole files.
+     */
+    public static final Gson GSON = new GsonBuilder().create();
+
     protected static String directory = "store";
     public static final String TEST_DIRECTORY = "store/test";
     private final ExecutorService pool = Executors.newSingleThreadExecutor();
 
+    // The size of a journal relative to the full save of its repo at which the repo is saved in full again
+    static final double COMPACTION_RATIO = 0.5;
+
     public static String escapeRepoName(String repoName) {
-        return repoName.replace("/", "-") + ".json";
+        return escapeRepoName(repoName, "json");
+    }
+
+    /**
+     * @return the name of the file a repo is stored in, with the extension of a store's format
+     */
+    public static String escapeRepoName(String repoName, String extension) {
+        return repoName.replace("/", "-") + "." + extension;
     }
 
     protected void addTask(StoreTask task) {
@@ -25,23 +58,126 @@ public abstract class RepoStore {
 
     public abstract CompletableFuture<Model> loadRepository(String repoId);
     public abstract CompletableFuture<Boolean> saveRepository(String repoId, SerializableModel model);
+    public abstract List<String> getStoredRepos();
+    public abstract CompletableFuture<Boolean> removeStoredRepo(String repoId);
+
+    /**
+     * @return the extension of the files repos are saved in full in
+     */
+    protected abstract String getExtension();
+
+    /**
+     * @return the manifest of the repos saved in full in the store's format
+     */
+    protected abstract StoreManifest getManifest();
+
+    /**
+     * Saves only the changes made to a repo in an update, by appending them to its journal. The repo is
+     * saved in full instead if the changes were not made to the repo as the store holds it, e.g. if it
+     * has not been saved yet or was downloaded again, and again once its journal grows past
+     * COMPACTION_RATIO of the size of its last full save, after which its journal is cleared.
+     * @param model the whole repo after the changes, which is only produced if it is to be saved in full
+     * @return a future of true on failure to save the changes, false otherwise
+     */
+    public CompletableFuture<Boolean> saveRepositoryChanges(String repoId, SerializableChanges changes,
+                                                            Supplier<SerializableModel> model) {
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        addTask(new AppendTask(repoId, changes, model, this, response));
+        return response;
+    }
+
+    /**
+     * @return a future of the stored metadata of the issues of a repo by issue id
+     */
+    public CompletableFuture<Map<Integer, IssueMetadata>> loadMetadata(String repoId) {
+        CompletableFuture<Map<Integer, IssueMetadata>> response = new CompletableFuture<>();
+        addTask(new LoadMetadataTask(repoId, response));
+        return response;
+    }
+
+    /**
+     * Replaces the stored metadata of the issues of a repo.
+     * @return a future of true on failure to store the metadata, false otherwise
+     */
+    public CompletableFuture<Boolean> saveMetadata(String repoId, Map<Integer, IssueMetadata> metadata) {
+        CompletableFuture<Boolean> response = new CompletableFuture<>();
+        addTask(new SaveMetadataTask(repoId, metadata, response));
+        return response;
+    }
+
+    /**
+     * @return the size of the last full save of a repo in bytes, 0 if it has none
+     */
+    long getSavedSize(String repoId) {
+        return getRepoPath(repoId, getExtension()).map(path -> new File(path).length()).orElse(0L);
+    }
 
     private static Optional<String> getRepoPath(String repoId) {
+        return getRepoPath(repoId, "json");
+    }
+
+    /**
+     * @return the absolute path of the file a repo is stored in, with the extension of a store's format,
+     * or empty if the store directory cannot be created
+     */
+    protected static Optional<String> getRepoPath(String repoId, String extension) {
         if (ensureDirectoryExists()) {
-            String newRepoName = RepoStore.escapeRepoName(repoId);
+            String newRepoName = RepoStore.escapeRepoName(repoId, extension);
             return Optional.of(new File(RepoStore.directory, newRepoName).getAbsolutePath());
         }
         return Optional.empty();
     }
 
+    /**
+     * @return the path of a file kept next to a repo, such as its journal or metadata, with the given extension
+     */
+    static Path getSidePath(String repoId, String extension) {
+        ensureDirectoryExists();
+        return Paths.get(RepoStore.directory, RepoStore.escapeRepoName(repoId, extension));
+    }
+
+    /**
+     * Removes the file with the given extension kept next to a repo, if there is one.
+     * @return true on failure to remove it, false otherwise
+     */
+    static boolean deleteSideFile(String repoId, String extension) {
+        try {
+            Files.deleteIfExists(getSidePath(repoId, extension));
+            return false;
+        } catch (IOException e) {
+            logger.error(HTLog.format(repoId, "Unable to remove stored " + extension), e);
+            return true;
+        }
+    }
+
     public static boolean write(String repoId, String output, int issueCount) {
         return Utility.writeFile(getRepoPath(repoId).orElse(""), output, issueCount);
     }
 
+    /**
+     * Same as write(String, String, int), but streams the output to the store as it is produced.
+     */
+    public static boolean write(String repoId, Utility.ContentWriter output, int issueCount) {
+        return Utility.writeFile(getRepoPath(repoId).orElse(""), output, issueCount);
+    }
+
     public static Optional<String> read(String repoId) {
         return Utility.readFile(getRepoPath(repoId).orElse(""));
     }
 
+    /**
+     * Opens a repo's stored data to be read as a stream.
+     * @return a reader of the data, which the caller should close
+     * @throws IOException if the data cannot be opened
+     */
+    public static Reader openReader(String repoId) throws IOException {
+        Optional<String> repoPath = getRepoPath(repoId);
+        if (!repoPath.isPresent()) {
+            throw new IOException("Unable to access store directory " + RepoStore.directory);
+        }
+        return Utility.openFileReader(repoPath.get());
+    }
+
     public static boolean delete(String repoId) {
         return Utility.deleteFile(getRepoPath(repoId).orElse(""));
     }
@@ -59,6 +195,13 @@ public abstract class RepoStore {
         return true;
     }
 
+    /**
+     * @return the path of a directory inside the store directory, such as the one cached files are kept in
+     */
+    public static String getSubdirectory(String name) {
+        return Paths.get(RepoStore.directory, name).toString();
+    }
+
     public static void changeDirectory(String newDir) {
         RepoStore.directory = newDir;
     }
@@ -0,0 +1,23 @@
+package backend.interfaces;
+
+import backend.IssueMetadata;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+class SaveMetadataTask extends StoreTask {
+
+    public final Map<Integer, IssueMetadata> toSave;
+    public final CompletableFuture<Boolean> response;
+
+    public SaveMetadataTask(String repoId, Map<Integer, IssueMetadata> toSave, CompletableFuture<Boolean> response) {
+        super(repoId);
+        this.toSave = toSave;
+        this.response = response;
+    }
+
+    @Override
+    public void run() {
+        response.complete(MetadataStore.save(repoId, toSave));
+    }
+}
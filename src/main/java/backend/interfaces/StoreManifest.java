@@ -0,0 +1,262 @@
+package backend.interfaces;
+
+import backend.UpdateSignature;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+import util.Utility;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.google.common.io.Files.getFileExtension;
+
+/**
+ * An index of the repos a store holds in the store directory, kept in a small file next to them, so that
+ * they can be listed without reading every one of them.
+ *
+ * Each store format has its own manifest, named after the extension of its files. Stores record every
+ * save and removal in it. When the files of a format no longer match their manifest, e.g. because they
+ * were changed by another program or the manifest is missing, only the files which changed are read
+ * again, and the manifest is rewritten. Manifests are always replaced atomically.
+ */
+public class StoreManifest {
+
+    private static final Logger logger = HTLog.get(StoreManifest.class);
+
+    private static final String MANIFEST_EXTENSION = "manifest";
+    private static final int VERSION = 1;
+
+    // Manifests may be shared by several instances of a store
+    private static final Object LOCK = new Object();
+
+    private final String extension;
+    private final EntryReader entryReader;
+
+    /**
+     * @param extension the extension of the files of the store's format
+     * @param entryReader reads the entry of a stored repo from its file, when it is not in the manifest
+     */
+    public StoreManifest(String extension, EntryReader entryReader) {
+        this.extension = extension;
+        this.entryReader = entryReader;
+    }
+
+    /**
+     * Reads the entry of a stored repo from its file.
+     */
+    @FunctionalInterface
+    public interface EntryReader {
+        /**
+         * @param lastWriteTime the time the file was last modified, to be recorded in its entry
+         * @return the entry of the repo stored in the file, or empty if it is not a valid stored repo
+         */
+        Optional<Entry> read(Path file, long lastWriteTime);
+    }
+
+    /**
+     * What the manifest records about a stored repo.
+     */
+    public static class Entry {
+        public final String repoId;
+        public final String fileName;
+        public final int issueCount;
+        public final UpdateSignature updateSignature;
+        public final long lastWriteTime;
+
+        public Entry(String repoId, String fileName, int issueCount, UpdateSignature updateSignature,
+                     long lastWriteTime) {
+            this.repoId = repoId;
+            this.fileName = fileName;
+            this.issueCount = issueCount;
+            this.updateSignature = updateSignature;
+            this.lastWriteTime = lastWriteTime;
+        }
+
+        /**
+         * Marks a file which is not a valid stored repo, so that it is not read again until it changes.
+         */
+        private static Entry invalid(String fileName, long lastWriteTime) {
+            return new Entry(null, fileName, 0, null, lastWriteTime);
+        }
+
+        private boolean isValid() {
+            return repoId != null;
+        }
+    }
+
+    /**
+     * The contents of a manifest file.
+     */
+    private static class Manifest {
+        private final int version;
+        private final List<Entry> entries;
+
+        Manifest(List<Entry> entries) {
+            this.version = VERSION;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * @return the entries of the valid stored repos, after bringing the manifest up to date with them
+     */
+    public List<Entry> getEntries() {
+        synchronized (LOCK) {
+            Optional<Manifest> stored = readManifest();
+            Map<String, Entry> storedEntries = new HashMap<>();
+            stored.ifPresent(manifest -> manifest.entries.forEach(entry -> storedEntries.put(entry.fileName, entry)));
+
+            List<Entry> entries = new ArrayList<>();
+            boolean stale = !stored.isPresent();
+            for (Path file : listStoreFiles()) {
+                String fileName = String.valueOf(file.getFileName());
+                long lastWriteTime = getLastWriteTime(file);
+                Entry entry = storedEntries.remove(fileName);
+                if (entry == null || entry.lastWriteTime != lastWriteTime) {
+                    stale = true;
+                    entry = entryReader.read(file, lastWriteTime).orElse(Entry.invalid(fileName, lastWriteTime));
+                }
+                entries.add(entry);
+            }
+            // Whatever is left was removed by something other than a store
+            stale = stale || !storedEntries.isEmpty();
+
+            if (stale) {
+                logger.info("Rebuilt store manifest for ." + extension + " files");
+                writeManifest(entries);
+            }
+            return entries.stream().filter(Entry::isValid).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return the update signature of a repo as the store holds it, i.e. that of its last full save or
+     * the last changes appended to its journal since, or empty if the store holds no valid copy of it
+     */
+    public Optional<UpdateSignature> getUpdateSignature(String repoId) {
+        String fileName = RepoStore.escapeRepoName(repoId, extension);
+        return getEntries().stream()
+            .filter(entry -> entry.fileName.equalsIgnoreCase(fileName))
+            .map(entry -> entry.updateSignature)
+            .findFirst();
+    }
+
+    /**
+     * Records that a repo was just saved to its file.
+     */
+    public void recordSave(String repoId, int issueCount, UpdateSignature updateSignature) {
+        String fileName = RepoStore.escapeRepoName(repoId, extension);
+        Path file = Paths.get(RepoStore.directory, fileName);
+        Entry entry = new Entry(repoId, fileName, issueCount, updateSignature, getLastWriteTime(file));
+        synchronized (LOCK) {
+            // A missing manifest is only rebuilt when repos are next listed
+            readManifest().ifPresent(manifest -> {
+                List<Entry> entries = withoutFile(manifest.entries, fileName);
+                entries.add(entry);
+                writeManifest(entries);
+            });
+        }
+    }
+
+    /**
+     * Records that changes to a repo were just appended to its journal, leaving its file as it was.
+     */
+    public void recordAppend(String repoId, UpdateSignature updateSignature) {
+        String fileName = RepoStore.escapeRepoName(repoId, extension);
+        synchronized (LOCK) {
+            readManifest().ifPresent(manifest -> writeManifest(manifest.entries.stream()
+                .map(entry -> entry.isValid() && entry.fileName.equalsIgnoreCase(fileName)
+                    ? new Entry(entry.repoId, entry.fileName, entry.issueCount, updateSignature,
+                        entry.lastWriteTime)
+                    : entry)
+                .collect(Collectors.toList())));
+        }
+    }
+
+    /**
+     * Records that the file of a repo was removed, or may no longer be valid.
+     */
+    public void recordRemoval(String repoId) {
+        String fileName = RepoStore.escapeRepoName(repoId, extension);
+        synchronized (LOCK) {
+            readManifest().ifPresent(manifest -> writeManifest(withoutFile(manifest.entries, fileName)));
+        }
+    }
+
+    private static List<Entry> withoutFile(List<Entry> entries, String fileName) {
+        return entries.stream()
+            .filter(entry -> !entry.fileName.equalsIgnoreCase(fileName))
+            .collect(Collectors.toList());
+    }
+
+    private Path getManifestPath() {
+        return Paths.get(RepoStore.directory, extension + "." + MANIFEST_EXTENSION);
+    }
+
+    private List<Path> listStoreFiles() {
+        RepoStore.ensureDirectoryExists();
+        try (Stream<Path> files = Files.list(Paths.get(RepoStore.directory))) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(p -> getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase(extension))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.error("Unable to open stored repository directory. ");
+            return new ArrayList<>();
+        }
+    }
+
+    private static long getLastWriteTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return the manifest, or empty if it is missing, corrupted or in another version
+     */
+    private Optional<Manifest> readManifest() {
+        Path path = getManifestPath();
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            Manifest manifest = RepoStore.GSON.fromJson(json, Manifest.class);
+            if (manifest == null || manifest.version != VERSION || manifest.entries == null) {
+                return Optional.empty();
+            }
+            return Optional.of(manifest);
+        } catch (IOException | JsonParseException e) {
+            logger.error("Unable to read store manifest " + path.getFileName());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the manifest to a temporary file which then replaces it, so that it is never left
+     * partly written.
+     */
+    private void writeManifest(List<Entry> entries) {
+        Path path = getManifestPath();
+        try {
+            String json = RepoStore.GSON.toJson(new Manifest(entries));
+            Utility.writeFileAtomically(path, json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("Unable to write store manifest " + path.getFileName(), e);
+        }
+    }
+}
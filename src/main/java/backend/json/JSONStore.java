@@ -1,32 +1,41 @@
 package backend.json;
 
+import backend.UpdateSignature;
 import backend.interfaces.RepoStore;
+import backend.interfaces.StoreManifest;
 import backend.resource.Model;
 import backend.resource.serialization.SerializableModel;
-import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
 import util.Utility;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import static com.google.common.io.Files.getFileExtension;
-
 public class JSONStore extends RepoStore {
 
     private static final Logger logger = HTLog.get(JSONStore.class);
 
+    private final StoreManifest manifest = new StoreManifest("json", JSONStore::readManifestEntry);
+
+    @Override
+    protected String getExtension() {
+        return "json";
+    }
+
+    @Override
+    protected StoreManifest getManifest() {
+        return manifest;
+    }
+
     @Override
     public CompletableFuture<Model> loadRepository(String repoId) {
         CompletableFuture<Model> response = new CompletableFuture<>();
@@ -37,42 +46,77 @@ public class JSONStore extends RepoStore {
     @Override
     public CompletableFuture<Boolean> saveRepository(String repoId, SerializableModel model) {
         CompletableFuture<Boolean> response = new CompletableFuture<>();
-        addTask(new WriteTask(repoId, model, response));
+        addTask(new WriteTask(repoId, model, manifest, response));
         return response;
     }
 
+    /**
+     * Stored repos are listed from the manifest, so only the files which changed since it was written
+     * are read.
+     */
+    @Override
     public List<String> getStoredRepos() {
-        ensureDirectoryExists();
-        try {
-            return Files.walk(Paths.get(RepoStore.directory), 1)
-                    .filter(Files::isRegularFile)
-                    .filter(p -> getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("json"))
-                    .map(JSONStore::getRepositoryIdFromJson)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
-            logger.error("Unable to open stored repository directory. ");
-            return new ArrayList<>();
-        }
+        return manifest.getEntries().stream()
+                .map(entry -> {
+                    logger.info("Adding " + entry.fileName + " to stored repository list. ");
+                    return entry.repoId;
+                })
+                .collect(Collectors.toList());
     }
 
+    @Override
     public CompletableFuture<Boolean> removeStoredRepo(String repoId) {
         CompletableFuture<Boolean> response = new CompletableFuture<>();
-        addTask(new DeleteTask(repoId, response));
+        addTask(new DeleteTask(repoId, manifest, response));
         return response;
     }
 
-    private static Optional<String> getRepositoryIdFromJson(Path p) {
-        try {
-            String repoId = new Model(
-                    (SerializableModel) new Gson().fromJson(Utility.readFile(String.valueOf(p.toAbsolutePath())).get(),
-                            new TypeToken<SerializableModel>() {}.getType())).getRepoId();
-            if (String.valueOf(p.getFileName()).equalsIgnoreCase(escapeRepoName(repoId))) {
-                logger.info("Adding " + p.getFileName() + " to stored repository list. ");
-                return Optional.of(repoId);
+    /**
+     * Deletes the JSON file of a repo which was migrated to another store, along with its manifest entry.
+     * Unlike removeStoredRepo, this keeps the repo's journal and metadata, which are shared between stores.
+     *
+     * @return true if the file could not be deleted
+     */
+    public boolean removeMigratedRepo(String repoId) {
+        boolean failed = RepoStore.delete(repoId);
+        manifest.recordRemoval(repoId);
+        return failed;
+    }
+
+    /**
+     * Reads the manifest entry of the repo stored in a file. The rest of the file is checked to be
+     * well-formed by skipping over it, without deserializing it.
+     */
+    private static Optional<StoreManifest.Entry> readManifestEntry(Path p, long lastWriteTime) {
+        try (JsonReader reader = new JsonReader(Utility.openFileReader(String.valueOf(p.toAbsolutePath())))) {
+            Optional<String> repoId = Optional.empty();
+            UpdateSignature updateSignature = UpdateSignature.EMPTY;
+            int issueCount = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("repoId")) {
+                    repoId = Optional.of(reader.nextString());
+                } else if (name.equals("updateSignature")) {
+                    updateSignature = GSON.fromJson(reader, UpdateSignature.class);
+                } else if (name.equals("issues")) {
+                    reader.beginArray();
+                    for (; reader.hasNext(); issueCount++) {
+                        reader.skipValue();
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            String fileName = String.valueOf(p.getFileName());
+            if (reader.peek() == JsonToken.END_DOCUMENT && repoId.isPresent()
+                    && fileName.equalsIgnoreCase(escapeRepoName(repoId.get()))) {
+                return Optional.of(
+                    new StoreManifest.Entry(repoId.get(), fileName, issueCount, updateSignature, lastWriteTime));
             }
-        } catch (NullPointerException | JsonParseException e) {
+        } catch (IOException | IllegalStateException | JsonParseException e) {
             logger.error("Unable to load repository from " + p.getFileName());
         }
         return Optional.empty();
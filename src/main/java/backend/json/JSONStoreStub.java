@@ -1,10 +1,15 @@
 package backend.json;
 
+import backend.IssueMetadata;
+import backend.resource.serialization.SerializableChanges;
 import backend.resource.serialization.SerializableModel;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Same as JSONStore, but with the save function disabled.
@@ -21,6 +26,22 @@ public class JSONStoreStub extends JSONStore {
         return CompletableFuture.completedFuture(false);
     }
 
+    @Override
+    public CompletableFuture<Boolean> saveRepositoryChanges(String repoId, SerializableChanges changes,
+                                                            Supplier<SerializableModel> model) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public CompletableFuture<Map<Integer, IssueMetadata>> loadMetadata(String repoId) {
+        return CompletableFuture.completedFuture(new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> saveMetadata(String repoId, Map<Integer, IssueMetadata> metadata) {
+        return CompletableFuture.completedFuture(false);
+    }
+
     @Override
     public List<String> getStoredRepos() {
         return new ArrayList<>();
@@ -1,18 +1,20 @@
 package backend.json;
 
+import backend.interfaces.RepoJournal;
 import backend.interfaces.RepoStore;
 import backend.interfaces.StoreTask;
 import backend.resource.Model;
 import backend.resource.serialization.SerializableModel;
-import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
 import util.exceptions.JSONLoadException;
 import util.exceptions.RepoStoreException;
 
-import java.util.Optional;
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 
 class ReadTask extends StoreTask {
@@ -38,31 +40,27 @@ class ReadTask extends StoreTask {
     }
 
     /**
-     * Loads repository data from RepoStore into a new Model.
+     * Loads repository data from RepoStore into a new Model, with the changes in its journal applied.
      * @param repoId the string id of the repository to be loaded
      * @return a new Model containing data for the requested repository.
      * @throws JSONLoadException when the repository's JSON data cannot be
      *         retrieved from the local store or is corrupted
      */
     private Model load(String repoId) throws RepoStoreException {
-        Optional<String> input = RepoStore.read(repoId);
-
-        if (!input.isPresent()) {
-            logger.error("Unable to load " + repoId + " from JSON cache");
-            throw new JSONLoadException();
-        } else {
+        try (JsonReader reader = new JsonReader(RepoStore.openReader(repoId))) {
+            SerializableModel sModel = RepoStore.GSON.fromJson(reader, SerializableModel.class);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("JSON document was not fully consumed");
+            }
             logger.info(HTLog.format(repoId, "Data loaded from JSON cache"));
 
-            try {
-                SerializableModel sModel = new Gson().fromJson(input.get(),
-                        new TypeToken<SerializableModel>(){}.getType());
-
-                return new Model(sModel);
-            } catch (NullPointerException | JsonParseException e) {
-                logger.error(HTLog.format(repoId, "JSON data is corrupted"));
-                throw new JSONLoadException(e);
-            }
+            return new Model(RepoJournal.replay(repoId, sModel));
+        } catch (IOException e) {
+            logger.error("Unable to load " + repoId + " from JSON cache");
+            throw new JSONLoadException(e);
+        } catch (NullPointerException | JsonParseException e) {
+            logger.error(HTLog.format(repoId, "JSON data is corrupted"));
+            throw new JSONLoadException(e);
         }
     }
 }
-
@@ -1,10 +1,11 @@
 package backend.json;
 
+import backend.interfaces.RepoJournal;
 import backend.interfaces.RepoStore;
+import backend.interfaces.StoreManifest;
 import backend.interfaces.StoreTask;
 import backend.resource.serialization.SerializableModel;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
 
@@ -15,11 +16,14 @@ class WriteTask extends StoreTask {
     private static final Logger logger = HTLog.get(WriteTask.class);
 
     public final SerializableModel toSave;
+    private final StoreManifest manifest;
     public final CompletableFuture<Boolean> response;
 
-    public WriteTask(String repoName, SerializableModel toSave, CompletableFuture<Boolean> response) {
+    public WriteTask(String repoName, SerializableModel toSave, StoreManifest manifest,
+                     CompletableFuture<Boolean> response) {
         super(repoName);
         this.toSave = toSave;
+        this.manifest = manifest;
         this.response = response;
     }
 
@@ -29,8 +33,17 @@ class WriteTask extends StoreTask {
     }
 
     private boolean save(String repoId, SerializableModel model) {
-        String output = new Gson().toJson(model);
-        boolean corruptedJson = RepoStore.write(repoId, output, model.issues.size());
+        boolean corruptedJson = RepoStore.write(repoId, writer -> {
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            RepoStore.GSON.toJson(model, SerializableModel.class, jsonWriter);
+            jsonWriter.flush();
+        }, model.issues.size());
+        if (corruptedJson) {
+            manifest.recordRemoval(repoId);
+        } else {
+            manifest.recordSave(repoId, model.issues.size(), model.updateSignature);
+            RepoJournal.clear(repoId);
+        }
         logger.info(HTLog.format(repoId, "Written to JSON store"));
         return corruptedJson;
     }
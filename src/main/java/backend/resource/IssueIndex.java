@@ -0,0 +1,372 @@
+package backend.resource;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An inverted index over the issues of a single {@link Model}, mapping label, assignee, author,
+ * milestone, repo, state and type values to the set of issue positions carrying them, along with
+ * trigram indexes over issue titles and descriptions.
+ *
+ * Positions are indices into {@link #getIssues()}, which follows the order of {@link Model#getIssues()}.
+ * Label, assignee and milestone values are resolved through the model the same way filtering does,
+ * so references to resources that do not exist in the model are not indexed.
+ *
+ * Instances are immutable. Bit sets returned by accessors are copies which callers may mutate.
+ */
+public final class IssueIndex {
+
+    private final List<TurboIssue> issues;
+
+    // The label list of each indexed issue, compared by reference to detect in-place label replacement
+    private final List<List<String>> indexedLabels;
+
+    // Describes how the model resolves labels, milestones and assignees. Indexes built under equal
+    // resolutions resolve every issue identically, so one may be derived from the other.
+    private final Resolution resolution;
+
+    private final Map<String, BitSet> byRepo;
+    private final Map<String, BitSet> byLabel;
+    private final Map<String, BitSet> byAssigneeLogin;
+    private final Map<String, BitSet> byAssigneeName;
+    private final Map<String, BitSet> byAuthor;
+    private final Map<String, BitSet> byMilestone;
+    private final BitSet open;
+    private final BitSet pullRequests;
+    private final BitSet withLabels;
+    private final BitSet withMilestone;
+    private final BitSet withAssignee;
+    private final TrigramIndex titles;
+    private final TrigramIndex descriptions;
+
+    private IssueIndex(List<TurboIssue> issues, Resolution resolution) {
+        this.issues = new ArrayList<>(issues);
+        this.indexedLabels = new ArrayList<>(issues.size());
+        this.resolution = resolution;
+        this.byRepo = new HashMap<>();
+        this.byLabel = new HashMap<>();
+        this.byAssigneeLogin = new HashMap<>();
+        this.byAssigneeName = new HashMap<>();
+        this.byAuthor = new HashMap<>();
+        this.byMilestone = new HashMap<>();
+        this.open = new BitSet();
+        this.pullRequests = new BitSet();
+        this.withLabels = new BitSet();
+        this.withMilestone = new BitSet();
+        this.withAssignee = new BitSet();
+        this.titles = TrigramIndex.build(issues.stream().map(TurboIssue::getTitle).collect(Collectors.toList()));
+        this.descriptions = TrigramIndex.build(
+            issues.stream().map(TurboIssue::getDescription).collect(Collectors.toList()));
+    }
+
+    /**
+     * Copies the postings of {@code other} for use with {@code issues}, which must agree with
+     * the issues of {@code other} on every position {@code other} has.
+     */
+    private IssueIndex(IssueIndex other, List<TurboIssue> issues) {
+        this.issues = new ArrayList<>(issues);
+        this.indexedLabels = new ArrayList<>(other.indexedLabels);
+        this.resolution = other.resolution;
+        this.byRepo = deepCopy(other.byRepo);
+        this.byLabel = deepCopy(other.byLabel);
+        this.byAssigneeLogin = deepCopy(other.byAssigneeLogin);
+        this.byAssigneeName = deepCopy(other.byAssigneeName);
+        this.byAuthor = deepCopy(other.byAuthor);
+        this.byMilestone = deepCopy(other.byMilestone);
+        this.open = (BitSet) other.open.clone();
+        this.pullRequests = (BitSet) other.pullRequests.clone();
+        this.withLabels = (BitSet) other.withLabels.clone();
+        this.withMilestone = (BitSet) other.withMilestone.clone();
+        this.withAssignee = (BitSet) other.withAssignee.clone();
+        this.titles = new TrigramIndex(other.titles);
+        this.descriptions = new TrigramIndex(other.descriptions);
+    }
+
+    /**
+     * Builds an index over all issues of {@code model}.
+     */
+    public static IssueIndex build(Model model) {
+        List<TurboIssue> issues = model.getIssues();
+        IssueIndex index = new IssueIndex(issues, new Resolution(model));
+        for (int i = 0; i < issues.size(); i++) {
+            index.add(i, issues.get(i), model);
+        }
+        return index;
+    }
+
+    /**
+     * Produces an index for {@code model} by re-indexing only the issues which differ from those
+     * indexed in {@code previous}. An issue differs if it was replaced (as {@link TurboIssue#reconcile}
+     * does for changed issues), appended, or had its labels replaced in place.
+     *
+     * Falls back to a full build if {@code model} resolves resources differently from the model
+     * {@code previous} was built for, or if existing issues were moved or removed.
+     *
+     * @return {@code previous} itself if nothing has changed
+     */
+    public static IssueIndex update(IssueIndex previous, Model model) {
+        List<TurboIssue> issues = model.getIssues();
+        if (!previous.resolution.equals(new Resolution(model)) || !previous.isPrefixOf(issues)) {
+            return build(model);
+        }
+
+        BitSet changed = new BitSet();
+        for (int i = 0; i < issues.size(); i++) {
+            if (i >= previous.issues.size()
+                || issues.get(i) != previous.issues.get(i)
+                || issues.get(i).getLabels() != previous.indexedLabels.get(i)) {
+                changed.set(i);
+            }
+        }
+        if (changed.isEmpty()) {
+            return previous;
+        }
+        if (changed.cardinality() > issues.size() / 2) {
+            // Postings are copied on every change, so building afresh is cheaper past this point
+            return build(model);
+        }
+
+        IssueIndex index = new IssueIndex(previous, issues);
+        for (int position = changed.nextSetBit(0); position >= 0; position = changed.nextSetBit(position + 1)) {
+            if (position < previous.issues.size()) {
+                index.remove(position);
+            }
+            index.add(position, issues.get(position), model);
+            index.titles.set(position, issues.get(position).getTitle());
+            index.descriptions.set(position, issues.get(position).getDescription());
+        }
+        return index;
+    }
+
+    /**
+     * Determines the issues which differ between {@code previous} and this index, in the same sense
+     * as {@link #update}. Issues at other positions are the same objects with the same labels, and
+     * resolve to the same resources, in both indexes.
+     *
+     * @return the positions of the differing issues in this index, or empty if the indexes cannot be
+     * compared position by position
+     */
+    public Optional<BitSet> changedSince(IssueIndex previous) {
+        if (!resolution.equals(previous.resolution) || !previous.isPrefixOf(issues)) {
+            return Optional.empty();
+        }
+        BitSet changed = new BitSet();
+        if (previous == this) {
+            return Optional.of(changed);
+        }
+        for (int i = 0; i < issues.size(); i++) {
+            if (i >= previous.issues.size()
+                || issues.get(i) != previous.issues.get(i)
+                || indexedLabels.get(i) != previous.indexedLabels.get(i)) {
+                changed.set(i);
+            }
+        }
+        return Optional.of(changed);
+    }
+
+    private boolean isPrefixOf(List<TurboIssue> newIssues) {
+        if (newIssues.size() < issues.size()) {
+            return false;
+        }
+        for (int i = 0; i < issues.size(); i++) {
+            if (newIssues.get(i).getId() != issues.get(i).getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(int position, TurboIssue issue, Model model) {
+        if (position < indexedLabels.size()) {
+            indexedLabels.set(position, issue.getLabels());
+        } else {
+            indexedLabels.add(issue.getLabels());
+        }
+
+        post(byRepo, issue.getRepoId().toLowerCase(), position);
+        post(byAuthor, lowerCaseOrEmpty(issue.getCreator()), position);
+
+        for (TurboLabel label : model.getLabelsOfIssue(issue)) {
+            post(byLabel, label.getFullName(), position);
+        }
+        model.getMilestoneOfIssue(issue).ifPresent(milestone ->
+            post(byMilestone, milestone.getTitle().toLowerCase(), position));
+        model.getAssigneeOfIssue(issue).ifPresent(assignee -> {
+            post(byAssigneeLogin, lowerCaseOrEmpty(assignee.getLoginName()), position);
+            post(byAssigneeName, lowerCaseOrEmpty(assignee.getRealName()), position);
+        });
+
+        open.set(position, issue.isOpen());
+        pullRequests.set(position, issue.isPullRequest());
+        withLabels.set(position, !issue.getLabels().isEmpty());
+        withMilestone.set(position, issue.getMilestone().isPresent());
+        withAssignee.set(position, issue.getAssignee().isPresent());
+    }
+
+    private void remove(int position) {
+        for (Map<String, BitSet> postings : Arrays.asList(
+                byRepo, byLabel, byAssigneeLogin, byAssigneeName, byAuthor, byMilestone)) {
+            postings.values().forEach(bits -> bits.clear(position));
+        }
+    }
+
+    private static void post(Map<String, BitSet> postings, String key, int position) {
+        postings.computeIfAbsent(key, k -> new BitSet()).set(position);
+    }
+
+    private static String lowerCaseOrEmpty(String s) {
+        return s == null ? "" : s.toLowerCase();
+    }
+
+    private static Map<String, BitSet> deepCopy(Map<String, BitSet> postings) {
+        Map<String, BitSet> result = new HashMap<>();
+        postings.forEach((key, bits) -> result.put(key, (BitSet) bits.clone()));
+        return result;
+    }
+
+    private static BitSet union(Map<String, BitSet> postings, Predicate<String> keyPredicate) {
+        BitSet result = new BitSet();
+        postings.forEach((key, bits) -> {
+            if (keyPredicate.test(key)) {
+                result.or(bits);
+            }
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unused")
+    private void ______QUERIES______() {}
+
+    public List<TurboIssue> getIssues() {
+        return Collections.unmodifiableList(issues);
+    }
+
+    public int size() {
+        return issues.size();
+    }
+
+    public TurboIssue getIssue(int position) {
+        return issues.get(position);
+    }
+
+    /**
+     * @return the positions of all issues in the index
+     */
+    public BitSet all() {
+        BitSet result = new BitSet(issues.size());
+        result.set(0, issues.size());
+        return result;
+    }
+
+    /**
+     * @param repoId compared case-insensitively
+     */
+    public BitSet withRepo(String repoId) {
+        BitSet bits = byRepo.get(repoId.toLowerCase());
+        return bits == null ? new BitSet() : (BitSet) bits.clone();
+    }
+
+    /**
+     * @param labelPredicate tested against the full names of the labels of the model
+     */
+    public BitSet withLabelMatching(Predicate<String> labelPredicate) {
+        return union(byLabel, labelPredicate);
+    }
+
+    /**
+     * @param predicate tested against the lower-cased title of each milestone in use
+     */
+    public BitSet withMilestoneMatching(Predicate<String> predicate) {
+        return union(byMilestone, predicate);
+    }
+
+    /**
+     * @param predicate tested against the lower-cased login and real name of each assignee
+     */
+    public BitSet withAssigneeMatching(Predicate<String> predicate) {
+        BitSet result = union(byAssigneeLogin, predicate);
+        result.or(union(byAssigneeName, predicate));
+        return result;
+    }
+
+    /**
+     * @param predicate tested against the lower-cased login of each issue creator
+     */
+    public BitSet withAuthorMatching(Predicate<String> predicate) {
+        return union(byAuthor, predicate);
+    }
+
+    /**
+     * @param term lower-cased
+     * @param candidates the positions to search
+     */
+    public BitSet withTitleMatching(String term, TextMatch match, BitSet candidates) {
+        return titles.matching(term, match, candidates);
+    }
+
+    /**
+     * @param term lower-cased
+     * @param candidates the positions to search
+     */
+    public BitSet withDescriptionMatching(String term, TextMatch match, BitSet candidates) {
+        return descriptions.matching(term, match, candidates);
+    }
+
+    public BitSet open() {
+        return (BitSet) open.clone();
+    }
+
+    public BitSet pullRequests() {
+        return (BitSet) pullRequests.clone();
+    }
+
+    public BitSet withLabels() {
+        return (BitSet) withLabels.clone();
+    }
+
+    public BitSet withMilestone() {
+        return (BitSet) withMilestone.clone();
+    }
+
+    public BitSet withAssignee() {
+        return (BitSet) withAssignee.clone();
+    }
+
+    /**
+     * The parts of a model which determine how issue fields resolve to labels, milestones and users.
+     */
+    private static final class Resolution {
+        private final String repoId;
+        private final Set<String> labelNames;
+        private final Map<Integer, String> milestoneTitles;
+        private final Map<String, String> userNames;
+
+        Resolution(Model model) {
+            this.repoId = model.getRepoId();
+            this.labelNames = new HashSet<>();
+            model.getLabels().forEach(label -> labelNames.add(label.getFullName()));
+            this.milestoneTitles = new HashMap<>();
+            model.getMilestones().forEach(milestone ->
+                milestoneTitles.putIfAbsent(milestone.getId(), milestone.getTitle()));
+            this.userNames = new HashMap<>();
+            model.getUsers().forEach(user -> userNames.putIfAbsent(user.getLoginName(), user.getRealName()));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Resolution that = (Resolution) o;
+            return repoId.equals(that.repoId) &&
+                labelNames.equals(that.labelNames) &&
+                milestoneTitles.equals(that.milestoneTitles) &&
+                userNames.equals(that.userNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(repoId, labelNames, milestoneTitles, userNames);
+        }
+    }
+}
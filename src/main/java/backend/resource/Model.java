@@ -7,9 +7,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import util.Utility;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
@@ -22,6 +21,17 @@ public class Model implements IBaseModel {
     private final List<TurboMilestone> milestones;
     private final List<TurboUser> users;
 
+    // Lookup indexes, built once at construction. Keys are immutable properties of the
+    // resources, so in-place mutation of issues (labels, metadata) does not invalidate them.
+    private final Map<Integer, TurboIssue> issuesById;
+    private final Map<String, TurboLabel> labelsByName;
+    private final Map<Integer, TurboMilestone> milestonesById;
+    private final Map<String, TurboMilestone> milestonesByTitle;
+    private final Map<String, TurboUser> usersByLogin;
+
+    // Built lazily, as it is only needed once panels are filtered
+    private IssueIndex issueIndex = null;
+
     private static final Logger logger = LogManager.getLogger(Model.class);
 
     /**
@@ -33,10 +43,16 @@ public class Model implements IBaseModel {
 
         this.updateSignature = updateSignature;
         this.repoId = repoId;
-        this.issues = issues;
-        this.labels = labels;
-        this.milestones = milestones;
-        this.users = users;
+        this.issues = new ArrayList<>(issues);
+        this.labels = new ArrayList<>(labels);
+        this.milestones = new ArrayList<>(milestones);
+        this.users = new ArrayList<>(users);
+
+        this.issuesById = index(this.issues, TurboIssue::getId);
+        this.labelsByName = index(this.labels, TurboLabel::getFullName);
+        this.milestonesById = index(this.milestones, TurboMilestone::getId);
+        this.milestonesByTitle = index(this.milestones, TurboMilestone::getTitle);
+        this.usersByLogin = index(this.users, TurboUser::getLoginName);
     }
 
     /**
@@ -46,53 +62,51 @@ public class Model implements IBaseModel {
     public Model(String repoId, List<TurboIssue> issues,
         List<TurboLabel> labels, List<TurboMilestone> milestones, List<TurboUser> users) {
 
-        this.updateSignature = UpdateSignature.EMPTY;
-        this.repoId = repoId;
-        this.issues = issues;
-        this.labels = labels;
-        this.milestones = milestones;
-        this.users = users;
+        this(repoId, issues, labels, milestones, users, UpdateSignature.EMPTY);
     }
 
     /**
      * Constructor for the empty model.
      */
     public Model(String repoId) {
-        this.updateSignature = UpdateSignature.EMPTY;
-        this.repoId = repoId;
-        this.issues = new ArrayList<>();
-        this.labels = new ArrayList<>();
-        this.milestones = new ArrayList<>();
-        this.users = new ArrayList<>();
+        this(repoId, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
     }
 
     /**
      * Copy constructor.
      */
     public Model(Model model) {
-        this.updateSignature = model.updateSignature;
-        this.repoId = model.getRepoId();
-        this.issues = new ArrayList<>(model.getIssues());
-        this.labels = new ArrayList<>(model.getLabels());
-        this.milestones = new ArrayList<>(model.getMilestones());
-        this.users = new ArrayList<>(model.getUsers());
+        this(model.getRepoId(), model.getIssues(), model.getLabels(),
+            model.getMilestones(), model.getUsers(), model.updateSignature);
     }
 
     public Model(SerializableModel model) {
-        this.updateSignature = model.updateSignature;
-        this.repoId = model.repoId;
-        this.issues = model.issues.stream()
-            .map(i -> new TurboIssue(model.repoId, i))
-            .collect(Collectors.toList());
-        this.labels = model.labels.stream()
-            .map(l -> new TurboLabel(model.repoId, l))
-            .collect(Collectors.toList());
-        this.milestones = model.milestones.stream()
-            .map(m -> new TurboMilestone(model.repoId, m))
-            .collect(Collectors.toList());
-        this.users = model.users.stream()
-            .map(u -> new TurboUser(model.repoId, u))
-            .collect(Collectors.toList());
+        this(model.repoId,
+            model.issues.stream()
+                .map(i -> new TurboIssue(model.repoId, i))
+                .collect(Collectors.toList()),
+            model.labels.stream()
+                .map(l -> new TurboLabel(model.repoId, l))
+                .collect(Collectors.toList()),
+            model.milestones.stream()
+                .map(m -> new TurboMilestone(model.repoId, m))
+                .collect(Collectors.toList()),
+            model.users.stream()
+                .map(u -> new TurboUser(model.repoId, u))
+                .collect(Collectors.toList()),
+            model.updateSignature);
+    }
+
+    /**
+     * Builds an immutable index of {@code items} by the given key. Where several items share
+     * a key, the first one in list order is kept, matching the behaviour of a linear scan.
+     */
+    private static <K, V> Map<K, V> index(List<V> items, Function<V, K> keyOf) {
+        Map<K, V> result = new HashMap<>(items.size() * 2);
+        for (V item : items) {
+            result.putIfAbsent(keyOf.apply(item), item);
+        }
+        return Collections.unmodifiableMap(result);
     }
 
     public String getRepoId() {
@@ -123,57 +137,61 @@ public class Model implements IBaseModel {
         return new ArrayList<>(users);
     }
 
+    /**
+     * Returns an up-to-date inverted index over the issues of this model. Issues which were
+     * changed since the index was last requested are re-indexed incrementally.
+     */
+    public synchronized IssueIndex getIssueIndex() {
+        issueIndex = issueIndex == null
+            ? IssueIndex.build(this)
+            : IssueIndex.update(issueIndex, this);
+        return issueIndex;
+    }
+
+    /**
+     * Seeds the issue index of this model with that of {@code previous}, the model this one was
+     * derived from, so that only changed issues have to be indexed again.
+     * Has no effect if {@code previous} has not built an index.
+     */
+    public void inheritIssueIndex(Model previous) {
+        IssueIndex previousIndex;
+        synchronized (previous) {
+            previousIndex = previous.issueIndex;
+        }
+        if (previousIndex == null) {
+            return;
+        }
+        synchronized (this) {
+            issueIndex = IssueIndex.update(previousIndex, this);
+        }
+    }
+
     @SuppressWarnings("unused")
     private void ______OPERATIONS_____() {}
 
     public Optional<TurboIssue> getIssueById(int issueId) {
         assert issueId >= 1 : "Invalid issue id " + issueId;
-        for (TurboIssue issue : getIssues()) {
-            if (issue.getId() == issueId) {
-                return Optional.of(issue);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(issuesById.get(issueId));
     }
 
     public Optional<TurboLabel> getLabelByActualName(String labelName) {
         assert labelName != null && !labelName.isEmpty() : "Invalid label name " + labelName;
-        for (TurboLabel label : getLabels()) {
-            if (label.getFullName().equals(labelName)) {
-                return Optional.of(label);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(labelsByName.get(labelName));
     }
 
     public Optional<TurboUser> getUserByLogin(String login) {
         assert login != null && !login.isEmpty() : "Invalid user name " + login;
-        for (TurboUser user : getUsers()) {
-            if (user.getLoginName().equals(login)) {
-                return Optional.of(user);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(usersByLogin.get(login));
     }
 
     public Optional<TurboMilestone> getMilestoneByTitle(String title) {
         assert title != null && !title.isEmpty() : "Invalid milestone title " + title;
-        for (TurboMilestone milestone : getMilestones()) {
-            if (milestone.getTitle().equals(title)) {
-                return Optional.of(milestone);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(milestonesByTitle.get(title));
     }
 
     public Optional<TurboMilestone> getMilestoneById(int id) {
         assert id >= 1 : "Invalid milestone id " + id;
-        for (TurboMilestone milestone : getMilestones()) {
-            if (milestone.getId() == id) {
-                return Optional.of(milestone);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(milestonesById.get(id));
     }
 
     public Optional<TurboMilestone> getMilestoneOfIssue(TurboIssue issue) {
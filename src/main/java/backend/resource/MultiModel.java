@@ -99,19 +99,17 @@ public class MultiModel implements IModel {
     }
 
     public synchronized void insertMetadata(String repoId, Map<Integer, IssueMetadata> metadata, String currentUser) {
-        models.get(repoId).getIssues().forEach(issue -> {
-            if (metadata.containsKey(issue.getId())) {
-                IssueMetadata toBeInserted = metadata.get(issue.getId());
-
-                // ETag comparison is based on IssueMetadata constructor for more granularity, so that we can choose
-                // to not replace events while still replacing comments in the case of same ETag.
-                // TODO move ETag comparison here when comments ETag implementation is complete.
-                LocalDateTime nonSelfUpdatedAt = reconcileCreationDate(toBeInserted.getNonSelfUpdatedAt(),
-                        issue.getCreatedAt(), currentUser, issue.getCreator());
-                issue.setMetadata(toBeInserted.reconcile(nonSelfUpdatedAt,
-                    issue.getMetadata().getEvents(), issue.getMetadata().getEventsETag()));
-            }
-        });
+        Model model = models.get(repoId);
+        metadata.forEach((issueId, toBeInserted) -> model.getIssueById(issueId).ifPresent(issue -> {
+            // ETag comparison is done in IssueMetadata.reconcile for more granularity, so that we can choose
+            // to not replace events while still replacing comments, and vice versa.
+            LocalDateTime nonSelfUpdatedAt = reconcileCreationDate(toBeInserted.getNonSelfUpdatedAt(),
+                    issue.getCreatedAt(), currentUser, issue.getCreator());
+            IssueMetadata existing = issue.getMetadata();
+            issue.setMetadata(toBeInserted.reconcile(nonSelfUpdatedAt,
+                existing.getEvents(), existing.getEventsETag(),
+                existing.getComments(), existing.getCommentsETag()));
+        }));
     }
 
     private static LocalDateTime reconcileCreationDate(LocalDateTime lastNonSelfUpdate,
@@ -0,0 +1,34 @@
+package backend.resource;
+
+/**
+ * The ways in which a search term may match issue text.
+ */
+public enum TextMatch {
+
+    SUBSTRING, // The term may occur anywhere in the text
+    WORD, // The term must occur as whole words
+    PREFIX; // The term must occur at the start of a word
+
+    /**
+     * @param text lower-cased text to search
+     * @param term lower-cased term to search for
+     */
+    public boolean matches(String text, String term) {
+        if (this == SUBSTRING) {
+            return text.contains(term);
+        }
+        for (int start = text.indexOf(term); start >= 0; start = text.indexOf(term, start + 1)) {
+            int end = start + term.length();
+            boolean startsWord = start == 0 || !isWordCharacter(text.charAt(start - 1));
+            boolean endsWord = end == text.length() || !isWordCharacter(text.charAt(end));
+            if (startsWord && (this == PREFIX || endsWord)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
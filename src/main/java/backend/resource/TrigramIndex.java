@@ -0,0 +1,174 @@
+package backend.resource;
+
+import java.util.*;
+
+/**
+ * A trigram index over one lower-cased text per issue position. Searches first narrow the
+ * candidates to the positions containing every trigram of the search term, then verify each
+ * remaining candidate against its text, so that most texts are never scanned.
+ *
+ * Posting arrays are sorted and never modified once stored. Copies of an index share them,
+ * replacing only the postings of trigrams whose positions change.
+ */
+final class TrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final List<String> texts;
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex() {
+        this.texts = new ArrayList<>();
+        this.postings = new HashMap<>();
+    }
+
+    TrigramIndex(TrigramIndex other) {
+        this.texts = new ArrayList<>(other.texts);
+        this.postings = new HashMap<>(other.postings);
+    }
+
+    /**
+     * @param texts the text of each position, in any case
+     */
+    static TrigramIndex build(List<String> texts) {
+        TrigramIndex index = new TrigramIndex();
+        Map<Long, PositionList> lists = new HashMap<>();
+        for (int position = 0; position < texts.size(); position++) {
+            String text = texts.get(position).toLowerCase();
+            index.texts.add(text);
+            for (long trigram : trigramsOf(text)) {
+                lists.computeIfAbsent(trigram, t -> new PositionList()).add(position);
+            }
+        }
+        lists.forEach((trigram, positions) -> index.postings.put(trigram, positions.toArray()));
+        return index;
+    }
+
+    /**
+     * Indexes the text of a position, replacing the text previously indexed there.
+     * New positions may only be appended.
+     */
+    void set(int position, String text) {
+        String lowerCaseText = text.toLowerCase();
+        if (position == texts.size()) {
+            texts.add(lowerCaseText);
+            trigramsOf(lowerCaseText).forEach(trigram -> post(trigram, position));
+            return;
+        }
+
+        String previousText = texts.get(position);
+        if (previousText.equals(lowerCaseText)) {
+            return;
+        }
+        Set<Long> previousTrigrams = trigramsOf(previousText);
+        Set<Long> trigrams = trigramsOf(lowerCaseText);
+        previousTrigrams.stream()
+            .filter(trigram -> !trigrams.contains(trigram))
+            .forEach(trigram -> unpost(trigram, position));
+        trigrams.stream()
+            .filter(trigram -> !previousTrigrams.contains(trigram))
+            .forEach(trigram -> post(trigram, position));
+        texts.set(position, lowerCaseText);
+    }
+
+    /**
+     * @param term lower-cased
+     * @param candidates the positions to search
+     * @return the positions among the candidates whose text matches the term
+     */
+    BitSet matching(String term, TextMatch match, BitSet candidates) {
+        BitSet narrowed = (BitSet) candidates.clone();
+        if (term.length() >= GRAM_LENGTH) {
+            List<int[]> termPostings = new ArrayList<>();
+            for (long trigram : trigramsOf(term)) {
+                int[] positions = postings.get(trigram);
+                if (positions == null) {
+                    return new BitSet();
+                }
+                termPostings.add(positions);
+            }
+            // Rarer trigrams narrow the most, so intersect those first
+            termPostings.sort(Comparator.comparingInt(positions -> positions.length));
+            for (int i = 0; i < termPostings.size() && !narrowed.isEmpty(); i++) {
+                narrowed.and(toBitSet(termPostings.get(i)));
+            }
+        }
+
+        BitSet result = new BitSet();
+        for (int i = narrowed.nextSetBit(0); i >= 0 && i < texts.size(); i = narrowed.nextSetBit(i + 1)) {
+            if (match.matches(texts.get(i), term)) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    private void post(long trigram, int position) {
+        int[] positions = postings.get(trigram);
+        if (positions == null) {
+            postings.put(trigram, new int[]{position});
+            return;
+        }
+        int found = Arrays.binarySearch(positions, position);
+        if (found >= 0) {
+            return;
+        }
+        int insertAt = -found - 1;
+        int[] updated = new int[positions.length + 1];
+        System.arraycopy(positions, 0, updated, 0, insertAt);
+        updated[insertAt] = position;
+        System.arraycopy(positions, insertAt, updated, insertAt + 1, positions.length - insertAt);
+        postings.put(trigram, updated);
+    }
+
+    private void unpost(long trigram, int position) {
+        int[] positions = postings.get(trigram);
+        int found = positions == null ? -1 : Arrays.binarySearch(positions, position);
+        if (found < 0) {
+            return;
+        }
+        if (positions.length == 1) {
+            postings.remove(trigram);
+            return;
+        }
+        int[] updated = new int[positions.length - 1];
+        System.arraycopy(positions, 0, updated, 0, found);
+        System.arraycopy(positions, found + 1, updated, found, positions.length - found - 1);
+        postings.put(trigram, updated);
+    }
+
+    private static Set<Long> trigramsOf(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static BitSet toBitSet(int[] positions) {
+        BitSet result = new BitSet();
+        for (int position : positions) {
+            result.set(position);
+        }
+        return result;
+    }
+
+    /**
+     * A growable list of positions, used while building postings.
+     */
+    private static final class PositionList {
+        private int[] positions = new int[4];
+        private int size = 0;
+
+        void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
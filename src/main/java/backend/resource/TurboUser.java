@@ -1,7 +1,6 @@
 package backend.resource;
 
 import static util.Utility.replaceNull;
-import javafx.scene.image.Image;
 
 import org.eclipse.egit.github.core.User;
 
@@ -21,7 +20,6 @@ public class TurboUser {
     }
 
     private final String repoId;
-    private transient Image avatar = null;
 
     private void ______CONSTRUCTORS______() {
     }
@@ -43,7 +41,6 @@ public class TurboUser {
         this.loginName = user.getLoginName();
         this.realName = user.getRealName();
         this.avatarURL = user.getAvatarURL();
-        this.avatar = getAvatarImageFromAvatarUrl();
         this.repoId = user.getRepoId();
     }
 
@@ -51,7 +48,6 @@ public class TurboUser {
         this.loginName = replaceNull(loginName, "");
         this.realName = replaceNull(realName, "");
         this.avatarURL = "";
-        this.avatar = getAvatarImageFromAvatarUrl();
         this.repoId = replaceNull(repoId, "");
     }
 
@@ -59,7 +55,6 @@ public class TurboUser {
         this.loginName = replaceNull(user.getLogin(), "");
         this.realName = replaceNull(user.getName(), "");
         this.avatarURL = replaceNull(user.getAvatarUrl(), "");
-        this.avatar = getAvatarImageFromAvatarUrl();
         this.repoId = replaceNull(repoId, "");
     }
 
@@ -67,7 +62,6 @@ public class TurboUser {
         this.loginName = replaceNull(user.getLoginName(), "");
         this.realName = replaceNull(user.getRealName(), "");
         this.avatarURL = replaceNull(user.getAvatarURL(), "");
-        this.avatar = getAvatarImageFromAvatarUrl();
         this.repoId = replaceNull(repoId, "");
     }
 
@@ -79,10 +73,6 @@ public class TurboUser {
         return loginName;
     }
 
-    public Image getAvatarImage() {
-        return this.avatar;
-    }
-
     private void ______BOILERPLATE______() {
     }
 
@@ -121,9 +111,4 @@ public class TurboUser {
         result = 31 * result + avatarURL.hashCode();
         return result;
     }
-
-    private Image getAvatarImageFromAvatarUrl() {
-        if (avatarURL.isEmpty()) return null;
-        return new Image(avatarURL, 12, 12, true, true, true);
-    }
 }
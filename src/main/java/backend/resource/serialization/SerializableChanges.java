@@ -0,0 +1,102 @@
+package backend.resource.serialization;
+
+import backend.UpdateSignature;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The changes between two successive models of a repo: the issues which were changed or added,
+ * and the labels, milestones and users if any of them changed. Unchanged lists are null. The update
+ * signature of the first model is kept, so that the changes are only ever applied to that model.
+ *
+ * 100% immutable.
+ */
+public class SerializableChanges {
+    public final String repoId;
+    public final UpdateSignature baseSignature;
+    public final UpdateSignature updateSignature;
+
+    public final List<SerializableIssue> issues;
+    public final List<SerializableLabel> labels;
+    public final List<SerializableMilestone> milestones;
+    public final List<SerializableUser> users;
+
+    private SerializableChanges(Model previous, Model current, List<TurboIssue> changedIssues) {
+        this.repoId = current.getRepoId();
+        this.baseSignature = previous.getUpdateSignature();
+        this.updateSignature = current.getUpdateSignature();
+
+        this.issues = changedIssues.stream()
+            .map(SerializableIssue::new).collect(Collectors.toList());
+        this.labels = previous.getLabels().equals(current.getLabels())
+            ? null
+            : current.getLabels().stream().map(SerializableLabel::new).collect(Collectors.toList());
+        this.milestones = previous.getMilestones().equals(current.getMilestones())
+            ? null
+            : current.getMilestones().stream().map(SerializableMilestone::new).collect(Collectors.toList());
+        this.users = previous.getUsers().equals(current.getUsers())
+            ? null
+            : current.getUsers().stream().map(SerializableUser::new).collect(Collectors.toList());
+    }
+
+    /**
+     * Most issues are carried over from one model to the next as the same objects, so finding
+     * the changed ones rarely has to compare issues field by field.
+     * @return the changes from {@code previous} to {@code current}, or empty if they cannot be expressed
+     * as changes, i.e. if some issue in {@code previous} is no longer in {@code current}
+     */
+    public static Optional<SerializableChanges> between(Model previous, Model current) {
+        List<TurboIssue> previousIssues = previous.getIssues();
+        Map<Integer, TurboIssue> previousById = new HashMap<>(previousIssues.size() * 2);
+        previousIssues.forEach(issue -> previousById.put(issue.getId(), issue));
+
+        List<TurboIssue> changedIssues = new ArrayList<>();
+        int carriedOver = 0;
+        for (TurboIssue issue : current.getIssues()) {
+            TurboIssue previousIssue = previousById.get(issue.getId());
+            if (previousIssue != null) {
+                carriedOver++;
+            }
+            if (previousIssue == null || previousIssue != issue && !previousIssue.equals(issue)) {
+                changedIssues.add(issue);
+            }
+        }
+        if (carriedOver != previousById.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(new SerializableChanges(previous, current, changedIssues));
+    }
+
+    /**
+     * Changed issues replace the issues with the same ids, keeping their positions, while new issues are
+     * added at the end, in the same way as {@link TurboIssue#reconcile}.
+     * @return the model after these changes
+     */
+    public SerializableModel applyTo(SerializableModel model) {
+        List<SerializableIssue> newIssues = new ArrayList<>(model.issues);
+        Map<Integer, Integer> positions = new HashMap<>(newIssues.size() * 2);
+        for (int i = 0; i < newIssues.size(); i++) {
+            positions.put(newIssues.get(i).getId(), i);
+        }
+        for (SerializableIssue issue : issues) {
+            Integer position = positions.get(issue.getId());
+            if (position == null) {
+                positions.put(issue.getId(), newIssues.size());
+                newIssues.add(issue);
+            } else {
+                newIssues.set(position, issue);
+            }
+        }
+        return new SerializableModel(model.repoId, updateSignature, newIssues,
+            labels == null ? model.labels : labels,
+            milestones == null ? model.milestones : milestones,
+            users == null ? model.users : users);
+    }
+}
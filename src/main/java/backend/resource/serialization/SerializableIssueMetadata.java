@@ -0,0 +1,150 @@
+package backend.resource.serialization;
+
+import backend.IssueMetadata;
+import github.IssueEventType;
+import github.TurboIssueEvent;
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.User;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The metadata of an issue, as stored between sessions. Comments are stored as summaries, without
+ * their bodies, which are never displayed.
+ */
+@SuppressWarnings("PMD")
+public class SerializableIssueMetadata {
+    private final int issueId;
+    private final List<SerializableEvent> events;
+    private final List<SerializableComment> comments;
+    private final String eventsETag;
+    private final String commentsETag;
+    private final LocalDateTime nonSelfUpdatedAt;
+    private final String user;
+
+    public SerializableIssueMetadata(int issueId, IssueMetadata metadata) {
+        this.issueId = issueId;
+        this.events = metadata.getEvents().stream()
+            .map(SerializableEvent::new).collect(Collectors.toList());
+        this.comments = metadata.getComments().stream()
+            .map(SerializableComment::new).collect(Collectors.toList());
+        this.eventsETag = metadata.getEventsETag();
+        this.commentsETag = metadata.getCommentsETag();
+        this.nonSelfUpdatedAt = metadata.getNonSelfUpdatedAt();
+        this.user = metadata.getUser();
+    }
+
+    public int getIssueId() {
+        return issueId;
+    }
+
+    /**
+     * @return the stored metadata, which is not known to be the latest
+     */
+    public IssueMetadata toIssueMetadata() {
+        return IssueMetadata.restored(
+            events.stream().map(SerializableEvent::toEvent).collect(Collectors.toList()),
+            comments.stream().map(SerializableComment::toComment).collect(Collectors.toList()),
+            eventsETag, commentsETag, nonSelfUpdatedAt, user);
+    }
+
+    private static User userWithLogin(String login) {
+        return login == null ? null : new User().setLogin(login);
+    }
+
+    private static String loginOf(User user) {
+        return user == null ? null : user.getLogin();
+    }
+
+    private static class SerializableEvent {
+        private final String actor;
+        private final IssueEventType type;
+        private final long date;
+        private String labelName;
+        private String labelColour;
+        private String milestoneTitle;
+        private String renamedFrom;
+        private String renamedTo;
+        private String assignedUser;
+
+        SerializableEvent(TurboIssueEvent event) {
+            this.actor = loginOf(event.getActor());
+            this.type = event.getType();
+            this.date = event.getDate().getTime();
+
+            switch (type) {
+                case Labeled:
+                case Unlabeled:
+                    labelName = event.getLabelName();
+                    labelColour = event.getLabelColour();
+                    break;
+                case Milestoned:
+                case Demilestoned:
+                    milestoneTitle = event.getMilestoneTitle();
+                    break;
+                case Renamed:
+                    renamedFrom = event.getRenamedFrom();
+                    renamedTo = event.getRenamedTo();
+                    break;
+                case Assigned:
+                case Unassigned:
+                    assignedUser = loginOf(event.getAssignedUser());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        TurboIssueEvent toEvent() {
+            TurboIssueEvent event = new TurboIssueEvent(userWithLogin(actor), type, new Date(date));
+
+            switch (type) {
+                case Labeled:
+                case Unlabeled:
+                    event.setLabelName(labelName).setLabelColour(labelColour);
+                    break;
+                case Milestoned:
+                case Demilestoned:
+                    event.setMilestoneTitle(milestoneTitle);
+                    break;
+                case Renamed:
+                    event.setRenamedFrom(renamedFrom);
+                    event.setRenamedTo(renamedTo);
+                    break;
+                case Assigned:
+                case Unassigned:
+                    event.setAssignedUser(userWithLogin(assignedUser));
+                    break;
+                default:
+                    break;
+            }
+            return event;
+        }
+    }
+
+    private static class SerializableComment {
+        private final long id;
+        private final String user;
+        private final long createdAt;
+        private final long updatedAt;
+
+        SerializableComment(Comment comment) {
+            this.id = comment.getId();
+            this.user = loginOf(comment.getUser());
+            this.createdAt = comment.getCreatedAt().getTime();
+            this.updatedAt = comment.getUpdatedAt() == null ? createdAt : comment.getUpdatedAt().getTime();
+        }
+
+        Comment toComment() {
+            Comment comment = new Comment();
+            comment.setId(id);
+            comment.setUser(userWithLogin(user));
+            comment.setCreatedAt(new Date(createdAt));
+            comment.setUpdatedAt(new Date(updatedAt));
+            return comment;
+        }
+    }
+}
@@ -17,6 +17,14 @@ public class SerializableLabel {
         this.colour = label.getColour();
     }
 
+    /**
+     * For stores which read labels field by field.
+     */
+    public SerializableLabel(String fullName, String colour) {
+        this.fullName = fullName;
+        this.colour = colour;
+    }
+
     public String getFullName() {
         return fullName;
     }
@@ -18,6 +18,15 @@ public class SerializableUser {
         this.avatarURL = user.getAvatarURL();
     }
 
+    /**
+     * For stores which read users field by field.
+     */
+    public SerializableUser(String loginName, String realName, String avatarURL) {
+        this.loginName = loginName;
+        this.realName = realName;
+        this.avatarURL = avatarURL;
+    }
+
     public String getLoginName() {
         return loginName;
     }
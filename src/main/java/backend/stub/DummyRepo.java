@@ -166,9 +166,13 @@ public class DummyRepo implements Repo {
     }
 
     @Override
-    public List<Comment> getAllComments(String repoId, TurboIssue issue) {
-        List<Comment> result = getComments(repoId, issue.getId());
-        result.addAll(getReviewComments(repoId, issue.getId()));
+    public ImmutablePair<List<Comment>, String> getUpdatedComments(String repoId, TurboIssue issue,
+                                                                  String currentETag) {
+        ImmutablePair<List<Comment>, String> result = getRepoState(repoId).getUpdatedComments(issue.getId(),
+            currentETag);
+
+        if (!result.getRight().equals(currentETag) || currentETag.length() == 0) apiQuota--;
+
         return result;
     }
 
@@ -198,4 +202,9 @@ public class DummyRepo implements Repo {
         return new ImmutablePair<>(apiQuota, new Date().getTime() + 2700000);
     }
 
+    @Override
+    public int getRemainingRequests() {
+        return apiQuota;
+    }
+
 }
@@ -133,6 +133,7 @@ public class DummyRepoState {
                 "", ""
         ));
         updatedEvents.add(9);
+        updatedComments.add(9);
 
         // Then put down three comments for issue 10
         Comment dummyComment1 = new Comment();
@@ -153,6 +154,7 @@ public class DummyRepoState {
                 "", ""
         ));
         updatedEvents.add(10);
+        updatedComments.add(10);
 
         // Then set label 3 and 11 for issue 8, and immediately remove label 11
         String[] oldLabels = {"Label 3", "Label 11"};
@@ -277,8 +279,17 @@ public class DummyRepoState {
         return new ImmutablePair<>(new ArrayList<>(), currentETag);
     }
 
+    protected ImmutablePair<List<Comment>, String> getUpdatedComments(int issueId, String currentETag) {
+        if (updatedComments.contains(issueId)) {
+            // Remove issue from updatedComments so that next time metadata is retrieved, the same ETag
+            // will not be sent again unless more comments will have been introduced.
+            updatedComments.remove(issueId);
+            return new ImmutablePair<>(getComments(issueId), UUID.randomUUID().toString());
+        }
+        return new ImmutablePair<>(new ArrayList<>(), currentETag);
+    }
+
     protected List<Comment> getComments(int issueId) {
-        // TODO after implementing support for comments ETags on GitHubClientExtended, change logic to getEvents'.
         IssueMetadata metadataOfIssue = issueMetadata.get(issueId);
         if (metadataOfIssue != null) {
             return new ArrayList<>(metadataOfIssue.getComments());
@@ -15,6 +15,7 @@ import util.Futures;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class DummySource extends RepoSource {
 
@@ -44,8 +45,10 @@ public class DummySource extends RepoSource {
 
     @Override
     public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId,
-                                                                           List<TurboIssue> issues) {
-        return addTask(new DownloadMetadataTaskStub(this, dummy, repoId, issues)).response;
+                                                                           List<TurboIssue> issues,
+                                                                           Consumer<Map<Integer, IssueMetadata>>
+                                                                               chunkListener) {
+        return addTask(new DownloadMetadataTaskStub(this, dummy, repoId, issues, chunkListener)).response;
     }
 
     @Override
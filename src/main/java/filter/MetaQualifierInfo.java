@@ -1,8 +1,10 @@
 package filter;
 
+import backend.resource.TextMatch;
 import filter.expression.Qualifier;
 import filter.expression.QualifierType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -14,10 +16,21 @@ import java.util.stream.Collectors;
 public class MetaQualifierInfo {
 
     private final Optional<String> in;
+    private final TextMatch match;
+    private final LocalDateTime currentTime;
 
     public MetaQualifierInfo(List<Qualifier> qualifiers) {
+        this(qualifiers, Qualifier.getCurrentTime());
+    }
+
+    /**
+     * @param currentTime the time against which time-related qualifiers are evaluated
+     */
+    public MetaQualifierInfo(List<Qualifier> qualifiers, LocalDateTime currentTime) {
 
         this.in = processInQualifier(qualifiers);
+        this.match = processMatchQualifier(qualifiers);
+        this.currentTime = currentTime;
     }
 
     private Optional<String> processInQualifier(List<Qualifier> qualifiers) {
@@ -30,11 +43,46 @@ public class MetaQualifierInfo {
         } else if (inQualifiers.size() > 1) {
             throw new ParseException("More than one meta-qualifier: in");
         } else {
-            return inQualifiers.get(0).getContent();
+            return inQualifiers.get(0).getContent().map(Qualifier::expandKeywordAliases);
         }
     }
 
+    private TextMatch processMatchQualifier(List<Qualifier> qualifiers) {
+        List<Qualifier> matchQualifiers = qualifiers.stream()
+            .filter(q -> q.getType() == QualifierType.MATCH)
+            .collect(Collectors.toList());
+
+        if (matchQualifiers.isEmpty()) {
+            return TextMatch.SUBSTRING;
+        } else if (matchQualifiers.size() > 1) {
+            throw new ParseException("More than one meta-qualifier: match");
+        }
+
+        switch (matchQualifiers.get(0).getContent().orElse("").toLowerCase()) {
+        case "word":
+            return TextMatch.WORD;
+        case "prefix":
+            return TextMatch.PREFIX;
+        default:
+            throw new SemanticException(QualifierType.MATCH);
+        }
+    }
+
+    /**
+     * @return the target of the in meta-qualifier, with aliases expanded
+     */
     public Optional<String> getIn() {
         return in;
     }
+
+    /**
+     * @return how keywords and text qualifiers match issue text, given by the match meta-qualifier
+     */
+    public TextMatch getMatch() {
+        return match;
+    }
+
+    public LocalDateTime getCurrentTime() {
+        return currentTime;
+    }
 }
@@ -0,0 +1,105 @@
+package filter.expression;
+
+import backend.interfaces.IModel;
+import backend.resource.IssueIndex;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import filter.MetaQualifierInfo;
+import util.ParallelMapper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A filter expression prepared for testing many issues against a snapshot of the model.
+ *
+ * Compilation does the per-expression work once: meta-qualifiers are stripped, the default repo
+ * is resolved if the expression specifies no repo, the in: target is resolved and the current
+ * time is fixed for time-related qualifiers. Qualifier contents are lower-cased when the
+ * qualifiers are constructed. Instances are immutable and should be compiled afresh each refresh.
+ *
+ * When used by a {@link ParallelMapper}, large sets of issues are tested in chunks in parallel.
+ */
+public final class CompiledFilter {
+
+    // The number of issue positions tested by each parallel task
+    private static final int CHUNK_SIZE = 4096;
+
+    private final IModel model;
+    private final FilterExpression expression;
+    private final MetaQualifierInfo info;
+
+    private CompiledFilter(IModel model, FilterExpression expression, MetaQualifierInfo info) {
+        this.model = model;
+        this.expression = expression;
+        this.info = info;
+    }
+
+    public static CompiledFilter compile(IModel model, FilterExpression expr) {
+        List<Qualifier> metaQualifiers = expr.find(Qualifier::isMetaQualifier);
+        FilterExpression exprWithNormalQualifiers = expr.filter(Qualifier::shouldNotBeStripped);
+
+        // Preprocessing for repo qualifier
+        boolean containsRepoQualifier = metaQualifiers.stream()
+                .anyMatch(q -> q.getType() == QualifierType.REPO);
+
+        if (!containsRepoQualifier) {
+            exprWithNormalQualifiers = new Conjunction(
+                new Qualifier(QualifierType.REPO, model.getDefaultRepo()),
+                exprWithNormalQualifiers);
+        }
+
+        return new CompiledFilter(model, exprWithNormalQualifiers,
+            new MetaQualifierInfo(metaQualifiers, Qualifier.getCurrentTime()));
+    }
+
+    public boolean isSatisfiedBy(TurboIssue issue) {
+        return expression.isSatisfiedBy(model, issue, info);
+    }
+
+    /**
+     * Tests all issues of the given repo models at once, evaluating the expression as set
+     * operations over each model's {@link IssueIndex}.
+     *
+     * @return the matching issues, in the order of {@code repoModels} and of the issues within each
+     */
+    public List<TurboIssue> getMatchingIssues(List<Model> repoModels) {
+        List<TurboIssue> result = new ArrayList<>();
+        for (Model repoModel : repoModels) {
+            IssueIndex index = repoModel.getIssueIndex();
+            BitSet matches = getMatchingIssues(index, index.all());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                result.add(index.getIssue(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tests some of the issues of a repo model, given by their positions in its index.
+     *
+     * @return the positions of the candidates which match
+     */
+    public BitSet getMatchingIssues(IssueIndex index, BitSet candidates) {
+        if (!ParallelMapper.inParallelMapper() || candidates.length() <= CHUNK_SIZE) {
+            return expression.getMatchingIssues(model, index, candidates, info);
+        }
+
+        List<ForkJoinTask<BitSet>> chunks = new ArrayList<>();
+        for (int start = 0; start < candidates.length(); start += CHUNK_SIZE) {
+            BitSet chunk = (BitSet) candidates.clone();
+            chunk.clear(0, start);
+            chunk.clear(Math.min(start + CHUNK_SIZE, candidates.length()), candidates.length());
+            if (!chunk.isEmpty()) {
+                chunks.add(ForkJoinTask.adapt(() -> expression.getMatchingIssues(model, index, chunk, info)));
+            }
+        }
+        ForkJoinTask.invokeAll(chunks);
+
+        BitSet result = new BitSet();
+        chunks.forEach(chunk -> result.or(chunk.join()));
+        return result;
+    }
+}
@@ -1,11 +1,13 @@
 package filter.expression;
 
 import backend.interfaces.IModel;
+import backend.resource.IssueIndex;
 import backend.resource.TurboIssue;
 import filter.MetaQualifierInfo;
 import filter.QualifierApplicationException;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.function.Function;
@@ -56,6 +58,13 @@ public class Conjunction implements FilterExpression {
                 && right.isSatisfiedBy(model, issue, info);
     }
 
+    @Override
+    public BitSet getMatchingIssues(IModel model, IssueIndex index, BitSet candidates, MetaQualifierInfo info) {
+        // The right operand only needs to consider what the left operand let through
+        BitSet leftMatches = left.getMatchingIssues(model, index, candidates, info);
+        return right.getMatchingIssues(model, index, leftMatches, info);
+    }
+
     private boolean containsDuplicateQualifierTypes() {
         List<QualifierType> nonLabelQualifierTypes = getQualifierTypes().stream()
             .filter(pn -> !pn.equals(QualifierType.LABEL))
@@ -1,11 +1,13 @@
 package filter.expression;
 
 import backend.interfaces.IModel;
+import backend.resource.IssueIndex;
 import backend.resource.TurboIssue;
 import filter.MetaQualifierInfo;
 import filter.QualifierApplicationException;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -53,6 +55,16 @@ public class Disjunction implements FilterExpression {
                 || right.isSatisfiedBy(model, issue, info);
     }
 
+    @Override
+    public BitSet getMatchingIssues(IModel model, IssueIndex index, BitSet candidates, MetaQualifierInfo info) {
+        // The right operand only needs to consider what the left operand rejected
+        BitSet result = left.getMatchingIssues(model, index, candidates, info);
+        BitSet remaining = (BitSet) candidates.clone();
+        remaining.andNot(result);
+        result.or(right.getMatchingIssues(model, index, remaining, info));
+        return result;
+    }
+
     @Override
     public boolean canBeAppliedToIssue() {
         return false;
@@ -1,10 +1,12 @@
 package filter.expression;
 
 import backend.interfaces.IModel;
+import backend.resource.IssueIndex;
 import backend.resource.TurboIssue;
 import filter.MetaQualifierInfo;
 import filter.QualifierApplicationException;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -16,6 +18,12 @@ public interface FilterExpression {
 
     boolean isSatisfiedBy(IModel model, TurboIssue issue, MetaQualifierInfo info);
 
+    // Determines which of the candidate issues (positions in the index) satisfy this
+    // filter expression, answering from the index where possible. Equivalent to testing
+    // each candidate with isSatisfiedBy. The candidate set is not modified.
+
+    BitSet getMatchingIssues(IModel model, IssueIndex index, BitSet candidates, MetaQualifierInfo info);
+
     // Filter expressions may only be applied if they contain no ambiguity
     // => they must contain only qualifiers or conjunctions thereof. Disjunctions
     // and negations can't be interpreted in order to be applied.
@@ -0,0 +1,110 @@
+package filter.expression;
+
+import backend.resource.TurboIssue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A comparator of issues by a tuple of keys, one for each sort key, which are looked up from an issue
+ * in advance.
+ *
+ * Sorting many issues should look their keys up once each with {@link #keyOf}, then compare them with
+ * {@link #compareKeys}, which only compares values. Comparing issues directly looks their keys up on
+ * every comparison. Instances are immutable, but keys looked up from a model are only comparable with
+ * keys looked up from a model with the same labels and milestones.
+ */
+public final class KeyedIssueComparator implements Comparator<TurboIssue> {
+
+    private final List<KeyComparator<?>> keyComparators;
+
+    private KeyedIssueComparator(List<KeyComparator<?>> keyComparators) {
+        this.keyComparators = keyComparators;
+    }
+
+    /**
+     * @param keyExtractor looks up a key from an issue, which may be null
+     * @param keyComparator compares keys, including nulls if there may be any
+     */
+    public static <K> KeyedIssueComparator comparing(Function<TurboIssue, K> keyExtractor,
+                                                     Comparator<? super K> keyComparator) {
+        return new KeyedIssueComparator(
+            Collections.singletonList(new KeyComparator<>(keyExtractor, keyComparator::compare)));
+    }
+
+    /**
+     * @return a keyed version of the given comparator, whose key is the issue itself if it is
+     * not already keyed
+     */
+    public static KeyedIssueComparator of(Comparator<TurboIssue> comparator) {
+        if (comparator instanceof KeyedIssueComparator) {
+            return (KeyedIssueComparator) comparator;
+        }
+        return comparing(issue -> issue, comparator);
+    }
+
+    /**
+     * @return a comparator by the keys of each of the given comparators in turn. With no comparators,
+     * all issues are equal.
+     */
+    public static KeyedIssueComparator compound(List<KeyedIssueComparator> comparators) {
+        List<KeyComparator<?>> keyComparators = new ArrayList<>();
+        comparators.forEach(comparator -> keyComparators.addAll(comparator.keyComparators));
+        return new KeyedIssueComparator(keyComparators);
+    }
+
+    public Object[] keyOf(TurboIssue issue) {
+        Object[] key = new Object[keyComparators.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = keyComparators.get(i).keyExtractor.apply(issue);
+        }
+        return key;
+    }
+
+    public int compareKeys(Object[] a, Object[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int result = keyComparators.get(i).compare(a[i], b[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int compare(TurboIssue a, TurboIssue b) {
+        return compareKeys(keyOf(a), keyOf(b));
+    }
+
+    /**
+     * Reversing each key reverses the order of the tuples they form.
+     */
+    @Override
+    public KeyedIssueComparator reversed() {
+        List<KeyComparator<?>> reversed = new ArrayList<>();
+        keyComparators.forEach(keyComparator -> reversed.add(keyComparator.reversed()));
+        return new KeyedIssueComparator(reversed);
+    }
+
+    private static final class KeyComparator<K> {
+        private final Function<TurboIssue, K> keyExtractor;
+        private final Comparator<K> comparator;
+
+        KeyComparator(Function<TurboIssue, K> keyExtractor, Comparator<K> comparator) {
+            this.keyExtractor = keyExtractor;
+            this.comparator = comparator;
+        }
+
+        @SuppressWarnings("unchecked")
+        int compare(Object a, Object b) {
+            return comparator.compare((K) a, (K) b);
+        }
+
+        KeyComparator<K> reversed() {
+            return new KeyComparator<>(keyExtractor, comparator.reversed());
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package filter.expression;
 
 import backend.interfaces.IModel;
+import backend.resource.IssueIndex;
 import backend.resource.TurboIssue;
 import filter.MetaQualifierInfo;
 import filter.QualifierApplicationException;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -45,6 +47,13 @@ public class Negation implements FilterExpression {
         return !expr.isSatisfiedBy(model, issue, info);
     }
 
+    @Override
+    public BitSet getMatchingIssues(IModel model, IssueIndex index, BitSet candidates, MetaQualifierInfo info) {
+        BitSet result = (BitSet) candidates.clone();
+        result.andNot(expr.getMatchingIssues(model, index, candidates, info));
+        return result;
+    }
+
     @Override
     public boolean canBeAppliedToIssue() {
         return false;
@@ -30,6 +30,8 @@ public class Qualifier implements FilterExpression {
     // Only one of these will be present at a time
     private Optional<DateRange> dateRange = Optional.empty();
     private Optional<String> content = Optional.empty();
+    // Lower-cased content, computed once as most qualifiers match case-insensitively
+    private Optional<String> lowerCaseContent = Optional.empty();
     private Optional<LocalDate> date = Optional.empty();
     private Optional<NumberRange> numberRange = Optional.empty();
     private Optional<Integer> number = Optional.empty();
@@ -44,6 +46,7 @@ public class Qualifier implements FilterExpression {
             this.date = other.getDate();
         } else if (other.getContent().isPresent()) {
             this.content = other.getContent();
+            this.lowerCaseContent = other.lowerCaseContent;
         } else if (other.getNumberRange().isPresent()) {
             this.numberRange = other.getNumberRange();
         } else if (other.getNumber().isPresent()) {
@@ -58,6 +61,7 @@ public class Qualifier implements FilterExpression {
     public Qualifier(QualifierType type, String content) {
         this.type = type;
         this.content = Optional.of(content);
+        this.lowerCaseContent = Optional.of(content.toLowerCase());
     }
 
     public Qualifier(QualifierType type, NumberRange numberRange) {
@@ -174,24 +178,10 @@ public class Qualifier implements FilterExpression {
      * Helper function for testing a filter expression against an issue.
      * Ensures that meta-qualifiers are taken care of.
      * Should always be used over isSatisfiedBy.
+     * To test many issues against the same expression, compile it once with {@link CompiledFilter#compile}.
      */
     public static boolean process(IModel model, FilterExpression expr, TurboIssue issue) {
-        FilterExpression exprWithNormalQualifiers = expr.filter(Qualifier::shouldNotBeStripped);
-        List<Qualifier> metaQualifiers = expr.find(Qualifier::isMetaQualifier);
-
-        // Preprocessing for repo qualifier
-        boolean containsRepoQualifier = metaQualifiers.stream()
-                .map(Qualifier::getType)
-                .collect(Collectors.toList())
-                .contains(QualifierType.REPO);
-
-        if (!containsRepoQualifier) {
-            exprWithNormalQualifiers = new Conjunction(
-                new Qualifier(QualifierType.REPO, model.getDefaultRepo()),
-                exprWithNormalQualifiers);
-        }
-
-        return exprWithNormalQualifiers.isSatisfiedBy(model, issue, new MetaQualifierInfo(metaQualifiers));
+        return CompiledFilter.compile(model, expr).isSatisfiedBy(issue);
     }
 
     /**
@@ -308,7 +298,11 @@ public class Qualifier implements FilterExpression {
 
     private static LocalDateTime currentTime = null;
 
-    private static LocalDateTime getCurrentTime() {
+    /**
+     * The time against which time-related qualifiers are evaluated. Filters take a snapshot of it
+     * when they are compiled, so all issues are evaluated against the same time.
+     */
+    public static LocalDateTime getCurrentTime() {
         if (currentTime == null) {
             return LocalDateTime.now();
         } else {
@@ -348,9 +342,9 @@ public class Qualifier implements FilterExpression {
         case KEYWORD:
             return keywordSatisfies(issue, info);
         case TITLE:
-            return titleSatisfies(issue);
+            return titleSatisfies(issue, info);
         case DESCRIPTION:
-            return bodySatisfies(issue);
+            return bodySatisfies(issue, info);
         case MILESTONE:
             return milestoneSatisfies(model, issue);
         case LABEL:
@@ -374,7 +368,7 @@ public class Qualifier implements FilterExpression {
         case CREATED:
             return satisfiesCreationDate(issue);
         case UPDATED:
-            return satisfiesUpdatedHours(issue);
+            return satisfiesUpdatedHours(issue, info);
         case REPO:
             return satisfiesRepo(issue);
         default:
@@ -383,6 +377,190 @@ public class Qualifier implements FilterExpression {
         }
     }
 
+    @Override
+    public BitSet getMatchingIssues(IModel model, IssueIndex index, BitSet candidates, MetaQualifierInfo info) {
+        assert type != null;
+
+        // As with isSatisfiedBy, nothing is evaluated (and no semantic errors surface) without candidates
+        if (candidates.isEmpty() || isEmpty()) return (BitSet) candidates.clone();
+
+        if (isFalse()) return new BitSet();
+
+        Optional<BitSet> indexedMatches = getIndexedMatches(index, candidates, info);
+        if (!indexedMatches.isPresent()) {
+            // Not covered by the index, e.g. text and date qualifiers: test candidates one by one
+            BitSet result = new BitSet();
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (isSatisfiedBy(model, index.getIssue(i), info)) {
+                    result.set(i);
+                }
+            }
+            return result;
+        }
+
+        BitSet result = indexedMatches.get();
+        result.and(candidates);
+        return result;
+    }
+
+    /**
+     * Looks up the issues satisfying this qualifier in the index. Mirrors the semantics of the
+     * corresponding *Satisfies methods.
+     *
+     * @return the matching positions, or empty if this qualifier cannot be answered from the index
+     */
+    private Optional<BitSet> getIndexedMatches(IssueIndex index, BitSet candidates, MetaQualifierInfo info) {
+        switch (type) {
+        case KEYWORD:
+            if (info.getIn().isPresent()) {
+                return Optional.of(indexedTextMatches(index, candidates, info.getIn().get(), info.getMatch()));
+            }
+            // Descriptions are only searched for issues whose titles do not match
+            BitSet inText = indexedTextMatches(index, candidates, "title", info.getMatch());
+            BitSet remaining = (BitSet) candidates.clone();
+            remaining.andNot(inText);
+            inText.or(indexedTextMatches(index, remaining, "description", info.getMatch()));
+            return Optional.of(inText);
+        case TITLE:
+            return Optional.of(indexedTextMatches(index, candidates, "title", info.getMatch()));
+        case DESCRIPTION:
+            return Optional.of(indexedTextMatches(index, candidates, "description", info.getMatch()));
+        case LABEL:
+            return Optional.of(content.isPresent()
+                ? index.withLabelMatching(label -> labelMatches(content.get(), label))
+                : new BitSet());
+        case MILESTONE:
+            return Optional.of(content.isPresent()
+                ? index.withMilestoneMatching(containsLowerCaseContent())
+                : new BitSet());
+        case AUTHOR:
+            return Optional.of(content.isPresent()
+                ? index.withAuthorMatching(containsLowerCaseContent())
+                : new BitSet());
+        case ASSIGNEE:
+            return Optional.of(content.isPresent()
+                ? index.withAssigneeMatching(containsLowerCaseContent())
+                : new BitSet());
+        case INVOLVES:
+            if (!content.isPresent()) return Optional.of(new BitSet());
+            BitSet involved = index.withAuthorMatching(containsLowerCaseContent());
+            involved.or(index.withAssigneeMatching(containsLowerCaseContent()));
+            return Optional.of(involved);
+        case TYPE:
+            return Optional.of(indexedTypeMatches(index));
+        case STATE:
+            return Optional.of(indexedStateMatches(index));
+        case HAS:
+            return Optional.of(indexedHasMatches(index));
+        case NO:
+            if (!content.isPresent()) return Optional.of(new BitSet());
+            BitSet without = index.all();
+            without.andNot(indexedHasMatches(index));
+            return Optional.of(without);
+        case IS:
+            return indexedIsMatches(index);
+        case REPO:
+            if (!content.isPresent()) throw new SemanticException(type);
+            return Optional.of(index.withRepo(content.get()));
+        default:
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return a predicate over lower-cased values testing if they contain the content of this qualifier
+     */
+    private Predicate<String> containsLowerCaseContent() {
+        String needle = lowerCaseContent.get();
+        return value -> value.contains(needle);
+    }
+
+    private BitSet indexedTextMatches(IssueIndex index, BitSet candidates, String in, TextMatch match) {
+        switch (in) {
+        case "title":
+            return content.isPresent()
+                ? index.withTitleMatching(lowerCaseContent.get(), match, candidates)
+                : new BitSet();
+        case "description":
+            return content.isPresent()
+                ? index.withDescriptionMatching(lowerCaseContent.get(), match, candidates)
+                : new BitSet();
+        default:
+            throw new SemanticException(QualifierType.IN);
+        }
+    }
+
+    private BitSet indexedTypeMatches(IssueIndex index) {
+        if (!content.isPresent()) throw new SemanticException(type);
+        switch (expandKeywordAliases(lowerCaseContent.get())) {
+        case "issue":
+            BitSet issues = index.all();
+            issues.andNot(index.pullRequests());
+            return issues;
+        case "pr":
+            return index.pullRequests();
+        default:
+            throw new SemanticException(type);
+        }
+    }
+
+    private BitSet indexedStateMatches(IssueIndex index) {
+        if (!content.isPresent()) throw new SemanticException(type);
+
+        String content = expandKeywordAliases(lowerCaseContent.get());
+        if (content.contains("open")) {
+            return index.open();
+        } else if (content.contains("closed")) {
+            BitSet closed = index.all();
+            closed.andNot(index.open());
+            return closed;
+        } else {
+            throw new SemanticException(type);
+        }
+    }
+
+    private BitSet indexedHasMatches(IssueIndex index) {
+        if (!content.isPresent()) throw new SemanticException(type);
+
+        switch (expandKeywordAliases(content.get())) {
+        case "label":
+            return index.withLabels();
+        case "milestone":
+            return index.withMilestone();
+        case "assignee":
+            return index.withAssignee();
+        default:
+            throw new SemanticException(type);
+        }
+    }
+
+    private Optional<BitSet> indexedIsMatches(IssueIndex index) {
+        if (!content.isPresent()) throw new SemanticException(type);
+
+        switch (expandKeywordAliases(content.get())) {
+        case "open":
+        case "closed":
+            return Optional.of(indexedStateMatches(index));
+        case "pr":
+        case "issue":
+            return Optional.of(indexedTypeMatches(index));
+        case "merged":
+            BitSet merged = index.pullRequests();
+            merged.andNot(index.open());
+            return Optional.of(merged);
+        case "unmerged":
+            BitSet unmerged = index.pullRequests();
+            unmerged.and(index.open());
+            return Optional.of(unmerged);
+        case "read":
+        case "unread":
+            // Read state is transient and changes without the issue changing, so it is not indexed
+            return Optional.empty();
+        default:
+            throw new SemanticException(type);
+        }
+    }
+
     @Override
     public void applyTo(TurboIssue issue, IModel model) throws QualifierApplicationException {
         assert type != null && content != null;
@@ -536,13 +714,14 @@ public class Qualifier implements FilterExpression {
                 type.equals(other.type);
     }
 
-    private static boolean shouldNotBeStripped(Qualifier q) {
+    static boolean shouldNotBeStripped(Qualifier q) {
         return !shouldBeStripped(q);
     }
 
     private static boolean shouldBeStripped(Qualifier q) {
         switch (q.getType()) {
         case IN:
+        case MATCH:
         case SORT:
         case COUNT:
             return true;
@@ -555,6 +734,7 @@ public class Qualifier implements FilterExpression {
         switch (q.getType()) {
         case SORT:
         case IN:
+        case MATCH:
         case REPO:
         case COUNT:
             return true;
@@ -585,172 +765,155 @@ public class Qualifier implements FilterExpression {
         return !expr.find(Qualifier::isUpdatedQualifier).isEmpty();
     }
 
-    public Comparator<TurboIssue> getCompoundSortComparator(IModel model, boolean isSortableByNonSelfUpdates) {
-        if (sortKeys.isEmpty()) {
-            return (a, b) -> 0;
+    /**
+     * Determines if the issues selected by a filter expression, or their order, may change without any
+     * issue or repo resource being replaced. This is the case for expressions depending on the current
+     * time, on read state, or on issue metadata.
+     */
+    public static boolean dependsOnTransientState(FilterExpression expr) {
+        return hasUpdatedQualifier(expr) || !expr.find(Qualifier::isTransientStateQualifier).isEmpty();
+    }
+
+    private static boolean isTransientStateQualifier(Qualifier q) {
+        switch (q.getType()) {
+        case IS:
+            return q.getContent()
+                .map(Qualifier::expandKeywordAliases)
+                .filter(content -> content.equals("read") || content.equals("unread"))
+                .isPresent();
+        case SORT:
+            return q.sortKeys.stream()
+                .anyMatch(sortKey -> expandKeywordAliases(sortKey.key).equals("nonSelfUpdate"));
+        default:
+            return false;
         }
-        return (a, b) -> {
-            for (SortKey key : sortKeys) {
-                Comparator<TurboIssue> comparator =
-                        getSortComparator(model, key.key, key.inverted, isSortableByNonSelfUpdates);
-                int result = comparator.compare(a, b);
-                if (result != 0) {
-                    return result;
-                }
-            }
-            return 0;
-        };
     }
 
-    public static Comparator<TurboIssue> getSortComparator(IModel model,
-                                                           String key,
-                                                           boolean inverted,
-                                                           boolean isSortableByNonSelfUpdates) {
-        Comparator<TurboIssue> comparator = (a, b) -> 0;
+    /**
+     * @return a comparator by each sort key of this qualifier in turn. Each key is looked up
+     * from the model when the comparator is constructed, and not on each comparison.
+     */
+    public KeyedIssueComparator getCompoundSortComparator(IModel model, boolean isSortableByNonSelfUpdates) {
+        return KeyedIssueComparator.compound(sortKeys.stream()
+            .map(key -> getSortComparator(model, key.key, key.inverted, isSortableByNonSelfUpdates))
+            .collect(Collectors.toList()));
+    }
 
-        boolean isLabelGroup = false;
+    public static KeyedIssueComparator getSortComparator(IModel model,
+                                                         String key,
+                                                         boolean inverted,
+                                                         boolean isSortableByNonSelfUpdates) {
+        KeyedIssueComparator comparator;
 
         switch (expandKeywordAliases(key)) {
         case "comments":
-            comparator = (a, b) -> a.getCommentCount() - b.getCommentCount();
+            comparator = KeyedIssueComparator.comparing(TurboIssue::getCommentCount, Integer::compare);
             break;
         case "repo":
-            comparator = (a, b) -> a.getRepoId().compareTo(b.getRepoId());
+            comparator = KeyedIssueComparator.comparing(TurboIssue::getRepoId, String::compareTo);
             break;
         case "updated":
         case "date":
-            comparator = (a, b) -> a.getUpdatedAt().compareTo(b.getUpdatedAt());
+            comparator = KeyedIssueComparator.comparing(TurboIssue::getUpdatedAt, LocalDateTime::compareTo);
             break;
         case "nonSelfUpdate":
             if (isSortableByNonSelfUpdates) {
-                comparator = (a, b) ->
-                    a.getMetadata().getNonSelfUpdatedAt().compareTo(b.getMetadata().getNonSelfUpdatedAt());
+                comparator = KeyedIssueComparator.comparing(
+                    issue -> issue.getMetadata().getNonSelfUpdatedAt(), LocalDateTime::compareTo);
             } else {
-                comparator = (a, b) -> a.getUpdatedAt().compareTo(b.getUpdatedAt());
+                comparator = KeyedIssueComparator.comparing(TurboIssue::getUpdatedAt, LocalDateTime::compareTo);
             }
             break;
         case "assignee":
         case "as":
-            comparator = (a, b) -> {
-                Optional<String> aAssignee = a.getAssignee();
-                Optional<String> bAssignee = b.getAssignee();
-
-                if (!aAssignee.isPresent() && !bAssignee.isPresent()) {
-                    return 0;
-                } else if (!aAssignee.isPresent()) {
-                    return 1;
-                } else if (!bAssignee.isPresent()) {
-                    return -1;
-                } else {
-                    return aAssignee.get().compareTo(bAssignee.get());
-                }
-            };
+            // Issues without assignees go last
+            comparator = KeyedIssueComparator.comparing(
+                issue -> issue.getAssignee().orElse(null),
+                Comparator.nullsLast(Comparator.<String>naturalOrder()));
             break;
         case "milestone":
         case "m":
-            comparator = (a, b) -> {
-                Optional<TurboMilestone> aMilestone = model.getMilestoneOfIssue(a);
-                Optional<TurboMilestone> bMilestone = model.getMilestoneOfIssue(b);
-
-                if (!aMilestone.isPresent() && !bMilestone.isPresent()) {
-                    return 0;
-                } else if (!aMilestone.isPresent()) {
-                    return 1;
-                } else if (!bMilestone.isPresent()) {
-                    return -1;
-                } else {
-                    Optional<LocalDate> aDueDate = aMilestone.get().getDueDate();
-                    Optional<LocalDate> bDueDate = bMilestone.get().getDueDate();
-
-                    if (!aDueDate.isPresent() && !bDueDate.isPresent()) {
-                        return 0;
-                    } else if (!aDueDate.isPresent()) {
-                        return 1;
-                    } else if (!bDueDate.isPresent()) {
-                        return -1;
-                    } else {
-                        return -(TurboMilestone.getDueDateComparator()
-                            .compare(aMilestone.get(), bMilestone.get()));
-                    }
-                }
-            };
+            // Issues without milestones go last, then those whose milestones have no due date,
+            // and the rest go latest due date first
+            comparator = KeyedIssueComparator.comparing(
+                issue -> model.getMilestoneOfIssue(issue).map(TurboMilestone::getDueDate).orElse(null),
+                Comparator.nullsLast(Comparator.comparing(
+                    (Optional<LocalDate> dueDate) -> dueDate.orElse(null),
+                    Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()))));
             break;
         case "id":
-            comparator = (a, b) -> a.getId() - b.getId();
+            comparator = KeyedIssueComparator.comparing(TurboIssue::getId, Integer::compare);
             break;
         case "state":
         case "status":
         case "s":
-            comparator = (a, b) -> Boolean.compare(b.isOpen(), a.isOpen());
+            // Open issues go first
+            comparator = KeyedIssueComparator.comparing(TurboIssue::isOpen, Comparator.<Boolean>reverseOrder());
             break;
         default:
-            // Doesn't match anything; assume it's a label group
-            isLabelGroup = true;
-            break;
-        }
-
-        if (isLabelGroup) {
-            // Has a different notion of inversion
+            // Doesn't match anything; assume it's a label group, which has a different notion of inversion
             return getLabelGroupComparator(model, key, inverted);
-        } else {
-            // Use default behaviour for inverting
-            if (!inverted) {
-                return comparator;
-            } else {
-                final Comparator<TurboIssue> finalComparator = comparator;
-                return (a, b) -> -finalComparator.compare(a, b);
-            }
         }
+
+        // Use default behaviour for inverting
+        return inverted ? comparator.reversed() : comparator;
     }
 
-    public static Comparator<TurboIssue> getLabelGroupComparator(IModel model, String key, boolean inverted) {
+    /**
+     * Compares issues by their labels in the given group. Issues with no such labels go last; the rest
+     * are ordered by how many labels in the group they have, then lexicographically by those labels
+     * in order. Inverting reverses the latter two.
+     *
+     * Labels are compared by name, as {@link TurboLabel#compareTo} does. Keys hold the sorted names of
+     * an issue's labels in the group.
+     */
+    public static KeyedIssueComparator getLabelGroupComparator(IModel model, String key, boolean inverted) {
         // Strip trailing ., if any
         final String group = key.replaceAll("\\.$", "");
-        return (a, b) -> {
-
-            // Matches labels belong to the given group
-            Predicate<TurboLabel> sameGroup = l ->
-                l.isInGroup() && l.getGroupName().equals(group);
 
-            Comparator<TurboLabel> labelComparator = (x, y) -> x.compareTo(y);
+        // Matches labels belong to the given group
+        Predicate<TurboLabel> sameGroup = l ->
+            l.isInGroup() && l.getGroupName().equals(group);
 
-            List<TurboLabel> aLabels = model.getLabelsOfIssue(a, sameGroup);
-            List<TurboLabel> bLabels = model.getLabelsOfIssue(b, sameGroup);
-            Collections.sort(aLabels, labelComparator);
-            Collections.sort(bLabels, labelComparator);
+        // The names of an issue's labels in the group, in order
+        Function<TurboIssue, String[]> labelNames = issue -> model.getLabelsOfIssue(issue, sameGroup).stream()
+            .map(TurboLabel::getFullName)
+            .sorted()
+            .toArray(String[]::new);
 
+        return KeyedIssueComparator.comparing(labelNames, (aLabels, bLabels) -> {
             // Put empty lists at the back
-            if (aLabels.isEmpty() && bLabels.isEmpty()) {
+            if (aLabels.length == 0 && bLabels.length == 0) {
                 return 0;
-            } else if (aLabels.isEmpty()) {
+            } else if (aLabels.length == 0) {
                 // a is larger
                 return 1;
-            } else if (bLabels.isEmpty()) {
+            } else if (bLabels.length == 0) {
                 // b is larger
                 return -1;
             }
 
             // Compare lengths
             int result = !inverted
-                ? aLabels.size() - bLabels.size()
-                : bLabels.size() - aLabels.size();
+                ? aLabels.length - bLabels.length
+                : bLabels.length - aLabels.length;
 
             if (result != 0) {
                 return result;
             }
 
             // Lexicographic label comparison
-            assert aLabels.size() == bLabels.size();
-            for (int i = 0; i < aLabels.size(); i++) {
+            assert aLabels.length == bLabels.length;
+            for (int i = 0; i < aLabels.length; i++) {
                 result = !inverted
-                    ? labelComparator.compare(aLabels.get(i), bLabels.get(i))
-                    : labelComparator.compare(bLabels.get(i), aLabels.get(i));
+                    ? aLabels[i].compareTo(bLabels[i])
+                    : bLabels[i].compareTo(aLabels[i]);
                 if (result != 0) {
                     return result;
                 }
             }
             return 0;
-        };
+        });
     }
 
     private boolean idSatisfies(TurboIssue issue) {
@@ -762,7 +925,7 @@ public class Qualifier implements FilterExpression {
         throw new SemanticException(type);
     }
 
-    private boolean satisfiesUpdatedHours(TurboIssue issue) {
+    private boolean satisfiesUpdatedHours(TurboIssue issue, MetaQualifierInfo info) {
         NumberRange updatedRange;
 
         if (numberRange.isPresent()) {
@@ -774,7 +937,7 @@ public class Qualifier implements FilterExpression {
         }
 
         LocalDateTime dateOfUpdate = issue.getUpdatedAt();
-        int hoursSinceUpdate = Utility.safeLongToInt(dateOfUpdate.until(getCurrentTime(), ChronoUnit.HOURS));
+        int hoursSinceUpdate = Utility.safeLongToInt(dateOfUpdate.until(info.getCurrentTime(), ChronoUnit.HOURS));
         return updatedRange.encloses(hoursSinceUpdate);
     }
 
@@ -842,7 +1005,7 @@ public class Qualifier implements FilterExpression {
     private boolean stateSatisfies(TurboIssue issue) {
         if (!content.isPresent()) throw new SemanticException(type);
 
-        String content = expandKeywordAliases(this.content.get().toLowerCase());
+        String content = expandKeywordAliases(lowerCaseContent.get());
         if (content.contains("open")) {
             return issue.isOpen();
         } else if (content.contains("closed")) {
@@ -858,7 +1021,7 @@ public class Qualifier implements FilterExpression {
 
         if (!assignee.isPresent()) return false;
 
-        String content = this.content.get().toLowerCase();
+        String content = lowerCaseContent.get();
         String login = assignee.get().getLoginName() == null ? "" : assignee.get().getLoginName().toLowerCase();
         String name = assignee.get().getRealName() == null ? "" : assignee.get().getRealName().toLowerCase();
 
@@ -870,7 +1033,7 @@ public class Qualifier implements FilterExpression {
 
         String creator = issue.getCreator();
 
-        return creator.toLowerCase().contains(content.get().toLowerCase());
+        return creator.toLowerCase().contains(lowerCaseContent.get());
     }
 
     private boolean involvesSatisfies(IModel model, TurboIssue issue) {
@@ -932,7 +1095,7 @@ public class Qualifier implements FilterExpression {
 
         if (!milestone.isPresent()) return false;
 
-        String contents = content.get().toLowerCase();
+        String contents = lowerCaseContent.get();
         String title = milestone.get().getTitle().toLowerCase();
 
         return title.contains(contents);
@@ -941,33 +1104,32 @@ public class Qualifier implements FilterExpression {
     private boolean keywordSatisfies(TurboIssue issue, MetaQualifierInfo info) {
 
         if (info.getIn().isPresent()) {
-            switch (expandKeywordAliases(info.getIn().get())) {
+            switch (info.getIn().get()) {
             case "title":
-                return titleSatisfies(issue);
+                return titleSatisfies(issue, info);
             case "description":
-                return bodySatisfies(issue);
+                return bodySatisfies(issue, info);
             default:
                 throw new SemanticException(QualifierType.IN);
             }
         } else {
-            return titleSatisfies(issue) || bodySatisfies(issue);
+            return titleSatisfies(issue, info) || bodySatisfies(issue, info);
         }
     }
 
-    private boolean bodySatisfies(TurboIssue issue) {
+    private boolean bodySatisfies(TurboIssue issue, MetaQualifierInfo info) {
         if (!content.isPresent()) return false;
-        return issue.getDescription().toLowerCase().contains(content.get().toLowerCase());
+        return info.getMatch().matches(issue.getDescription().toLowerCase(), lowerCaseContent.get());
     }
 
-    private boolean titleSatisfies(TurboIssue issue) {
+    private boolean titleSatisfies(TurboIssue issue, MetaQualifierInfo info) {
         if (!content.isPresent()) return false;
-        return issue.getTitle().toLowerCase().contains(content.get().toLowerCase());
+        return info.getMatch().matches(issue.getTitle().toLowerCase(), lowerCaseContent.get());
     }
 
     private boolean typeSatisfies(TurboIssue issue) {
         if (!content.isPresent()) throw new SemanticException(type);
-        String content = this.content.get().toLowerCase();
-        switch (expandKeywordAliases(content)) {
+        switch (expandKeywordAliases(lowerCaseContent.get())) {
             case "issue":
                 return !issue.isPullRequest();
             case "pr":
@@ -1157,17 +1319,28 @@ public class Qualifier implements FilterExpression {
      * @return The valid count value in the qualifier or the issueList.size() by default
      */
     public static int determineCount(List<TurboIssue> issueList, FilterExpression filterExpr) {
+        return determineCount(filterExpr).orElse(issueList.size());
+    }
+
+    /**
+     * Determines the count value to be taken from the count qualifier. Throw a ParseException if count
+     * qualifier is not valid.
+     *
+     * @param filterExpr The filter expression of the particular panel.
+     * @return The valid count value in the qualifier, or empty if there is no count qualifier
+     */
+    public static Optional<Integer> determineCount(FilterExpression filterExpr) {
         List<Qualifier> countQualifiers = filterExpr.find(Qualifier::isMetaQualifier).stream()
                 .filter(q -> q.getType() == QualifierType.COUNT)
                 .collect(Collectors.toList());
         if (countQualifiers.isEmpty()) {
-            return issueList.size();
+            return Optional.empty();
         } else if (countQualifiers.size() > 1) {
             throw new ParseException("More than one count qualifier");
         } else if (!countQualifiers.get(0).getNumber().isPresent()) {
             throw new ParseException("Count qualifier should be a number greater than or equal to 0");
         } else {
-            return countQualifiers.get(0).getNumber().get();
+            return countQualifiers.get(0).getNumber();
         }
     }
 }
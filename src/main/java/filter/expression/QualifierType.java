@@ -12,7 +12,7 @@ public enum QualifierType {
     KEYWORD, // A special value that indicates a search term
 
     ASSIGNEE, AUTHOR, CREATED, COUNT, DATE, DESCRIPTION, HAS, ID, IN,
-    INVOLVES, IS, LABEL, LABELS, MILESTONE, MILESTONES, NO,
+    INVOLVES, IS, LABEL, LABELS, MATCH, MILESTONE, MILESTONES, NO,
     REPO, SORT, STATE, TITLE, TYPE, UPDATED;
 
     private static final Map<String, QualifierType> ALIASES = initialiseQualifierAliases();
@@ -67,7 +67,7 @@ public enum QualifierType {
 
         defaultCompletions.addAll(Arrays.asList("closed", "open", "issue", "pr",
             "pullrequest", "read", "unread",  "merged", "unmerged", "comments",
-            "nonSelfUpdate"));
+            "nonSelfUpdate", "word", "prefix"));
 
         return Collections.unmodifiableSet(defaultCompletions);
     }
@@ -127,6 +127,8 @@ public enum QualifierType {
                 return "\"label\", \"milestone\", or \"assignee\"";
             case IN:
                 return "\"title\" or \"body\"";
+            case MATCH:
+                return "\"word\" or \"prefix\"";
             case TYPE:
                 return "\"issue\" or \"pr\"";
             case CREATED:
@@ -18,7 +18,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
 import java.util.Map;
+import java.util.Optional;
+
+import static org.eclipse.egit.github.core.client.IGitHubConstants.HEADER_LINK;
 
 public class GitHubClientEx extends GitHubClient {
     private static final Logger logger = HTLog.get(GitHubClientEx.class);
@@ -28,6 +33,16 @@ public class GitHubClientEx extends GitHubClient {
     // Request method for HEAD API call
     protected static final String METHOD_HEAD = "HEAD";
 
+    // The remaining rate limit below which parallel downloads slow down to one request at a time
+    public static final int LOW_RATE_LIMIT = 200;
+
+    // Shared by clients which are not given a transport of their own, so that they share its
+    // connections and limits
+    private static final HttpTransport DEFAULT_TRANSPORT = new PooledHttpTransport();
+
+    private Optional<HttpResponseCache> responseCache = Optional.empty();
+    private HttpTransport transport = DEFAULT_TRANSPORT;
+
     public GitHubClientEx() {
         super();
     }
@@ -37,11 +52,138 @@ public class GitHubClientEx extends GitHubClient {
     }
 
     /**
-     * Extends superclass method with connection timeout parameters.
+     * Decides whether a worker of a parallel download goes on to its next request. Workers other than
+     * the first stop once the remaining rate limit gets low, so that a large download does not use up
+     * what the rest of the application needs.
+     *
+     * @param remainingRequests the remaining rate limit, or a negative number if it is not known yet
+     */
+    public static boolean canWorkerContinue(boolean isFirstWorker, int remainingRequests) {
+        return isFirstWorker || remainingRequests < 0 || remainingRequests >= LOW_RATE_LIMIT;
+    }
+
+    /**
+     * Makes GET requests conditional on the validators of the responses kept in the given cache,
+     * which then answers them when they are not modified. Responses which are not modified do not
+     * count towards the API rate limit.
+     *
+     * @param responseCache
+     * @return this client
+     */
+    public GitHubClientEx setResponseCache(HttpResponseCache responseCache) {
+        this.responseCache = Optional.of(responseCache);
+        return this;
+    }
+
+    /**
+     * Sends requests through the given transport instead of the default one.
+     *
+     * @param transport
+     * @return this client
+     */
+    public GitHubClientEx setTransport(HttpTransport transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    /**
+     * Extends superclass method by revalidating responses in the response cache, if there is one.
+     *
+     * @param request
+     * @return response
+     * @throws IOException
+     */
+    @Override
+    public GitHubResponse get(GitHubRequest request) throws IOException {
+        return transport.send(getHost(), () -> {
+            if (!responseCache.isPresent()) {
+                return super.get(request);
+            }
+            return getRevalidated(request, responseCache.get());
+        });
+    }
+
+    private GitHubResponse getRevalidated(GitHubRequest request, HttpResponseCache cache) throws IOException {
+        String uri = request.generateUri();
+        String key = getCacheKey(METHOD_GET, uri);
+        Optional<HttpResponseCache.CachedResponse> cached = cache.get(key);
+
+        HttpURLConnection httpRequest = createGet(uri);
+        String accept = request.getResponseContentType();
+        if (accept != null) {
+            httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
+        }
+        if (cached.isPresent()) {
+            if (cached.get().eTag != null) {
+                httpRequest.setRequestProperty("If-None-Match", cached.get().eTag);
+            }
+            if (cached.get().lastModified != null) {
+                httpRequest.setRequestProperty("If-Modified-Since", cached.get().lastModified);
+            }
+        }
+
+        final int code = httpRequest.getResponseCode();
+        updateRateLimits(httpRequest);
+        if (isOk(code)) {
+            byte[] body;
+            try (InputStream stream = getStream(httpRequest)) {
+                body = IOUtilities.inputStreamToByteArrayOutputStream(stream).toByteArray();
+            }
+            String eTag = httpRequest.getHeaderField("ETag");
+            String lastModified = httpRequest.getHeaderField("Last-Modified");
+            String link = httpRequest.getHeaderField(HEADER_LINK);
+            if (eTag != null || lastModified != null) {
+                cache.put(key, new HttpResponseCache.CachedResponse(eTag, lastModified, link, body));
+            }
+            return new GitHubResponse(httpRequest, getBody(request, new ByteArrayInputStream(body)));
+        } else if (isNotModified(code) && cached.isPresent()) {
+            return new CachedGitHubResponse(httpRequest,
+                getBody(request, new ByteArrayInputStream(cached.get().body)), cached.get().link);
+        } else if (isEmpty(code)) {
+            return new GitHubResponse(httpRequest, null);
+        }
+        throw createException(getStream(httpRequest), code, httpRequest.getResponseMessage());
+    }
+
+    /**
+     * A response answered from the cache. Its page links are those cached with its body, as a 304
+     * response need not repeat the Link header.
+     */
+    private static class CachedGitHubResponse extends GitHubResponse {
+        private final String link;
+
+        CachedGitHubResponse(HttpURLConnection response, Object body, String link) {
+            super(response, body);
+            this.link = link;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HEADER_LINK.equalsIgnoreCase(name) ? link : super.getHeader(name);
+        }
+    }
+
+    /**
+     * Responses differ between users, e.g. in the private repos they include.
+     */
+    private String getCacheKey(String method, String uri) {
+        return method + " " + getUser() + " " + uri;
+    }
+
+    /**
+     * The host requests are sent to, as known to the transport.
+     */
+    private String getHost() {
+        return URI.create(baseUri).getAuthority();
+    }
+
+    /**
+     * Replaces superclass method to open connections through the transport, with connection
+     * timeout parameters.
      */
     @Override
     protected HttpURLConnection createConnection(String uri) throws IOException {
-        HttpURLConnection connection = super.createConnection(uri);
+        HttpURLConnection connection = transport.open(new URL(createUri(uri)));
         connection.setConnectTimeout(CONNECTION_TIMEOUT);
         connection.setReadTimeout(CONNECTION_TIMEOUT);
         return connection;
@@ -71,18 +213,47 @@ public class GitHubClientEx extends GitHubClient {
     public <V> V sendJson(final HttpURLConnection request, final Object params, final Type type)
         throws IOException {
 
-        sendParams(request, params);
-        final int code = request.getResponseCode();
-        updateRateLimits(request);
-        if (isOk(code)) {
-            if (type != null) {
-                return parseJson(getStream(request), type);
-            } else {
-                return null;
+        return transport.send(getHost(), () -> {
+            sendParams(request, params);
+            final int code = request.getResponseCode();
+            updateRateLimits(request);
+            if (isOk(code)) {
+                if (type != null) {
+                    return parseJson(getStream(request), type);
+                } else {
+                    return null;
+                }
             }
-        }
-        if (isEmpty(code)) return null;
-        throw createException(getStream(request), code, request.getResponseMessage());
+            if (isEmpty(code)) return null;
+            throw createException(getStream(request), code, request.getResponseMessage());
+        });
+    }
+
+    /**
+     * Extends superclass method by sending the request through the transport.
+     */
+    @Override
+    public <V> V post(String uri, Object params, Type type) throws IOException {
+        return transport.send(getHost(), () -> super.post(uri, params, type));
+    }
+
+    /**
+     * Extends superclass method by sending the request through the transport.
+     */
+    @Override
+    public <V> V put(String uri, Object params, Type type) throws IOException {
+        return transport.send(getHost(), () -> super.put(uri, params, type));
+    }
+
+    /**
+     * Extends superclass method by sending the request through the transport.
+     */
+    @Override
+    public void delete(String uri, Object params) throws IOException {
+        transport.send(getHost(), () -> {
+            super.delete(uri, params);
+            return null;
+        });
     }
 
     /**
@@ -95,42 +266,83 @@ public class GitHubClientEx extends GitHubClient {
      * @throws IOException
      */
     public GitHubEventsResponse getEvent(GitHubRequest request, String currentETag) throws IOException {
-        HttpURLConnection httpRequest = createGet(request.generateUri());
+        return transport.send(getHost(), () -> {
+            HttpURLConnection httpRequest = createGet(request.generateUri());
+
+            // Headers for the request
+            httpRequest.setRequestProperty("If-None-Match", "\"" + currentETag + "\"");
+            String accept = request.getResponseContentType();
+            if (accept != null) {
+                httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
+            }
+            // We send the request here.
+            final int code = httpRequest.getResponseCode();
+
+            // Then we process the response.
+            updateRateLimits(httpRequest);
+            if (isOk(code)) { // 200 OK
+                String updatedEtag = Utility.stripQuotes(httpRequest.getHeaderField("ETag"));
+
+                // Copy the httpRequest input stream into a byte array
+                ByteArrayOutputStream buffer;
+                try (InputStream reqIS = getStream(httpRequest)) {
+                    buffer = IOUtilities.inputStreamToByteArrayOutputStream(reqIS);
+                }
+                InputStream reqIS2 = new ByteArrayInputStream(buffer.toByteArray());
+                InputStream reqIS3 = new ByteArrayInputStream(buffer.toByteArray());
+
+                // The first copy is used to produce the GitHubResponse
+                GitHubResponse ghResponse = new GitHubResponse(httpRequest, getBody(request, reqIS2));
+
+                // The second is parsed again for event-specific information
+                return new GitHubEventsResponse(ghResponse, reqIS3, updatedEtag);
+            } else if (isNotModified(code)) { // 304 Not Modified
+                GitHubResponse ghResponse = new GitHubResponse(httpRequest, null);
+                return new GitHubEventsResponse(ghResponse, new NullInputStream(0), currentETag);
+            } else if (isEmpty(code)) {
+                GitHubResponse ghResponse = new GitHubResponse(httpRequest, null);
+                return new GitHubEventsResponse(ghResponse, new NullInputStream(0), "");
+            } else {
+                throw createException(getStream(httpRequest), code, httpRequest.getResponseMessage());
+            }
+        });
+    }
 
-        // Headers for the request
-        httpRequest.setRequestProperty("If-None-Match", "\"" + currentETag + "\"");
-        String accept = request.getResponseContentType();
-        if (accept != null) {
-            httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
-        }
-        // We send the request here.
-        final int code = httpRequest.getResponseCode();
+    /**
+     * Makes a conditional GET request, which is only answered with a body if the resource no longer has
+     * the given ETag.
+     *
+     * @param request
+     * @param eTag the ETag of the last known version of the resource, without quotes; may be null
+     * @return a pair of HTTP connection and response, whose body is null if the resource is not modified
+     * @throws IOException
+     */
+    public ImmutablePair<HttpURLConnection, GitHubResponse> getConditional(GitHubRequest request, String eTag)
+        throws IOException {
 
-        // Then we process the response.
-        updateRateLimits(httpRequest);
-        if (isOk(code)) { // 200 OK
-            String updatedEtag = Utility.stripQuotes(httpRequest.getHeaderField("ETag"));
-
-            // Copy the httpRequest input stream into a byte array
-            InputStream reqIS = getStream(httpRequest);
-            ByteArrayOutputStream buffer = IOUtilities.inputStreamToByteArrayOutputStream(reqIS);
-            InputStream reqIS2 = new ByteArrayInputStream(buffer.toByteArray());
-            InputStream reqIS3 = new ByteArrayInputStream(buffer.toByteArray());
-
-            // The first copy is used to produce the GitHubResponse
-            GitHubResponse ghResponse = new GitHubResponse(httpRequest, getBody(request, reqIS2));
-
-            // The second is parsed again for event-specific information
-            return new GitHubEventsResponse(ghResponse, reqIS3, updatedEtag);
-        } else if (isNotModified(code)) { // 304 Not Modified
-            GitHubResponse ghResponse = new GitHubResponse(httpRequest, null);
-            return new GitHubEventsResponse(ghResponse, new NullInputStream(0), currentETag);
-        } else if (isEmpty(code)) {
-            GitHubResponse ghResponse = new GitHubResponse(httpRequest, null);
-            return new GitHubEventsResponse(ghResponse, new NullInputStream(0), "");
-        } else {
+        return transport.send(getHost(), () -> {
+            HttpURLConnection httpRequest = createGet(request.generateUri());
+            if (eTag != null && !eTag.isEmpty()) {
+                httpRequest.setRequestProperty("If-None-Match", "\"" + eTag + "\"");
+            }
+            String accept = request.getResponseContentType();
+            if (accept != null) {
+                httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
+            }
+
+            final int code = httpRequest.getResponseCode();
+            updateRateLimits(httpRequest);
+            logger.info(String.format("%s responded with %d %s",
+                        httpRequest.getURL().getFile(), code, httpRequest.getResponseMessage()));
+
+            if (isOk(code)) {
+                return new ImmutablePair<>(httpRequest,
+                    new GitHubResponse(httpRequest, getBody(request, getStream(httpRequest))));
+            } else if (isNotModified(code) || isEmpty(code)) {
+                return new ImmutablePair<>(httpRequest, new GitHubResponse(httpRequest, null));
+            }
             throw createException(getStream(httpRequest), code, httpRequest.getResponseMessage());
-        }
+        });
     }
 
     /**
@@ -142,23 +354,27 @@ public class GitHubClientEx extends GitHubClient {
      */
     @SuppressWarnings("unchecked")
     public ImmutablePair<Integer, Long> getRateLimitResetTime() throws IOException {
-        HttpURLConnection httpRequest = createGet("/rate_limit");
-        if (isOk(httpRequest.getResponseCode())) {
-            // We extract from rate, which is similar to resources.core
-            String json = String.valueOf(
-                    IOUtilities.inputStreamToByteArrayOutputStream(getStream(httpRequest)));
-            Map<String, Object> map =
-                    new Gson().fromJson(json, new TypeToken<Map<String, Object>>() {
-                    }.getType());
-            Map<String, Double> mapRate = (Map<String, Double>) map.get("rate");
-
-            long reset = mapRate.get("reset").longValue() * 1000; // seconds to milliseconds
-            int remaining = mapRate.get("remaining").intValue();
-
-            return new ImmutablePair<>(remaining, reset);
-        } else {
-            throw new IOException(httpRequest.getResponseCode() + " " + httpRequest.getResponseMessage());
-        }
+        return transport.send(getHost(), () -> {
+            HttpURLConnection httpRequest = createGet("/rate_limit");
+            if (isOk(httpRequest.getResponseCode())) {
+                // We extract from rate, which is similar to resources.core
+                String json;
+                try (InputStream stream = getStream(httpRequest)) {
+                    json = String.valueOf(IOUtilities.inputStreamToByteArrayOutputStream(stream));
+                }
+                Map<String, Object> map =
+                        new Gson().fromJson(json, new TypeToken<Map<String, Object>>() {
+                        }.getType());
+                Map<String, Double> mapRate = (Map<String, Double>) map.get("rate");
+
+                long reset = mapRate.get("reset").longValue() * 1000; // seconds to milliseconds
+                int remaining = mapRate.get("remaining").intValue();
+
+                return new ImmutablePair<>(remaining, reset);
+            } else {
+                throw new IOException(httpRequest.getResponseCode() + " " + httpRequest.getResponseMessage());
+            }
+        });
     }
 
     /**
@@ -169,25 +385,27 @@ public class GitHubClientEx extends GitHubClient {
      * @throws IOException
      */
     public ImmutablePair<HttpURLConnection, GitHubResponse> head(GitHubRequest request) throws IOException {
-        HttpURLConnection httpRequest = createHead(request.generateUri());
-        String accept = request.getResponseContentType();
-        if (accept != null) {
-            httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
-        }
-        logger.info(String.format("Requesting: %s %s",
-                    httpRequest.getRequestMethod(), httpRequest.getURL().getFile()));
+        return transport.send(getHost(), () -> {
+            HttpURLConnection httpRequest = createHead(request.generateUri());
+            String accept = request.getResponseContentType();
+            if (accept != null) {
+                httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
+            }
+            logger.info(String.format("Requesting: %s %s",
+                        httpRequest.getRequestMethod(), httpRequest.getURL().getFile()));
 
-        final int code = httpRequest.getResponseCode();
-        updateRateLimits(httpRequest);
+            final int code = httpRequest.getResponseCode();
+            updateRateLimits(httpRequest);
 
-        logger.info(String.format("%s responded with %d %s",
-                    httpRequest.getURL().getPath(), code, httpRequest.getResponseMessage()));
-        if (isOk(code) || code == HttpURLConnection.HTTP_NOT_MODIFIED || isEmpty(code)) {
-            return new ImmutablePair<>(httpRequest, new GitHubResponse(httpRequest, null));
-        }
+            logger.info(String.format("%s responded with %d %s",
+                        httpRequest.getURL().getPath(), code, httpRequest.getResponseMessage()));
+            if (isOk(code) || code == HttpURLConnection.HTTP_NOT_MODIFIED || isEmpty(code)) {
+                return new ImmutablePair<>(httpRequest, new GitHubResponse(httpRequest, null));
+            }
 
-        throw createException(getStream(httpRequest), code,
-                httpRequest.getResponseMessage());
+            throw createException(getStream(httpRequest), code,
+                    httpRequest.getResponseMessage());
+        });
     }
 
     /**
@@ -209,12 +427,12 @@ public class GitHubClientEx extends GitHubClient {
     }
 
     /**
-     * Overridden to make public.
+     * Overridden to make public, and to decode the response body through the transport.
      */
     @Override
     @SuppressWarnings("PMD")
     public InputStream getStream(HttpURLConnection request) throws IOException {
-        return super.getStream(request);
+        return transport.decode(request, super.getStream(request));
     }
 
     /**
@@ -0,0 +1,234 @@
+package github;
+
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+import util.Utility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the bodies of HTTP responses on disk along with their validators (ETag and Last-Modified) and
+ * page links, so that requests for them can be made conditional and answered from disk when not modified.
+ *
+ * The cache is bounded by the total size of its files. The least recently used responses are evicted
+ * first; the order of use survives restarts through the modification times of the files.
+ */
+public class HttpResponseCache {
+
+    private static final Logger logger = HTLog.get(HttpResponseCache.class);
+
+    private static final String EXTENSION = ".response";
+
+    // The version of the format of cached files; files in other formats are discarded
+    private static final int VERSION = 2;
+
+    private final String directory;
+    private final long maxBytes;
+
+    // Sizes of the cached files by name, least recently used first. Guarded by itself.
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+    private boolean isIndexLoaded = false;
+
+    /**
+     * A cached response. Either validator may be null, but not both. The Link header, which points to
+     * the other pages of a paged response, is null if there was none.
+     */
+    public static class CachedResponse {
+        public final String eTag;
+        public final String lastModified;
+        public final String link;
+        public final byte[] body;
+
+        public CachedResponse(String eTag, String lastModified, String link, byte[] body) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.link = link;
+            this.body = body;
+        }
+    }
+
+    /**
+     * @param directory the directory responses are kept in
+     * @param maxBytes the largest total size of the responses kept
+     */
+    public HttpResponseCache(String directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param key identifies a request, e.g. by its method, URI and user
+     * @return the response last stored for the key, if it is still cached
+     */
+    public Optional<CachedResponse> get(String key) {
+        String name = getFileName(key);
+        synchronized (index) {
+            loadIndex();
+            if (index.get(name) == null) {
+                return Optional.empty();
+            }
+        }
+        Path path = Paths.get(directory, name);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path)))) {
+            if (in.readInt() != VERSION) {
+                throw new IOException("Unsupported format");
+            }
+            if (!key.equals(in.readUTF())) {
+                return Optional.empty();
+            }
+            String eTag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            String link = emptyToNull(in.readUTF());
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(new CachedResponse(eTag, lastModified, link, body));
+        } catch (IOException e) {
+            logger.warn("Unable to read cached response " + name + ": " + e.getMessage());
+            remove(name);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a response, evicting the least recently used responses if the cache gets too large.
+     * Responses larger than the whole cache are not stored.
+     */
+    public void put(String key, CachedResponse response) {
+        String name = getFileName(key);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(VERSION);
+            out.writeUTF(key);
+            out.writeUTF(nullToEmpty(response.eTag));
+            out.writeUTF(nullToEmpty(response.lastModified));
+            out.writeUTF(nullToEmpty(response.link));
+            out.writeInt(response.body.length);
+            out.write(response.body);
+        } catch (IOException e) {
+            HTLog.error(logger, e);
+            return;
+        }
+        if (buffer.size() > maxBytes) {
+            return;
+        }
+
+        try {
+            Utility.writeFileAtomically(Paths.get(directory, name), buffer.toByteArray());
+        } catch (IOException e) {
+            logger.warn("Unable to cache response " + name + ": " + e.getMessage());
+            return;
+        }
+        synchronized (index) {
+            loadIndex();
+            Long previousSize = index.put(name, (long) buffer.size());
+            totalBytes += buffer.size() - (previousSize == null ? 0 : previousSize);
+            evict();
+        }
+    }
+
+    /**
+     * Removes every cached response.
+     */
+    public void clear() {
+        synchronized (index) {
+            loadIndex();
+            for (String name : index.keySet()) {
+                deleteFile(name);
+            }
+            index.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private void remove(String name) {
+        synchronized (index) {
+            Long size = index.remove(name);
+            if (size != null) {
+                totalBytes -= size;
+                deleteFile(name);
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on the index.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            totalBytes -= eldest.getValue();
+            deleteFile(eldest.getKey());
+            it.remove();
+        }
+    }
+
+    /**
+     * Indexes the files already in the directory on first use, in the order they were last used.
+     * Must be called while holding the lock on the index.
+     */
+    private void loadIndex() {
+        if (isIndexLoaded) {
+            return;
+        }
+        isIndexLoaded = true;
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                .map(Path::toFile)
+                .sorted(Comparator.comparingLong(File::lastModified))
+                .forEach(file -> {
+                    index.put(file.getName(), file.length());
+                    totalBytes += file.length();
+                });
+        } catch (IOException e) {
+            HTLog.error(logger, e);
+        }
+        evict();
+    }
+
+    private void deleteFile(String name) {
+        try {
+            Files.deleteIfExists(Paths.get(directory, name));
+        } catch (IOException e) {
+            logger.warn("Unable to delete cached response " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Files are named after a hash of the key, as keys contain characters which cannot be in file names.
+     */
+    private static String getFileName(String key) {
+        return Hashing.sha1().hashString(key, StandardCharsets.UTF_8).toString() + EXTENSION;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
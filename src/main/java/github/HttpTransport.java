@@ -0,0 +1,38 @@
+package github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * How GitHubClientEx connects to the API: opening connections, decoding response bodies and deciding
+ * when requests may be sent.
+ */
+public interface HttpTransport {
+
+    /**
+     * A request, sent and answered by the time it returns.
+     */
+    interface Request<T> {
+        T send() throws IOException;
+    }
+
+    /**
+     * Opens a connection to a URL, ready for the request on it to be configured.
+     */
+    HttpURLConnection open(URL url) throws IOException;
+
+    /**
+     * Decodes the body of a response, e.g. if it is compressed.
+     *
+     * @param connection the connection the response was received on
+     * @param body the body as received, which may be empty
+     */
+    InputStream decode(HttpURLConnection connection, InputStream body) throws IOException;
+
+    /**
+     * Sends a request to a host once the transport allows it.
+     */
+    <T> T send(String host, Request<T> request) throws IOException;
+}
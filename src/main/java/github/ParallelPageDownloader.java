@@ -0,0 +1,164 @@
+package github;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.client.GitHubResponse;
+import org.eclipse.egit.github.core.client.PagedRequest;
+import util.HTLog;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downloads every page of a paged resource. The first page is downloaded alone, as its Link header is
+ * what gives the number of pages. The remaining pages are then downloaded by a few workers at a time,
+ * and merged in page order.
+ *
+ * Workers stop taking pages when the remaining rate limit gets low, until only one of them is left,
+ * so that downloading a large repo does not use up what the rest of the application needs. Pages after
+ * one which failed to download are discarded, so that what is returned is always a prefix of the
+ * resource, as when pages are downloaded one at a time.
+ */
+public class ParallelPageDownloader {
+
+    private static final Logger logger = HTLog.get(ParallelPageDownloader.class);
+
+    private static final String PAGE_PARAM = "page=";
+
+    private final GitHubClientEx client;
+    private final int concurrency;
+    private final ExecutorService pool;
+
+    /**
+     * @param concurrency the largest number of pages downloaded at a time
+     */
+    public ParallelPageDownloader(GitHubClientEx client, int concurrency) {
+        this.client = client;
+        this.concurrency = concurrency;
+        this.pool = Executors.newFixedThreadPool(concurrency,
+            new ThreadFactoryBuilder().setNameFormat("page-downloader-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Notified whenever a page is downloaded. Notifications are never concurrent.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void pageDownloaded(int pagesDownloaded, int pageCount);
+    }
+
+    /**
+     * @param uri the URI of the resource
+     * @param params the parameters of the request of each page
+     * @param type the type of a page of the resource, e.g. {@code List<Issue>}
+     * @return the items of all the pages of the resource, or of the pages before the first which
+     * failed to download
+     */
+    public <V> List<V> getAll(String uri, Map<String, String> params, Type type, ProgressListener listener) {
+        List<V> firstPage;
+        int pageCount;
+        try {
+            GitHubResponse response = client.get(createRequest(uri, params, type, 1));
+            firstPage = toList(response.getBody());
+            pageCount = Math.max(1, parsePageNumber(response.getLast()));
+        } catch (IOException e) {
+            HTLog.error(logger, e);
+            return new ArrayList<>();
+        }
+        listener.pageDownloaded(1, pageCount);
+        if (pageCount == 1) {
+            return firstPage;
+        }
+
+        Map<Integer, List<V>> pages = new ConcurrentHashMap<>();
+        pages.put(1, firstPage);
+        AtomicInteger nextPage = new AtomicInteger(2);
+        AtomicInteger firstFailedPage = new AtomicInteger(pageCount + 1);
+        Object progressLock = new Object();
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(concurrency, pageCount - 1); i++) {
+            boolean isFirstWorker = i == 0;
+            workers.add(pool.submit(() -> {
+                while (GitHubClientEx.canWorkerContinue(isFirstWorker, client.getRemainingRequests())) {
+                    int page = nextPage.getAndIncrement();
+                    if (page > pageCount || page > firstFailedPage.get()) {
+                        return;
+                    }
+                    try {
+                        pages.put(page, toList(client.get(createRequest(uri, params, type, page)).getBody()));
+                    } catch (IOException e) {
+                        HTLog.error(logger, e);
+                        firstFailedPage.accumulateAndGet(page, Math::min);
+                        return;
+                    }
+                    synchronized (progressLock) {
+                        listener.pageDownloaded(pages.size(), pageCount);
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                HTLog.error(logger, e);
+            }
+        }
+
+        List<V> result = new ArrayList<>();
+        for (int page = 1; page < firstFailedPage.get() && pages.containsKey(page); page++) {
+            result.addAll(pages.get(page));
+        }
+        return result;
+    }
+
+    private static <V> PagedRequest<V> createRequest(String uri, Map<String, String> params, Type type, int page) {
+        PagedRequest<V> request = new PagedRequest<>(page, PagedRequest.PAGE_SIZE);
+        request.setUri(uri);
+        request.setParams(params);
+        request.setType(type);
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> List<V> toList(Object body) {
+        return body == null ? new ArrayList<>() : new ArrayList<>((Collection<V>) body);
+    }
+
+    /**
+     * @return the page number in the URI of a page, or -1 if there is none
+     */
+    private static int parsePageNumber(String pageUri) {
+        if (pageUri == null) {
+            return -1;
+        }
+        int query = pageUri.indexOf('?');
+        if (query < 0) {
+            return -1;
+        }
+        for (String param : pageUri.substring(query + 1).split("&")) {
+            if (param.startsWith(PAGE_PARAM)) {
+                try {
+                    return Integer.parseInt(param.substring(PAGE_PARAM.length()));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,116 @@
+package github;
+
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sends requests over persistent connections with compressed bodies, limiting the number of requests
+ * in progress to each host.
+ *
+ * Connections are persistent, as HTTP/1.1 connections are by default, and reused from the JDK's
+ * keep-alive cache, to which a connection is returned once its response body is read to the end or
+ * closed. Bodies are asked for gzipped and decompressed as they are read.
+ *
+ * A request sent while the same thread is sending one to the same host does not wait for the limit,
+ * so that nested requests cannot deadlock.
+ */
+public class PooledHttpTransport implements HttpTransport {
+
+    private static final Logger logger = HTLog.get(PooledHttpTransport.class);
+
+    // The number of idle connections the JDK keeps alive per host by default (http.maxConnections),
+    // so that every connection in use can be returned to the cache
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    private static final String GZIP = "gzip";
+
+    // The first bytes of gzipped data
+    private static final byte[] GZIP_HEADER = {(byte) 0x1f, (byte) 0x8b};
+
+    private final int maxRequestsPerHost;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    // Hosts to which each thread is sending requests
+    private final ThreadLocal<Set<String>> sendingHosts = ThreadLocal.withInitial(HashSet::new);
+
+    public PooledHttpTransport() {
+        this(DEFAULT_MAX_REQUESTS_PER_HOST);
+    }
+
+    /**
+     * @param maxRequestsPerHost the largest number of requests in progress to a host at a time
+     */
+    public PooledHttpTransport(int maxRequestsPerHost) {
+        assert maxRequestsPerHost > 0;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    @Override
+    public HttpURLConnection open(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty("Accept-Encoding", GZIP);
+        return connection;
+    }
+
+    @Override
+    public InputStream decode(HttpURLConnection connection, InputStream body) throws IOException {
+        if (body == null || !GZIP.equalsIgnoreCase(connection.getContentEncoding())) {
+            return body;
+        }
+        // Bodies of e.g. 304 responses may be empty despite the encoding, and bodies recorded from
+        // responses may have been decompressed already, so only bodies with a gzip header are decompressed
+        PushbackInputStream stream = new PushbackInputStream(body, GZIP_HEADER.length);
+        byte[] header = new byte[GZIP_HEADER.length];
+        int headerLength = 0;
+        int read;
+        while (headerLength < header.length
+            && (read = stream.read(header, headerLength, header.length - headerLength)) != -1) {
+            headerLength += read;
+        }
+        stream.unread(header, 0, headerLength);
+        if (headerLength < header.length || header[0] != GZIP_HEADER[0] || header[1] != GZIP_HEADER[1]) {
+            return stream;
+        }
+        return new GZIPInputStream(stream);
+    }
+
+    @Override
+    public <T> T send(String host, Request<T> request) throws IOException {
+        Set<String> hosts = sendingHosts.get();
+        if (hosts.contains(host)) {
+            return request.send();
+        }
+
+        Semaphore permits = hostPermits.computeIfAbsent(host, h -> new Semaphore(maxRequestsPerHost, true));
+        if (!permits.tryAcquire()) {
+            logger.info(String.format("%d requests in progress to %s; waiting", maxRequestsPerHost, host));
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to send a request to " + host);
+            }
+        }
+        hosts.add(host);
+        try {
+            return request.send();
+        } finally {
+            hosts.remove(host);
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package github.update;
+
+import com.google.gson.reflect.TypeToken;
+import github.GitHubClientEx;
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.client.PagedRequest;
+
+import java.util.ArrayList;
+
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_COMMENTS;
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_ISSUES;
+
+/**
+ * Retrieves the comments of an issue if they have changed.
+ */
+public class CommentUpdateService extends UpdateService<Comment> {
+    public CommentUpdateService(GitHubClientEx client, int issueId, String commentsETag){
+        super(client, SEGMENT_ISSUES + "/" + issueId + SEGMENT_COMMENTS, commentsETag);
+    }
+    @Override
+    protected PagedRequest<Comment> createUpdatedRequest(IRepositoryIdProvider repoId){
+        PagedRequest<Comment> request = super.createUpdatedRequest(repoId);
+        request.setType(new TypeToken<Comment>(){}.getType());
+        request.setArrayType(new TypeToken<ArrayList<Comment>>(){}.getType());
+        return request;
+    }
+}
@@ -82,15 +82,14 @@ public class PullRequestUpdateService extends UpdateService<PullRequest> {
     }
 
     /**
-     * Overrides parent's method to stop getting items if some items in a page has
-     * updatedAt time before the lastIssueCheckTime
+     * Gets the items of every page, stopping at the first page with some items whose
+     * updatedAt time is before the lastIssueCheckTime
      * @param resourceDesc
      * @param iterator the paged request to iterate through
      * @return
      * @throws IOException
      */
-    @Override
-    protected List<PullRequest> getPagedItems(String resourceDesc, PageIterator<PullRequest> iterator)
+    private List<PullRequest> getPagedItems(String resourceDesc, PageIterator<PullRequest> iterator)
             throws IOException {
         List<PullRequest> elements = new ArrayList<>();
         int page = 0;
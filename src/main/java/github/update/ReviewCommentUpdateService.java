@@ -0,0 +1,28 @@
+package github.update;
+
+import com.google.gson.reflect.TypeToken;
+import github.GitHubClientEx;
+import github.ReviewComment;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.client.PagedRequest;
+
+import java.util.ArrayList;
+
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_COMMENTS;
+import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_PULLS;
+
+/**
+ * Retrieves the review comments of a pull request if they have changed.
+ */
+public class ReviewCommentUpdateService extends UpdateService<ReviewComment> {
+    public ReviewCommentUpdateService(GitHubClientEx client, int pullRequestId, String reviewCommentsETag){
+        super(client, SEGMENT_PULLS + "/" + pullRequestId + SEGMENT_COMMENTS, reviewCommentsETag);
+    }
+    @Override
+    protected PagedRequest<ReviewComment> createUpdatedRequest(IRepositoryIdProvider repoId){
+        PagedRequest<ReviewComment> request = super.createUpdatedRequest(repoId);
+        request.setType(new TypeToken<ReviewComment>(){}.getType());
+        request.setArrayType(new TypeToken<ArrayList<ReviewComment>>(){}.getType());
+        return request;
+    }
+}
@@ -5,18 +5,22 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
-import org.eclipse.egit.github.core.client.GitHubRequest;
-import org.eclipse.egit.github.core.client.NoSuchPageException;
-import org.eclipse.egit.github.core.client.PageIterator;
+import org.eclipse.egit.github.core.client.GitHubResponse;
 import org.eclipse.egit.github.core.client.PagedRequest;
 import org.eclipse.egit.github.core.service.GitHubService;
 import util.Utility;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.eclipse.egit.github.core.client.IGitHubConstants.CONTENT_TYPE_JSON;
@@ -44,6 +48,30 @@ public class UpdateService<T> extends GitHubService {
     // Cached results of calling getUpdatedItems
     protected ArrayList<T> updatedItems = null;
 
+    private static final int MAX_CACHED_PAGES = 1000;
+
+    // The latest contents of the pages requested by all update services, by user and URL,
+    // least recently used first. Guarded by itself.
+    private static final Map<String, CachedPage> pageCache =
+        new LinkedHashMap<String, CachedPage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPage> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+
+    private static class CachedPage {
+        private final String eTag;
+        private final List<?> items;
+        private final String next;
+
+        CachedPage(String eTag, List<?> items, String next) {
+            this.eTag = eTag;
+            this.items = items;
+            this.next = next;
+        }
+    }
+
     /**
      * @param client an authenticated GitHubClient
      * @param apiSuffix the API URI for the type of item; defined by subclasses
@@ -75,7 +103,12 @@ public class UpdateService<T> extends GitHubService {
     }
 
     /**
-     * Retrieves the requested items from GitHub
+     * Retrieves the requested items from GitHub.
+     *
+     * Each page is requested once, conditionally on its last-known ETag. Pages which are not modified
+     * are taken from the page cache if any other page is, as all items are then returned. If none
+     * of them is, no items are returned, as before.
+     *
      * @param repoId the repository to get the items from
      * @return a list of requested items
      */
@@ -90,17 +123,61 @@ public class UpdateService<T> extends GitHubService {
 
         logger.info(String.format("Updating %s with ETag %s", resourceDesc, lastETags));
         try {
-            PagedRequest<T> headerRequest = createUpdatedRequest(repoId);
-            Optional<ImmutablePair<List<String>, HttpURLConnection>> etags = getPagedEtags(headerRequest, client);
+            List<String> lastPageETags = splitETags(lastETags);
+            List<String> pageETags = new ArrayList<>();
+            List<String> pageUris = new ArrayList<>();
+            List<Optional<List<T>>> pages = new ArrayList<>();
+            boolean modified = false;
+
+            PagedRequest<T> request = createUpdatedRequest(repoId);
+            while (true) {
+                int page = pages.size();
+                String lastPageETag = page < lastPageETags.size() ? lastPageETags.get(page) : null;
+                pageUris.add(request.getUri());
+
+                ImmutablePair<HttpURLConnection, GitHubResponse> pageResult =
+                    client.getConditional(request, lastPageETag);
+                HttpURLConnection connection = pageResult.getLeft();
+                GitHubResponse response = pageResult.getRight();
+                if (page == 0) {
+                    updateCheckTime(connection);
+                }
+                String cacheKey = getCacheKey(connection);
+
+                String next = response.getNext();
+                if (client.isNotModified(connection.getResponseCode())) {
+                    Optional<CachedPage> cached = getCachedPage(cacheKey, lastPageETag);
+                    logger.info(resourceDesc + " | page " + page + ": not modified");
+                    pageETags.add(lastPageETag);
+                    pages.add(cached.map(cachedPage -> castItems(cachedPage.items)));
+                    if (next == null && cached.isPresent()) {
+                        next = cached.get().next;
+                    } else if (next == null && page + 1 < lastPageETags.size()) {
+                        next = withPageNumber(request.generateUri(), page + 2);
+                    }
+                } else {
+                    List<T> items = toItems(response.getBody());
+                    String pageETag = Utility.stripQuotes(connection.getHeaderField("ETag"));
+                    logger.info(resourceDesc + " | page " + page + ": " + items.size() + " items");
+                    pageETags.add(pageETag);
+                    pages.add(Optional.of(items));
+                    modified = modified || pageETag == null || !pageETag.equals(lastPageETag);
+                    putCachedPage(cacheKey, new CachedPage(pageETag, items, next));
+                }
+
+                if (next == null) {
+                    break;
+                }
+                request.setUri(toRequestUri(next));
+            }
+            modified = modified || pages.size() != lastPageETags.size();
 
-            if (!etags.isPresent()) {
-                /* Respond as if we succeeded and there were no updates.
-                   The assumption is that updates are cheap and we can do them as frequently as needed. */
-                logger.warn(String.format("%s: error getting updated items", getClass().getSimpleName()));
+            if (!modified) {
+                logger.info("Nothing to update");
             } else {
-                updatedETags = combineETags(etags.get().getLeft());
-                result = downloadUpdatedItems(repoId, resourceDesc, updatedETags);
-                updateCheckTime(etags.get().getRight());
+                result = collectItems(resourceDesc, request, pageUris, pages);
+                updatedETags = combineETags(pageETags);
+                logger.info(String.format("New ETag for %s: %s", resourceDesc, updatedETags));
             }
         } catch (IOException e) {
             logger.error(e.getLocalizedMessage(), e);
@@ -111,22 +188,37 @@ public class UpdateService<T> extends GitHubService {
         return result;
     }
 
-    private ArrayList<T> downloadUpdatedItems(IRepositoryIdProvider repoId,
-                                              String resourceDesc,
-                                              Optional<String> updatedETags) throws IOException {
+    /**
+     * Downloads again the pages which were not modified but are not in the page cache, e.g. after a
+     * restart, and puts all the pages together.
+     */
+    private ArrayList<T> collectItems(String resourceDesc, PagedRequest<T> request, List<String> pageUris,
+                                      List<Optional<List<T>>> pages) throws IOException {
         ArrayList<T> result = new ArrayList<>();
-
-        if (!updatedETags.isPresent() || updatedETags.get().equals(lastETags)){
-            logger.info("Nothing to update");
-        } else {
-            PagedRequest<T> request = createUpdatedRequest(repoId);
-            result = new ArrayList<>(getPagedItems(resourceDesc, new PageIterator<>(request, client)));
-            logger.info(String.format("New ETag for %s: %s", resourceDesc, updatedETags));
+        for (int page = 0; page < pages.size(); page++) {
+            if (pages.get(page).isPresent()) {
+                result.addAll(pages.get(page).get());
+                continue;
+            }
+            request.setUri(pageUris.get(page));
+            ImmutablePair<HttpURLConnection, GitHubResponse> pageResult = client.getConditional(request, null);
+            List<T> items = toItems(pageResult.getRight().getBody());
+            logger.info(resourceDesc + " | page " + page + ": " + items.size() + " items (not cached)");
+            putCachedPage(getCacheKey(pageResult.getLeft()), new CachedPage(
+                Utility.stripQuotes(pageResult.getLeft().getHeaderField("ETag")), items,
+                pageResult.getRight().getNext()));
+            result.addAll(items);
         }
-
         return result;
     }
 
+    private static List<String> splitETags(String eTags) {
+        if (eTags == null || eTags.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.asList(eTags.split("#", -1));
+    }
+
     /**
      * Combine ETags for multiple page into 1 string
      * @param etags
@@ -137,57 +229,52 @@ public class UpdateService<T> extends GitHubService {
     }
 
     /**
-     * Gets a list of ETags for all pages returned from an API request and
-     * also return the connection used to get the ETags so that their last check time
-     * can be recorded elsewhere
-     * @param request
-     * @param client
-     * @return a Optional list of ETags for all pages returned from an API request and
-     *         corresponding HTTP connection or an empty Optional if an error occurs
+     * Pages are cached by user, as users may not see the same items
      */
-    private Optional<ImmutablePair<List<String>, HttpURLConnection>> getPagedEtags(
-            GitHubRequest request, GitHubClientEx client) {
-
-        PageHeaderIterator iter = new PageHeaderIterator(request, client, "ETag");
-        List<String> etags = new ArrayList<>();
-        HttpURLConnection connection = null;
-
-        while (iter.hasNext()) {
-            try {
-                etags.add(Utility.stripQuotes(iter.next()));
-                if (connection == null) {
-                    connection = iter.getLastConnection();
-                }
-            } catch (NoSuchPageException e) {
-                logger.error("No such page exception at " + iter.getRequest().generateUri());
-                return Optional.empty();
-            }
+    private String getCacheKey(HttpURLConnection connection) {
+        return client.getUser() + " " + connection.getURL();
+    }
+
+    private static Optional<CachedPage> getCachedPage(String key, String eTag) {
+        synchronized (pageCache) {
+            return Optional.ofNullable(pageCache.get(key))
+                .filter(page -> page.eTag != null && page.eTag.equals(eTag));
         }
+    }
+
+    private static void putCachedPage(String key, CachedPage page) {
+        synchronized (pageCache) {
+            pageCache.put(key, page);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> castItems(List<?> items) {
+        return (List<T>) items;
+    }
 
-        return Optional.of(new ImmutablePair<>(etags, connection));
+    @SuppressWarnings("unchecked")
+    private List<T> toItems(Object body) {
+        return body == null ? new ArrayList<>() : new ArrayList<>((Collection<T>) body);
     }
 
     /**
-     * A specialised version of GitHubService::getPage that does logging.
-     * @param iterator the paged request to iterate through
-     * @return a list of items
-     * @throws IOException
+     * Next links are absolute URLs, while requests take URIs relative to the API
      */
-    protected List<T> getPagedItems(String resourceDesc, PageIterator<T> iterator) throws IOException {
-        List<T> elements = new ArrayList<>();
-        int length = 0;
-        int page = 0;
+    private static String toRequestUri(String next) {
         try {
-            while (iterator.hasNext()) {
-                elements.addAll(iterator.next());
-                int diff = elements.size() - length;
-                length = elements.size();
-                logger.info(resourceDesc + " | page " + (page++) + ": " + diff + " items");
-            }
-        } catch (NoSuchPageException pageException) {
-            throw pageException.getCause();
+            return new URL(next).getFile();
+        } catch (MalformedURLException e) {
+            return next;
+        }
+    }
+
+    private static String withPageNumber(String uri, int page) {
+        String replaced = uri.replaceFirst("([?&])page=\\d+", "$1page=" + page);
+        if (!replaced.equals(uri)) {
+            return replaced;
         }
-        return elements;
+        return uri + (uri.contains("?") ? "&" : "?") + "page=" + page;
     }
 
     /**
@@ -33,6 +33,26 @@ public class GlobalConfig {
     private final Map<String, List<PanelInfo>> savedBoards = new LinkedHashMap<>();
     private final Map<String, Map<Integer, LocalDateTime>> markedReadTimes = new HashMap<>();
     private Map<String, String> keyboardShortcuts = new HashMap<>();
+    // The number of threads used to filter and sort panels: 1 for serial filtering, 0 for one per processor
+    private int filterThreads = 0;
+    // The format repos are stored in: "binary", or "json" for the original JSON store
+    private String storeFormat = "binary";
+
+    public int getFilterThreads() {
+        return filterThreads;
+    }
+
+    public void setFilterThreads(int filterThreads) {
+        this.filterThreads = filterThreads;
+    }
+
+    public String getStoreFormat() {
+        return storeFormat;
+    }
+
+    public void setStoreFormat(String storeFormat) {
+        this.storeFormat = storeFormat;
+    }
 
     public Map<String, String> getKeyboardShortcuts() {
         return new HashMap<>(keyboardShortcuts);
@@ -191,4 +191,28 @@ public class Preferences { // NOPMD
     public void setKeyboardShortcuts(Map<String, String> keyboardShortcuts) {
         global.setKeyboardShortcuts(keyboardShortcuts);
     }
+
+    /**
+     * @return the number of threads used to filter and sort panels. 1 means panels are processed
+     * serially, while 0 means one thread is used per available processor.
+     */
+    public int getFilterThreads() {
+        return global.getFilterThreads();
+    }
+
+    public void setFilterThreads(int filterThreads) {
+        global.setFilterThreads(filterThreads);
+    }
+
+    /**
+     * @return the format repos are stored in. Repos stored as JSON are migrated to the binary format
+     * on first load when it is "binary".
+     */
+    public String getStoreFormat() {
+        return global.getStoreFormat();
+    }
+
+    public void setStoreFormat(String storeFormat) {
+        global.setStoreFormat(storeFormat);
+    }
 }
@@ -0,0 +1,56 @@
+package ui;
+
+import backend.interfaces.RepoStore;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import util.AvatarDownloader;
+import util.AvatarLoader;
+
+import java.io.ByteArrayInputStream;
+import java.util.Optional;
+
+/**
+ * Loads the avatars of users for display, decoded at the size they are displayed at. A single instance
+ * is shared by the whole application, so that each avatar is loaded once, however many repos its user
+ * is in. Cards show a placeholder until an avatar is loaded.
+ */
+public final class AvatarService extends AvatarLoader<Image> {
+
+    public static final int AVATAR_SIZE = 12;
+
+    // The directory inside the store directory that avatars are kept in
+    private static final String SUBDIRECTORY = "avatars";
+    private static final int MEMORY_CACHE_SIZE = 500;
+    private static final int LOADER_THREADS = 4;
+
+    private static AvatarService instance;
+    private static Image placeholder;
+
+    private AvatarService() {
+        super(new AvatarDownloader(RepoStore.getSubdirectory(SUBDIRECTORY)), AvatarService::decode,
+            MEMORY_CACHE_SIZE, LOADER_THREADS);
+    }
+
+    public static synchronized AvatarService getInstance() {
+        if (instance == null) {
+            instance = new AvatarService();
+        }
+        return instance;
+    }
+
+    /**
+     * @return the blank image shown in place of an avatar while it is loading. Must be called on the
+     * JavaFX application thread.
+     */
+    public static Image getPlaceholder() {
+        if (placeholder == null) {
+            placeholder = new WritableImage(AVATAR_SIZE, AVATAR_SIZE);
+        }
+        return placeholder;
+    }
+
+    private static Optional<Image> decode(byte[] data) {
+        Image image = new Image(new ByteArrayInputStream(data), AVATAR_SIZE, AVATAR_SIZE, true, true);
+        return image.isError() ? Optional.empty() : Optional.of(image);
+    }
+}
@@ -102,6 +102,19 @@ public class GUIController {
                 .collect(Collectors.toList());
     }
 
+    public List<FilterPanel> getPanelsInView() {
+        return getAllPanels().stream()
+                .filter(panelControl::isPanelInView)
+                .collect(Collectors.toList());
+    }
+
+    public Optional<FilterPanel> getSelectedPanel() {
+        return panelControl.getCurrentlySelectedPanel()
+                .map(panelControl::getPanel)
+                .filter(panel -> panel instanceof FilterPanel)
+                .map(panel -> (FilterPanel) panel);
+    }
+
     private void updateAPIBox(UpdateRateLimitsEvent e) {
         Platform.runLater(() -> apiBox.setText(String.format("%s/%s",
                     e.remainingRequests,
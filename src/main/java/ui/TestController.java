@@ -2,7 +2,6 @@ package ui;
 
 import backend.RepoIO;
 import backend.interfaces.RepoStore;
-import backend.json.JSONStore;
 import backend.json.JSONStoreStub;
 import backend.stub.DummySource;
 import javafx.application.Application;
@@ -137,24 +136,26 @@ public final class TestController {
     /**
      * Creates a RepoIO for the application that uses different components
      * depending on various test options: --test, --testjson etc.
+     * @param prefs the preferences which choose the format repos are stored in outside of tests
      * @return
      */
-    public static RepoIO createApplicationRepoIO() {
+    public static RepoIO createApplicationRepoIO(Preferences prefs) {
         if (isTestMode()) {
             return createTestingRepoIO(isTestJSONEnabled() ? Optional.of(new JSONStoreStub()) : Optional.empty());
         } else {
-            return new RepoIO(Optional.empty(), Optional.empty(), Optional.empty());
+            return new RepoIO(Optional.empty(), Optional.of(RepoIO.createStore(prefs.getStoreFormat())),
+                              Optional.empty());
         }
     }
 
     /**
      * Creates a partially stubbed RepoIO used for testing
-     * @param jsonStoreToBeUsed store to be used with RepoIO,
+     * @param repoStoreToBeUsed store to be used with RepoIO,
      *                          defaults to a new instance of JSONStore if this value is empty
      * @return
      */
-    public static RepoIO createTestingRepoIO(Optional<JSONStore> jsonStoreToBeUsed) {
-        return new RepoIO(Optional.of(new DummySource()), jsonStoreToBeUsed,
+    public static RepoIO createTestingRepoIO(Optional<? extends RepoStore> repoStoreToBeUsed) {
+        return new RepoIO(Optional.of(new DummySource()), repoStoreToBeUsed,
                           Optional.of(RepoStore.TEST_DIRECTORY));
     }
 }
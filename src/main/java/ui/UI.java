@@ -1,6 +1,7 @@
 package ui;
 
 import backend.Logic;
+import backend.RefreshScheduler;
 import backend.UIManager;
 import browserview.BrowserComponent;
 import browserview.BrowserComponentStub;
@@ -61,8 +62,6 @@ public class UI extends Application implements EventDispatcher {
     private static HWND mainWindowHandle;
     private final GlobalHotkey globalHotkey = new GlobalHotkey(this);
 
-    private static final int REFRESH_PERIOD = 60;
-
     // Application-level state
 
     public UIManager uiManager;
@@ -72,6 +71,7 @@ public class UI extends Application implements EventDispatcher {
     public static EventDispatcher events;
     public EventBus eventBus;
     private TickingTimer refreshTimer;
+    private final RefreshScheduler refreshScheduler = new RefreshScheduler();
     public GUIController guiController;
     private NotificationController notificationController;
     public UndoController undoController;
@@ -216,12 +216,22 @@ public class UI extends Application implements EventDispatcher {
         // we can pass them in the form of an array.
         logic = new Logic(uiManager, prefs, Optional.empty());
         // TODO clear cache if necessary
-        refreshTimer = new TickingTimer("Refresh Timer", REFRESH_PERIOD,
-            status::updateTimeToRefresh, logic::refresh, TimeUnit.SECONDS);
+        refreshTimer = new TickingTimer("Refresh Timer", RefreshScheduler.MIN_PERIOD,
+            status::updateTimeToRefresh, this::refresh, TimeUnit.SECONDS);
         refreshTimer.start();
+        // The period between refreshes follows the rate limits reported after requests
+        registerEvent((UpdateRateLimitsEventHandler) e -> {
+            refreshScheduler.updateRateLimits(e.remainingRequests, e.nextRefreshInMillisecs);
+            refreshTimer.setPeriod(refreshScheduler.getPeriod(System.currentTimeMillis()));
+        });
         undoController = new UndoController(notificationController);
     }
 
+    private void refresh() {
+        refreshScheduler.refreshStarted();
+        logic.refresh();
+    }
+
     private void initUI(Stage stage) {
         repoSelector = createRepoSelector();
         apiBox = new Label("-/-");
@@ -324,7 +334,7 @@ public class UI extends Application implements EventDispatcher {
                     boolean shouldRefresh = browserComponent.hasBviewChanged();
                     if (shouldRefresh) {
                         logger.info("Browser view has changed; refreshing");
-                        logic.refresh();
+                        refresh();
                         refreshTimer.restart();
                     }
                 }
@@ -3,6 +3,7 @@ package ui.issuepanel;
 import filter.expression.FilterExpression;
 import filter.expression.Qualifier;
 import filter.expression.QualifierType;
+import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.control.ScrollPane;
@@ -293,6 +294,17 @@ public class PanelControl extends HBox {
         return guiController;
     }
 
+    /**
+     * @return true if any part of the panel lies within the visible part of the panels scroll pane
+     */
+    public boolean isPanelInView(AbstractPanel panel) {
+        if (panelsScrollPane == null || panel.getScene() == null) {
+            return false;
+        }
+        Bounds viewport = panelsScrollPane.localToScene(panelsScrollPane.getLayoutBounds());
+        return viewport.intersects(panel.localToScene(panel.getLayoutBounds()));
+    }
+
     public int getPanelCount() {
         return getChildren().size();
     }
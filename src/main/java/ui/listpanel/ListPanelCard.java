@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -19,6 +20,7 @@ import javafx.scene.layout.VBox;
 
 import org.eclipse.egit.github.core.Comment;
 
+import ui.AvatarService;
 import ui.GuiElement;
 import ui.issuepanel.FilterPanel;
 import util.Utility;
@@ -282,14 +284,23 @@ public class ListPanelCard extends VBox {
     /**
      * Attempts to get the TurboUser's avatar
      * @param user
-     * @return ImageView that contains the avatar image if it exists or an empty ImageView if it doesn't exist
+     * @return ImageView that contains the avatar image if it is loaded, a placeholder which is replaced by the
+     * avatar once it is loaded, or an empty ImageView if the user has no avatar
      */
     private ImageView getAvatar(TurboUser user) {
         ImageView userAvatar = new ImageView();
-        Image userAvatarImage = user.getAvatarImage();
-        if (userAvatarImage != null) {
-            userAvatar.setImage(userAvatarImage);
+        if (user.getAvatarURL().isEmpty()) {
+            return userAvatar;
         }
+        AvatarService avatars = AvatarService.getInstance();
+        Optional<Image> loaded = avatars.getLoadedAvatar(user.getAvatarURL());
+        if (loaded.isPresent()) {
+            userAvatar.setImage(loaded.get());
+            return userAvatar;
+        }
+        userAvatar.setImage(AvatarService.getPlaceholder());
+        avatars.getAvatar(user.getAvatarURL()).thenAccept(avatar ->
+            avatar.ifPresent(image -> Platform.runLater(() -> userAvatar.setImage(image))));
         return userAvatar;
     }
 
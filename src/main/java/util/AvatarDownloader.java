@@ -0,0 +1,107 @@
+package util;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * Downloads avatars, keeping a copy of each one on disk along with its ETag. A copy on disk is
+ * revalidated with a conditional request, so that unchanged avatars are not downloaded again, and is
+ * used as it is when the avatar cannot be downloaded, e.g. when offline.
+ */
+public class AvatarDownloader {
+
+    private static final Logger logger = HTLog.get(AvatarDownloader.class);
+
+    private static final int TIMEOUT_MS = 10000;
+    private static final String IMAGE_EXTENSION = "img";
+    private static final String ETAG_EXTENSION = "etag";
+
+    private final String directory;
+
+    /**
+     * @param directory the directory the copies of avatars are kept in
+     */
+    public AvatarDownloader(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Downloads an avatar, or revalidates its copy on disk.
+     * @return the image data of the avatar, or empty if it can neither be downloaded nor found on disk
+     */
+    public Optional<byte[]> download(String url) {
+        Path imagePath = getPath(url, IMAGE_EXTENSION);
+        Path eTagPath = getPath(url, ETAG_EXTENSION);
+        Optional<byte[]> cached = read(imagePath);
+        Optional<String> eTag = cached.isPresent()
+            ? read(eTagPath).map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+            : Optional.empty();
+
+        try {
+            URLConnection connection = new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            eTag.ifPresent(tag -> connection.setRequestProperty("If-None-Match", tag));
+
+            if (connection instanceof HttpURLConnection) {
+                int status = ((HttpURLConnection) connection).getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached.isPresent()) {
+                    return cached;
+                }
+                if (status != HttpURLConnection.HTTP_OK) {
+                    logger.warn("Unable to download avatar " + url + ": HTTP " + status);
+                    return cached;
+                }
+            }
+
+            byte[] data;
+            try (InputStream in = connection.getInputStream()) {
+                data = ByteStreams.toByteArray(in);
+            }
+            Utility.writeFileAtomically(imagePath, data);
+            String newETag = connection.getHeaderField("ETag");
+            if (newETag == null) {
+                Files.deleteIfExists(eTagPath);
+            } else {
+                Utility.writeFileAtomically(eTagPath, newETag.getBytes(StandardCharsets.UTF_8));
+            }
+            return Optional.of(data);
+        } catch (IOException e) {
+            logger.warn("Unable to download avatar " + url + ": " + e.getMessage());
+            return cached;
+        }
+    }
+
+    /**
+     * Files are named after a hash of the URL, as URLs may contain characters which cannot be in file names.
+     */
+    private Path getPath(String url, String extension) {
+        String name = Hashing.sha1().hashString(url, StandardCharsets.UTF_8).toString();
+        return Paths.get(directory, name + "." + extension);
+    }
+
+    private static Optional<byte[]> read(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readAllBytes(path));
+        } catch (IOException e) {
+            logger.warn("Unable to read cached avatar " + path.getFileName());
+            return Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Loads avatars in the background, once for each avatar URL however many users have it.
+ *
+ * Avatars are loaded by a small pool of threads, through a copy on disk which is revalidated with the
+ * server (see {@link AvatarDownloader}). They are then decoded, and the most recently used ones are
+ * kept in memory.
+ *
+ * @param <T> the type of decoded avatars
+ */
+public class AvatarLoader<T> {
+
+    private static final Logger logger = HTLog.get(AvatarLoader.class);
+
+    private final AvatarDownloader downloader;
+    private final Function<byte[], Optional<T>> decoder;
+    private final ExecutorService pool;
+
+    // Decoded avatars by URL, least recently used first. Guarded by itself.
+    private final Map<String, T> avatars;
+
+    // Avatars which are being loaded, so that each one is only loaded once at a time
+    private final Map<String, CompletableFuture<Optional<T>>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * @param decoder turns the image data of an avatar into a decoded avatar, or empty if it is not
+     *                a valid image
+     * @param memoryCacheSize the number of decoded avatars kept in memory
+     * @param loaderThreads the number of avatars loaded at a time
+     */
+    public AvatarLoader(AvatarDownloader downloader, Function<byte[], Optional<T>> decoder,
+                        int memoryCacheSize, int loaderThreads) {
+        this.downloader = downloader;
+        this.decoder = decoder;
+        this.pool = Executors.newFixedThreadPool(loaderThreads,
+            new ThreadFactoryBuilder().setNameFormat("avatar-loader-%d").setDaemon(true).build());
+        this.avatars = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > memoryCacheSize;
+            }
+        };
+    }
+
+    /**
+     * @return the avatar at a URL if it is already loaded, without loading it otherwise
+     */
+    public Optional<T> getLoadedAvatar(String url) {
+        synchronized (avatars) {
+            return Optional.ofNullable(avatars.get(url));
+        }
+    }
+
+    /**
+     * Loads the avatar at a URL in the background, unless it is already loaded or being loaded.
+     * Avatars which fail to load are not remembered, so they are loaded again the next time they are needed.
+     * @return a future of the avatar, or empty if it could not be loaded
+     */
+    public CompletableFuture<Optional<T>> getAvatar(String url) {
+        Optional<T> loaded = getLoadedAvatar(url);
+        if (loaded.isPresent()) {
+            return CompletableFuture.completedFuture(loaded);
+        }
+
+        CompletableFuture<Optional<T>> result = new CompletableFuture<>();
+        CompletableFuture<Optional<T>> existing = loading.putIfAbsent(url, result);
+        if (existing != null) {
+            return existing;
+        }
+        pool.execute(() -> {
+            Optional<T> avatar = Optional.empty();
+            try {
+                avatar = downloader.download(url).flatMap(decoder);
+                avatar.ifPresent(decoded -> {
+                    synchronized (avatars) {
+                        avatars.put(url, decoded);
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.error("Unable to load avatar " + url, e);
+            } finally {
+                loading.remove(url);
+                result.complete(avatar);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package util;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a function to lists of independent inputs on a fork/join pool of a fixed number of threads.
+ *
+ * Outputs are always returned in the order of the inputs, so results are the same as those of applying
+ * the function serially. Functions may themselves fork subtasks, which then run on the same pool;
+ * {@link #inParallelMapper} tells them if this is possible.
+ */
+public final class ParallelMapper {
+
+    private final int threads;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param threads the number of threads to use. 1 maps inputs serially on the calling thread,
+     *                while 0 or less uses one thread per available processor.
+     */
+    public ParallelMapper(int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = this.threads > 1 ? new ForkJoinPool(this.threads, MapperThread::new, null, false) : null;
+    }
+
+    /**
+     * @return true if the calling code runs in the pool of a parallel mapper, and so may fork subtasks
+     */
+    public static boolean inParallelMapper() {
+        return Thread.currentThread() instanceof MapperThread;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    public <T, R> List<R> map(List<T> inputs, Function<T, R> function) {
+        if (!isParallel() || inputs.isEmpty()) {
+            return inputs.stream().map(function).collect(Collectors.toList());
+        }
+        return pool.invoke(ForkJoinTask.adapt(() -> {
+            List<ForkJoinTask<R>> tasks = inputs.stream()
+                .map(input -> ForkJoinTask.adapt(() -> function.apply(input)))
+                .collect(Collectors.toList());
+            ForkJoinTask.invokeAll(tasks);
+            return tasks.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+        }));
+    }
+
+    /**
+     * Releases the threads of this mapper once mapping in progress completes.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static final class MapperThread extends ForkJoinWorkerThread {
+        private MapperThread(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+}
@@ -40,8 +40,8 @@ public class TickingTimer {
     // The name of the timer. Used to identify it in logging messages and such.
     private final String name;
 
-    // The period after which the timer times out.
-    private final int period;
+    // The period after which the timer times out. May be changed while the timer runs.
+    private int period;
 
     // onTick will not pause the timer when run, so it should not be a long-running task.
     // Will run before onTimeout.
@@ -90,6 +90,21 @@ public class TickingTimer {
         time = period;
     }
 
+    public synchronized int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Changes the period of the timer. The time already counted down in the current period counts
+     * towards the new period; if it is already longer, the timer times out on the next tick.
+     */
+    public synchronized void setPeriod(int newPeriod) {
+        assert newPeriod >= TICK_PERIOD : "Attempt to set TickingTimer period shorter than a tick";
+        int elapsed = period - time;
+        period = newPeriod;
+        time = Math.max(TICK_PERIOD, newPeriod - elapsed);
+    }
+
     /**
      * Causes the timer to time out on the next tick.
      * Returns a latch that will block until after onTimeout is called.
@@ -9,10 +9,13 @@ import ui.UI;
 import util.events.ShowErrorDialogEvent;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -62,15 +65,28 @@ public final class Utility {
      * @return
      */
     public static boolean writeFile(String fileName, String content, int issueCount) {
+        return writeFile(fileName, writer -> writer.write(content), issueCount);
+    }
+
+    /**
+     * Same as writeFile(String, String, int), but streams the content to the file as it is produced,
+     * so it need not be held in memory as a whole.
+     * @param fileName
+     * @param content writes the content to a buffered writer of the file
+     * @param issueCount
+     * @return true on JSON corruption
+     */
+    public static boolean writeFile(String fileName, ContentWriter content, int issueCount) {
         boolean validPath = !(fileName == null || fileName.isEmpty());
         if (validPath) {
             try {
-                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
-                        new FileOutputStream(fileName), "UTF-8"
-                ));
-                writer.write(content);
-                writer.newLine();
-                writer.close();
+                try (BufferedWriter writer = new BufferedWriter(Channels.newWriter(
+                        FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                        "UTF-8"))) {
+                    content.writeTo(writer);
+                    writer.newLine();
+                }
 
                 long sizeAfterWrite = Files.size(Paths.get(fileName));
                 return processFileGrowth(sizeAfterWrite, issueCount, fileName);
@@ -82,6 +98,61 @@ public final class Utility {
         return false;
     }
 
+    /**
+     * Writes a file through a temporary file in the same directory, which then replaces it, so that the file
+     * is never read partly written. Temporary files are uniquely named, so several writers may share a directory.
+     * @param path
+     * @param content writes the content to a buffered stream of the temporary file
+     * @throws IOException if the file cannot be written, in which case it is left as it was
+     */
+    public static void writeFileAtomically(Path path, StreamWriter content) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, null, ".tmp");
+        try {
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                content.writeTo(output);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            new File(String.valueOf(temp)).delete();
+        }
+    }
+
+    /**
+     * Same as writeFileAtomically(Path, StreamWriter), for content already held in memory.
+     */
+    public static void writeFileAtomically(Path path, byte[] content) throws IOException {
+        writeFileAtomically(path, output -> output.write(content));
+    }
+
+    /**
+     * Opens a buffered reader of a UTF-8 file, to be read as a stream.
+     * @param fileName
+     * @return the reader, which the caller should close
+     * @throws IOException if the file cannot be opened
+     */
+    public static Reader openFileReader(String fileName) throws IOException {
+        return new BufferedReader(Channels.newReader(
+                FileChannel.open(Paths.get(fileName), StandardOpenOption.READ), "UTF-8"));
+    }
+
+    /**
+     * Writes some content to a writer.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    /**
+     * Writes some content to an output stream.
+     */
+    @FunctionalInterface
+    public interface StreamWriter {
+        void writeTo(OutputStream output) throws IOException;
+    }
+
     /**
      * Returns true on failure to delete file
      * @param fileName
@@ -0,0 +1,14 @@
+package util.exceptions;
+
+public class BinaryLoadException extends RepoStoreException {
+
+    private static final long serialVersionUID = 4518927361526093811L;
+
+    public BinaryLoadException() {
+        super();
+    }
+
+    public BinaryLoadException(Throwable cause) {
+        super(cause);
+    }
+}
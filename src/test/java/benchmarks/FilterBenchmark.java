@@ -0,0 +1,158 @@
+package benchmarks;
+
+import backend.FilterResult;
+import backend.resource.*;
+import filter.Parser;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+import filter.expression.QualifierType;
+import util.ParallelMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares filtering and sorting a board of panels serially and in parallel, over synthetic
+ * repos with 50,000 issues in total.
+ *
+ * Run with: gradle benchmark -Pbenchmark=FilterBenchmark. The number of threads to use in parallel
+ * may be given as an argument; it defaults to one per available processor.
+ */
+public final class FilterBenchmark {
+
+    private static final int REPOS = 5;
+    private static final int ISSUES_PER_REPO = 10000;
+    private static final int ROUNDS = 10;
+
+    // Rounds run before timing, so that both ways are timed after the JIT compiler has warmed up
+    private static final int WARM_UP_ROUNDS = 5;
+
+    private static final String[] WORDS = {
+        "panel", "filter", "crash", "login", "refresh", "label", "milestone", "update", "window", "board",
+        "slow", "issue", "button", "error", "sync", "cache", "github", "token", "display", "sort",
+    };
+
+    private static final List<String> FILTERS = Arrays.asList(
+        "is:open", "is:closed sort:comments", "label:bug is:open", "label:priority.high sort:milestone",
+        "milestone:v1 OR milestone:v2", "assignee:user1", "author:user2 is:issue", "crash",
+        "title:login", "desc:cache refresh", "-label:feature is:open sort:priority", "is:pr is:merged",
+        "no:assignee is:open", "has:milestone sort:~id", "match:word sync");
+
+    private FilterBenchmark() {}
+
+    public static void main(String[] args) {
+        MultiModel models = syntheticModels(new Random(0));
+        // Every panel covers all repos
+        String allRepos = "(" + models.toModels().stream()
+            .map(model -> "repo:" + model.getRepoId())
+            .collect(Collectors.joining(" OR ")) + ") ";
+        List<FilterExpression> filterExprs = FILTERS.stream()
+            .map(filter -> Parser.parse(allRepos + filter))
+            .collect(Collectors.toList());
+
+        ParallelMapper serial = new ParallelMapper(1);
+        ParallelMapper parallel = new ParallelMapper(args.length > 0 ? Integer.parseInt(args[0]) : 0);
+
+        List<List<TurboIssue>> serialResults = process(serial, models, filterExprs);
+        List<List<TurboIssue>> parallelResults = process(parallel, models, filterExprs);
+        if (!serialResults.equals(parallelResults)) {
+            throw new AssertionError("Parallel results differ from serial results");
+        }
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            process(serial, models, filterExprs);
+            process(parallel, models, filterExprs);
+        }
+
+        long serialTime = time(() -> process(serial, models, filterExprs));
+        long parallelTime = time(() -> process(parallel, models, filterExprs));
+
+        System.out.printf("%d issues, %d panels, %d rounds%n", REPOS * ISSUES_PER_REPO, FILTERS.size(), ROUNDS);
+        System.out.printf("Serial:   %d ms per round%n", serialTime / ROUNDS);
+        System.out.printf("Parallel: %d ms per round (%d threads)%n", parallelTime / ROUNDS, parallel.getThreads());
+        System.out.printf("Speed-up: %.2fx%n", (double) serialTime / parallelTime);
+
+        parallel.shutdown();
+    }
+
+    private static List<List<TurboIssue>> process(ParallelMapper mapper, MultiModel models,
+                                                  List<FilterExpression> filterExprs) {
+        // The issues of a result are sorted as they are read, so they are all read here
+        Function<FilterExpression, List<TurboIssue>> processFilter = filterExpr -> new ArrayList<>(
+            FilterResult.compute(models, filterExpr, comparatorOf(models, filterExpr)).getIssues());
+        return mapper.map(filterExprs, processFilter);
+    }
+
+    private static Comparator<TurboIssue> comparatorOf(MultiModel models, FilterExpression filterExpr) {
+        return filterExpr.find(Qualifier::isMetaQualifier).stream()
+            .filter(q -> q.getType() == QualifierType.SORT)
+            .findFirst()
+            .map(q -> q.getCompoundSortComparator(models, false))
+            .orElse(Qualifier.getSortComparator(models, "id", true, false));
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < ROUNDS; i++) {
+            runnable.run();
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private static MultiModel syntheticModels(Random random) {
+        List<Model> repoModels = new ArrayList<>();
+        for (int r = 0; r < REPOS; r++) {
+            String repoId = "synthetic/repo" + r;
+            List<TurboLabel> labels = new ArrayList<>();
+            for (String name : Arrays.asList("type.bug", "type.feature", "type.task",
+                "priority.high", "priority.medium", "priority.low", "status.ongoing", "duplicate", "help")) {
+                labels.add(new TurboLabel(repoId, name));
+            }
+            List<TurboMilestone> milestones = new ArrayList<>();
+            for (int m = 1; m <= 10; m++) {
+                TurboMilestone milestone = new TurboMilestone(repoId, m, "v" + m);
+                milestone.setDueDate(Optional.of(LocalDate.of(2015, 1, 1).plusWeeks(m)));
+                milestones.add(milestone);
+            }
+            List<TurboUser> users = new ArrayList<>();
+            for (int u = 0; u < 30; u++) {
+                users.add(new TurboUser(repoId, "user" + u, "User " + u));
+            }
+
+            List<TurboIssue> issues = new ArrayList<>();
+            for (int i = 1; i <= ISSUES_PER_REPO; i++) {
+                TurboIssue issue = new TurboIssue(repoId, i, words(random, 4 + random.nextInt(6)),
+                    "user" + random.nextInt(30), LocalDateTime.of(2015, 1, 1, 0, 0), random.nextInt(5) == 0);
+                issue.setDescription(words(random, 20 + random.nextInt(200)));
+                issue.setOpen(random.nextBoolean());
+                issue.setCommentCount(random.nextInt(20));
+                issue.setUpdatedAt(LocalDateTime.of(2015, 1, 1, 0, 0).plusMinutes(random.nextInt(500000)));
+                issue.setLabels(Arrays.asList(labels.get(random.nextInt(3)).getFullName(),
+                    labels.get(3 + random.nextInt(6)).getFullName()));
+                if (random.nextBoolean()) {
+                    issue.setMilestone(milestones.get(random.nextInt(milestones.size())));
+                }
+                if (random.nextBoolean()) {
+                    issue.setAssignee(users.get(random.nextInt(users.size())));
+                }
+                issues.add(issue);
+            }
+            repoModels.add(new Model(repoId, issues, labels, milestones, users));
+        }
+
+        MultiModel models = new MultiModel(null);
+        models.replace(repoModels);
+        models.setDefaultRepo(repoModels.get(0).getRepoId());
+        return models;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,154 @@
+package benchmarks;
+
+import backend.binary.BinaryStore;
+import backend.interfaces.RepoStore;
+import backend.json.JSONStore;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import backend.resource.TurboMilestone;
+import backend.resource.TurboUser;
+import backend.resource.serialization.SerializableModel;
+import com.google.gson.Gson;
+import ui.UI;
+import util.Utility;
+import util.events.EventDispatcherStub;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the heap used in saving and loading a synthetic repo with JSONStore, which streams repos
+ * to and from files, against doing so through strings of whole files, as the store used to, and
+ * against BinaryStore, which loads repos from memory-mapped files in a compact binary format.
+ *
+ * Run with: gradle benchmark -Pbenchmark=StoreBenchmark. The number of issues may be given as an
+ * argument; it defaults to 40,000. The peak heap of each step is measured from a collected heap as the
+ * sum of the peaks of the heap memory pools, so it is approximate.
+ */
+public final class StoreBenchmark {
+
+    private static final String REPO_ID = "synthetic/repo";
+    private static final int DEFAULT_ISSUES = 40000;
+
+    private static final String[] WORDS = {
+        "panel", "filter", "crash", "login", "refresh", "label", "milestone", "update", "window", "board",
+        "slow", "issue", "button", "error", "sync", "cache", "github", "token", "display", "sort",
+    };
+
+    private StoreBenchmark() {}
+
+    public static void main(String[] args) throws IOException, ExecutionException, InterruptedException {
+        UI.events = new EventDispatcherStub();
+        File directory = Files.createTempDirectory("store-benchmark").toFile();
+        RepoStore.changeDirectory(directory.getAbsolutePath());
+        String fileName = new File(directory, RepoStore.escapeRepoName(REPO_ID)).getAbsolutePath();
+
+        int issueCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ISSUES;
+        SerializableModel model = new SerializableModel(syntheticModel(new Random(0), issueCount));
+        JSONStore store = new JSONStore();
+
+        long stringWrite = peakHeapDuring(() ->
+            Utility.writeFile(fileName, new Gson().toJson(model), issueCount));
+        long stringRead = peakHeapDuring(() ->
+            new Model(new Gson().fromJson(Utility.readFile(fileName).get(), SerializableModel.class)));
+        long streamingWrite = peakHeapDuring(() -> store.saveRepository(REPO_ID, model).join());
+        long streamingRead = peakHeapDuring(() -> store.loadRepository(REPO_ID).join());
+        BinaryStore binaryStore = new BinaryStore(store);
+        long binaryWrite = peakHeapDuring(() -> binaryStore.saveRepository(REPO_ID, model).join());
+        long binaryRead = peakHeapDuring(() -> binaryStore.loadRepository(REPO_ID).join());
+        File binaryFile = new File(directory, RepoStore.escapeRepoName(REPO_ID, "bin"));
+        long loadTime = timeOf(() -> store.loadRepository(REPO_ID).join());
+        long binaryLoadTime = timeOf(() -> binaryStore.loadRepository(REPO_ID).join());
+
+        System.out.printf("%d issues, %d MB stored%n", issueCount, new File(fileName).length() >> 20);
+        System.out.printf("Save: %d MB peak heap through a string, %d MB streamed (%.0f%% less)%n",
+            stringWrite >> 20, streamingWrite >> 20, reduction(stringWrite, streamingWrite));
+        System.out.printf("Load: %d MB peak heap through a string, %d MB streamed (%.0f%% less)%n",
+            stringRead >> 20, streamingRead >> 20, reduction(stringRead, streamingRead));
+        System.out.printf("Binary: %d MB stored, %d MB peak heap to save, %d MB to load%n",
+            binaryFile.length() >> 20, binaryWrite >> 20, binaryRead >> 20);
+        System.out.printf("Load time: %d ms as JSON, %d ms as binary%n", loadTime, binaryLoadTime);
+
+        new File(fileName).delete();
+        binaryFile.delete();
+        directory.delete();
+        System.exit(0);
+    }
+
+    /**
+     * @return the peak heap used while running, beyond that used before
+     */
+    private static long peakHeapDuring(Runnable runnable) {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .collect(Collectors.toList());
+        System.gc();
+        long before = pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        runnable.run();
+        return pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - before;
+    }
+
+    /**
+     * @return the least time taken in milliseconds over a few runs
+     */
+    private static long timeOf(Runnable runnable) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            runnable.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1000000;
+    }
+
+    private static double reduction(long before, long after) {
+        return 100.0 * (before - after) / before;
+    }
+
+    private static Model syntheticModel(Random random, int issueCount) {
+        List<TurboLabel> labels = Arrays.asList("type.bug", "type.feature", "priority.high", "priority.low")
+            .stream().map(name -> new TurboLabel(REPO_ID, name)).collect(Collectors.toList());
+        List<TurboMilestone> milestones = new ArrayList<>();
+        for (int m = 1; m <= 10; m++) {
+            milestones.add(new TurboMilestone(REPO_ID, m, "v" + m));
+        }
+        List<TurboUser> users = new ArrayList<>();
+        for (int u = 0; u < 30; u++) {
+            users.add(new TurboUser(REPO_ID, "user" + u, "User " + u));
+        }
+
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= issueCount; i++) {
+            TurboIssue issue = new TurboIssue(REPO_ID, i, words(random, 4 + random.nextInt(6)),
+                "user" + random.nextInt(30), LocalDateTime.of(2015, 1, 1, 0, 0), random.nextInt(5) == 0);
+            issue.setDescription(words(random, 20 + random.nextInt(100)));
+            issue.setCommentCount(random.nextInt(20));
+            issue.setLabels(Arrays.asList(labels.get(random.nextInt(2)).getFullName(),
+                labels.get(2 + random.nextInt(2)).getFullName()));
+            issue.setMilestone(milestones.get(random.nextInt(milestones.size())));
+            issues.add(issue);
+        }
+        return new Model(REPO_ID, issues, labels, milestones, users);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return result.toString();
+    }
+}
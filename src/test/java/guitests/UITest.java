@@ -112,7 +112,11 @@ public class UITest extends GuiTest {
                     .filter(Files::isRegularFile)
                     .filter(p ->
                         getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("json") ||
-                            getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("json-err")
+                            getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("json-err") ||
+                            getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("bin") ||
+                            getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("manifest") ||
+                            getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("journal") ||
+                            getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("metadata")
                     )
                     .forEach(p -> new File(p.toAbsolutePath().toString()).delete());
             }
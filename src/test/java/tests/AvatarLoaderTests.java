@@ -0,0 +1,184 @@
+package tests;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+import util.AvatarDownloader;
+import util.AvatarLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+public class AvatarLoaderTests {
+
+    private static final int PORT = 8889;
+    private static final String URL = "http://localhost:" + PORT + "/u/1?v=3";
+    private static final String DIRECTORY = "store/test/avatars";
+    private static final String AVATAR_DATA = "avatar";
+    private static final byte[] AVATAR = AVATAR_DATA.getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "\"avatar-etag\"";
+
+    private static ClientAndServer server;
+
+    @BeforeClass
+    public static void startServer() {
+        server = ClientAndServer.startClientAndServer(PORT);
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+    }
+
+    @Before
+    public void clear() throws IOException {
+        server.reset();
+        Path directory = Paths.get(DIRECTORY);
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(file -> new File(String.valueOf(file)).delete());
+            }
+        }
+    }
+
+    private static HttpRequest avatarRequest() {
+        return request().withMethod("GET").withPath("/u/1");
+    }
+
+    private static void serveAvatar() {
+        server.when(avatarRequest().withHeader("If-None-Match", ETAG))
+            .respond(response().withStatusCode(304));
+        server.when(avatarRequest())
+            .respond(response().withStatusCode(200).withHeader("ETag", ETAG).withBody(AVATAR_DATA));
+    }
+
+    @Test
+    public void download_newAvatar_keptOnDisk() {
+        serveAvatar();
+        AvatarDownloader downloader = new AvatarDownloader(DIRECTORY);
+
+        assertArrayEquals(AVATAR, downloader.download(URL).get());
+        assertTrue(Paths.get(DIRECTORY).toFile().list().length > 0);
+    }
+
+    @Test
+    public void download_avatarOnDisk_revalidatedWithETag() {
+        serveAvatar();
+        AvatarDownloader downloader = new AvatarDownloader(DIRECTORY);
+        downloader.download(URL);
+
+        assertArrayEquals(AVATAR, new AvatarDownloader(DIRECTORY).download(URL).get());
+        server.verify(avatarRequest().withHeader("If-None-Match", ETAG), VerificationTimes.exactly(1));
+    }
+
+    @Test
+    public void download_serverUnavailable_usesAvatarOnDisk() {
+        serveAvatar();
+        new AvatarDownloader(DIRECTORY).download(URL);
+        server.reset();
+        server.when(avatarRequest()).respond(response().withStatusCode(500));
+
+        assertArrayEquals(AVATAR, new AvatarDownloader(DIRECTORY).download(URL).get());
+    }
+
+    @Test
+    public void download_missingAvatar_empty() {
+        server.when(avatarRequest()).respond(response().withStatusCode(404));
+        assertFalse(new AvatarDownloader(DIRECTORY).download(URL).isPresent());
+    }
+
+    /**
+     * A downloader which counts its downloads, and waits to be allowed to finish them.
+     */
+    private static class BlockingDownloader extends AvatarDownloader {
+        private final AtomicInteger downloads = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingDownloader() {
+            super(DIRECTORY);
+        }
+
+        @Override
+        public Optional<byte[]> download(String url) {
+            downloads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return url.contains("missing") ? Optional.empty() : Optional.of(AVATAR);
+        }
+    }
+
+    @Test
+    public void getAvatar_concurrentRequests_loadedOnce() throws Exception {
+        BlockingDownloader downloader = new BlockingDownloader();
+        String decoded = "decoded";
+        AvatarLoader<String> loader = new AvatarLoader<>(downloader, data -> Optional.of(decoded), 10, 4);
+
+        List<CompletableFuture<Optional<String>>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(loader.getAvatar(URL));
+        }
+        downloader.release.countDown();
+        for (CompletableFuture<Optional<String>> request : requests) {
+            assertSame(decoded, request.get().get());
+        }
+        assertEquals(1, downloader.downloads.get());
+
+        assertSame(decoded, loader.getLoadedAvatar(URL).get());
+        loader.getAvatar(URL).get();
+        assertEquals(1, downloader.downloads.get());
+    }
+
+    @Test
+    public void getAvatar_failedLoad_notRemembered() throws Exception {
+        BlockingDownloader downloader = new BlockingDownloader();
+        downloader.release.countDown();
+        AvatarLoader<String> loader = new AvatarLoader<>(downloader, data -> Optional.of("decoded"), 10, 1);
+
+        assertFalse(loader.getAvatar(URL + "missing").get().isPresent());
+        assertFalse(loader.getLoadedAvatar(URL + "missing").isPresent());
+        loader.getAvatar(URL + "missing").get();
+        assertEquals(2, downloader.downloads.get());
+    }
+
+    @Test
+    public void getAvatar_memoryCacheFull_leastRecentlyUsedEvicted() throws Exception {
+        BlockingDownloader downloader = new BlockingDownloader();
+        downloader.release.countDown();
+        AvatarLoader<String> loader = new AvatarLoader<>(downloader, data -> Optional.of("decoded"), 2, 1);
+
+        loader.getAvatar("a").get();
+        loader.getAvatar("b").get();
+        loader.getLoadedAvatar("a");
+        loader.getAvatar("c").get();
+
+        assertTrue(loader.getLoadedAvatar("a").isPresent());
+        assertFalse(loader.getLoadedAvatar("b").isPresent());
+        assertTrue(loader.getLoadedAvatar("c").isPresent());
+    }
+}
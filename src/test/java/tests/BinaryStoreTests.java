@@ -0,0 +1,176 @@
+package tests;
+
+import backend.IssueMetadata;
+import backend.UpdateSignature;
+import backend.binary.BinaryStore;
+import backend.interfaces.RepoStore;
+import backend.json.JSONStore;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import backend.resource.TurboMilestone;
+import backend.resource.TurboUser;
+import backend.resource.serialization.SerializableModel;
+import guitests.UITest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ui.UI;
+import ui.components.StatusUIStub;
+import util.events.EventDispatcherStub;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryStoreTests {
+
+    private static final String REPO = "testrepo/testrepo";
+    private static final String BINARY_FILE = "store/test/testrepo-testrepo.bin";
+    private static final String JSON_FILE = "store/test/testrepo-testrepo.json";
+
+    @BeforeClass
+    public static void setup() {
+        UI.events = new EventDispatcherStub();
+        UI.status = new StatusUIStub();
+    }
+
+    @Before
+    public void enableTestDirectory() {
+        RepoStore.changeDirectory(RepoStore.TEST_DIRECTORY);
+    }
+
+    private static Model model() {
+        TurboLabel bug = new TurboLabel(REPO, "ff0000", "type.bug");
+        TurboLabel urgent = new TurboLabel(REPO, "00ff00", "priority.high");
+        TurboMilestone milestone = new TurboMilestone(REPO, 3, "v0.3");
+        milestone.setDueDate(Optional.of(LocalDate.of(2015, 6, 30)));
+        TurboUser user = new TurboUser(REPO, "alice", "Alice");
+
+        TurboIssue issue = new TurboIssue(REPO, 1, "Crash on start, été ☃", "alice",
+            LocalDateTime.of(2015, 1, 2, 3, 4, 5, 600000000), false);
+        issue.setDescription("Steps to reproduce");
+        issue.setUpdatedAt(LocalDateTime.of(2015, 2, 3, 4, 5, 6, 7));
+        issue.setCommentCount(12);
+        issue.setLabels(Arrays.asList("type.bug", "priority.high"));
+        issue.setMilestone(milestone);
+        issue.setAssignee(user);
+        TurboIssue pullRequest = new TurboIssue(REPO, 2, "Fix crash", "bob",
+            LocalDateTime.of(1969, 12, 31, 23, 59, 59), true);
+        pullRequest.setOpen(false);
+
+        return new Model(REPO, Arrays.asList(issue, pullRequest), Arrays.asList(bug, urgent),
+            Arrays.asList(milestone), Arrays.asList(user),
+            new UpdateSignature("issues", null, "milestones", "users", new Date(1234567890L)));
+    }
+
+    @Test
+    public void save_load_sameModel() throws ExecutionException, InterruptedException {
+        Model model = model();
+        BinaryStore store = new BinaryStore();
+        assertFalse(store.saveRepository(REPO, new SerializableModel(model)).get());
+        assertTrue(Files.exists(Paths.get(BINARY_FILE)));
+
+        Model loaded = store.loadRepository(REPO).get();
+        assertEquals(model, loaded);
+        assertEquals(model.getIssues().get(0).getDescription(), loaded.getIssues().get(0).getDescription());
+        assertEquals(model.getMilestones().get(0).getDueDate(), loaded.getMilestones().get(0).getDueDate());
+        assertEquals(model.getUsers().get(0).getRealName(), loaded.getUsers().get(0).getRealName());
+        assertEquals(model.getUpdateSignature().lastCheckTime, loaded.getUpdateSignature().lastCheckTime);
+    }
+
+    @Test
+    public void save_emptySignature_loadedAsEmpty() throws ExecutionException, InterruptedException {
+        Model model = new Model(REPO, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        BinaryStore store = new BinaryStore();
+        store.saveRepository(REPO, new SerializableModel(model)).get();
+
+        assertTrue(store.loadRepository(REPO).get().getUpdateSignature().isEmpty());
+    }
+
+    @Test
+    public void load_storedAsJson_migrated() throws ExecutionException, InterruptedException {
+        Model model = model();
+        new JSONStore().saveRepository(REPO, new SerializableModel(model)).get();
+        BinaryStore store = new BinaryStore();
+        assertEquals(Arrays.asList(REPO), store.getStoredRepos());
+
+        assertEquals(model, store.loadRepository(REPO).get());
+        assertTrue(Files.exists(Paths.get(BINARY_FILE)));
+        assertFalse(Files.exists(Paths.get(JSON_FILE)));
+        assertEquals(Arrays.asList(REPO), store.getStoredRepos());
+        assertEquals(model, new BinaryStore().loadRepository(REPO).get());
+    }
+
+    @Test
+    public void load_storedAsJson_metadataKept() throws ExecutionException, InterruptedException {
+        new JSONStore().saveRepository(REPO, new SerializableModel(model())).get();
+        Map<Integer, IssueMetadata> metadata = new HashMap<>();
+        metadata.put(1, IssueMetadata.intermediate(new ArrayList<>(), new ArrayList<>(), "events", "comments"));
+        BinaryStore store = new BinaryStore();
+        assertFalse(store.saveMetadata(REPO, metadata).get());
+
+        store.loadRepository(REPO).get();
+
+        assertEquals("comments", store.loadMetadata(REPO).get().get(1).getCommentsETag());
+    }
+
+    @Test
+    public void getStoredRepos_corruptedFile_excluded() throws Exception {
+        BinaryStore store = new BinaryStore();
+        store.saveRepository(REPO, new SerializableModel(model())).get();
+        store.saveRepository("other/repo", new SerializableModel(new Model("other/repo"))).get();
+        assertEquals(2, store.getStoredRepos().size());
+
+        RepoStore.write("broken/repo", "abcde", 10);
+        Files.move(Paths.get("store/test/broken-repo.json"), Paths.get("store/test/broken-repo.bin"));
+        List<String> repos = store.getStoredRepos();
+        assertEquals(2, repos.size());
+        assertTrue(repos.contains(REPO));
+        assertTrue(repos.contains("other/repo"));
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void load_truncatedFile_fails() throws Exception {
+        BinaryStore store = new BinaryStore();
+        store.saveRepository(REPO, new SerializableModel(model())).get();
+        byte[] bytes = Files.readAllBytes(Paths.get(BINARY_FILE));
+        Files.write(Paths.get(BINARY_FILE), Arrays.copyOf(bytes, bytes.length / 2));
+
+        store.loadRepository(REPO).get();
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void load_nonExistentRepo_fails() throws InterruptedException, ExecutionException {
+        new BinaryStore().loadRepository("nonexist/nonexist").get();
+    }
+
+    @Test
+    public void remove_storedRepo_deleted() throws ExecutionException, InterruptedException {
+        BinaryStore store = new BinaryStore();
+        store.saveRepository(REPO, new SerializableModel(model())).get();
+
+        assertFalse(store.removeStoredRepo(REPO).get());
+        assertFalse(Files.exists(Paths.get(BINARY_FILE)));
+        assertTrue(store.getStoredRepos().isEmpty());
+    }
+
+    @After
+    public void cleanup() {
+        UITest.clearTestFolder();
+    }
+}
@@ -0,0 +1,100 @@
+package tests;
+
+import backend.IssueMetadata;
+import backend.github.DownloadMetadataTask;
+import backend.interfaces.Repo;
+import backend.resource.TurboIssue;
+import backend.stub.DummySource;
+import github.GitHubClientEx;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DownloadMetadataTaskTests {
+
+    private static final String REPO = "test/test";
+
+    private static List<TurboIssue> createIssues(int count) {
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            issues.add(new TurboIssue(REPO, i, "Issue " + i));
+        }
+        return issues;
+    }
+
+    private static Repo createRepo(int remainingRequests) {
+        Repo repo = mock(Repo.class);
+        when(repo.getUpdatedEvents(anyString(), anyInt(), anyString()))
+            .then(invocation -> new ImmutablePair<>(new ArrayList<>(), "etag" + invocation.getArguments()[1]));
+        when(repo.getUpdatedComments(anyString(), any(TurboIssue.class), anyString()))
+            .thenReturn(new ImmutablePair<>(new ArrayList<>(), "comments"));
+        when(repo.getRemainingRequests()).thenReturn(remainingRequests);
+        return repo;
+    }
+
+    private static Map<Integer, IssueMetadata> download(Repo repo, List<TurboIssue> issues,
+                                                        List<Map<Integer, IssueMetadata>> chunks) throws Exception {
+        DummySource source = new DummySource();
+        return source.addTask(new DownloadMetadataTask(source, repo, REPO, issues, chunks::add))
+            .response.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void run_manyIssues_metadataHandedOverInChunks() throws Exception {
+        List<Map<Integer, IssueMetadata>> chunks = Collections.synchronizedList(new ArrayList<>());
+        Map<Integer, IssueMetadata> result = download(createRepo(5000), createIssues(25), chunks);
+
+        assertEquals(25, result.size());
+        assertEquals("etag7", result.get(7).getEventsETag());
+        assertEquals(3, chunks.size());
+        assertEquals(DownloadMetadataTask.CHUNK_SIZE, chunks.get(0).size());
+        assertEquals(DownloadMetadataTask.CHUNK_SIZE, chunks.get(1).size());
+        assertEquals(5, chunks.get(2).size());
+
+        Set<Integer> handedOver = new HashSet<>();
+        chunks.forEach(chunk -> handedOver.addAll(chunk.keySet()));
+        assertEquals(result.keySet(), handedOver);
+    }
+
+    @Test
+    public void run_manyIssues_downloadedConcurrently() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(DownloadMetadataTask.MAX_CONCURRENT_ISSUES);
+        Repo repo = createRepo(5000);
+        when(repo.getUpdatedComments(anyString(), any(TurboIssue.class), anyString())).then(invocation -> {
+            if (((TurboIssue) invocation.getArguments()[1]).getId() <= DownloadMetadataTask.MAX_CONCURRENT_ISSUES) {
+                barrier.await(5, TimeUnit.SECONDS);
+            }
+            return new ImmutablePair<>(new ArrayList<>(), "comments");
+        });
+
+        assertEquals(8, download(repo, createIssues(8), new ArrayList<>()).size());
+    }
+
+    @Test
+    public void run_lowRateLimit_everyIssueDownloaded() throws Exception {
+        Repo repo = createRepo(GitHubClientEx.LOW_RATE_LIMIT - 1);
+        assertEquals(12, download(repo, createIssues(12), new ArrayList<>()).size());
+    }
+
+    @Test
+    public void run_noIssues_emptyResult() throws Exception {
+        List<Map<Integer, IssueMetadata>> chunks = new ArrayList<>();
+        assertEquals(0, download(createRepo(5000), new ArrayList<>(), chunks).size());
+        assertEquals(0, chunks.size());
+    }
+}
@@ -0,0 +1,79 @@
+package tests;
+
+import backend.github.DownloadRepoTask;
+import backend.interfaces.Repo;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import backend.resource.TurboMilestone;
+import backend.resource.TurboUser;
+import backend.stub.DummySource;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DownloadRepoTaskTests {
+
+    private static final String REPO = "test/test";
+
+    /**
+     * Returns a result only once all four resources are being downloaded at the same time.
+     */
+    private static <T> Answer<T> afterAll(CyclicBarrier barrier, T result) {
+        return invocation -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return result;
+        };
+    }
+
+    @Test
+    public void run_resourcesDownloadedInParallel() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(4);
+        Repo repo = mock(Repo.class);
+        when(repo.getIssues(anyString())).then(afterAll(barrier,
+            new ArrayList<>(Arrays.asList(new TurboIssue(REPO, 1, "Issue")))));
+        when(repo.getLabels(anyString())).then(afterAll(barrier,
+            new ArrayList<>(Arrays.asList(new TurboLabel(REPO, "type.bug")))));
+        when(repo.getMilestones(anyString())).then(afterAll(barrier,
+            new ArrayList<>(Arrays.asList(new TurboMilestone(REPO, 1, "V1")))));
+        when(repo.getCollaborators(anyString())).then(afterAll(barrier,
+            new ArrayList<>(Arrays.asList(new TurboUser(REPO, "user")))));
+
+        DummySource source = new DummySource();
+        Model model = source.addTask(new DownloadRepoTask(source, repo, REPO)).response.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, model.getIssues().size());
+        assertEquals(1, model.getLabels().size());
+        assertEquals(1, model.getMilestones().size());
+        assertEquals(1, model.getUsers().size());
+    }
+
+    @Test
+    public void run_failedResource_failsDownload() throws Exception {
+        Repo repo = mock(Repo.class);
+        when(repo.getIssues(anyString())).thenReturn(new ArrayList<>());
+        when(repo.getLabels(anyString())).thenThrow(new IllegalStateException("Unable to download labels"));
+        when(repo.getMilestones(anyString())).thenReturn(new ArrayList<>());
+        when(repo.getCollaborators(anyString())).thenReturn(new ArrayList<>());
+
+        DummySource source = new DummySource();
+        try {
+            source.addTask(new DownloadRepoTask(source, repo, REPO)).response.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            return;
+        }
+        throw new AssertionError("Download did not fail");
+    }
+}
@@ -18,6 +18,7 @@ import backend.resource.*;
 import filter.ParseException;
 import filter.Parser;
 import filter.SemanticException;
+import filter.expression.CompiledFilter;
 import filter.expression.FilterExpression;
 import filter.expression.Qualifier;
 import filter.expression.QualifierType;
@@ -145,6 +146,30 @@ public class FilterEvalTests {
         verifySemanticException(QualifierType.IN, "in:something test");
     }
 
+    @Test
+    public void satisfiesMatch_validInputs() {
+        TurboIssue issue = new TurboIssue(REPO, 1, "Testing the latest build");
+        issue.setDescription("a test_case fails");
+
+        assertTrue(matches("match:word build", issue));
+        assertTrue(matches("match:word \"the latest\"", issue));
+        assertFalse(matches("match:word test", issue));
+        assertFalse(matches("match:word title:test", issue));
+        assertTrue(matches("match:word desc:\"test_case\"", issue));
+        assertFalse(matches("match:word desc:case", issue));
+
+        assertTrue(matches("match:prefix test", issue));
+        assertTrue(matches("match:prefix in:title late", issue));
+        assertFalse(matches("match:prefix case in:description", issue));
+        assertFalse(matches("match:prefix est", issue));
+        assertTrue(matches("est", issue));
+    }
+
+    @Test
+    public void satisfiesMatch_invalidInputs_throwSemanticException() {
+        verifySemanticException(QualifierType.MATCH, "match:something test");
+    }
+
     private void testMilestoneParsing(String milestoneQualifier, TurboIssue issue, IModel model) {
         assertTrue(Qualifier.process(model, Parser.parse(milestoneQualifier + ":" + "v1.0"), issue));
         assertTrue(Qualifier.process(model, Parser.parse(milestoneQualifier + ":" + "v1"), issue));
@@ -773,6 +798,22 @@ public class FilterEvalTests {
         assertFalse(matches("updated:>26", issue));
     }
 
+    @Test
+    public void compiledFilter_evaluatesAgainstTimeOfCompilation() {
+        LocalDateTime now = LocalDateTime.now();
+        Qualifier.setCurrentTime(now);
+
+        TurboIssue issue = new TurboIssue(REPO, 1, "");
+        issue.setUpdatedAt(now.minusHours(23));
+        CompiledFilter compiled = CompiledFilter.compile(empty, Parser.parse("updated:<24"));
+
+        Qualifier.setCurrentTime(now.plusHours(2));
+        assertTrue(compiled.isSatisfiedBy(issue));
+        assertFalse(matches("updated:<24", issue));
+
+        Qualifier.setCurrentTime(null);
+    }
+
     @Test
     public void satisfiesUpdatedHours_invalidInputs_throwSemanticException() {
         verifySemanticException(QualifierType.UPDATED, "updated:nondate");
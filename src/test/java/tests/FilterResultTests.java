@@ -0,0 +1,207 @@
+package tests;
+
+import backend.FilterResult;
+import backend.resource.Model;
+import backend.resource.MultiModel;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import filter.Parser;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+import org.junit.Test;
+import util.ParallelMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class FilterResultTests {
+
+    private static final String REPO = "test/test";
+
+    private static final List<TurboLabel> LABELS = Arrays.asList(
+        new TurboLabel(REPO, "type.bug"), new TurboLabel(REPO, "type.feature"));
+
+    private static TurboIssue issue(int id, int comments, boolean open, String... labels) {
+        TurboIssue issue = new TurboIssue(REPO, id, "issue " + id);
+        issue.setCommentCount(comments);
+        issue.setOpen(open);
+        issue.setLabels(Arrays.asList(labels));
+        return issue;
+    }
+
+    private static MultiModel modelsWith(List<TurboIssue> issues) {
+        return (MultiModel) TestUtils.singletonModel(
+            new Model(REPO, issues, LABELS, new ArrayList<>(), new ArrayList<>()));
+    }
+
+    private static Comparator<TurboIssue> byComments(MultiModel models) {
+        return Qualifier.getSortComparator(models, "comments", true, false);
+    }
+
+    @Test
+    public void update_unchangedModels_sameResult() {
+        MultiModel models = modelsWith(Arrays.asList(issue(1, 0, true), issue(2, 3, true)));
+        FilterExpression expr = Parser.parse("is:open");
+
+        FilterResult result = FilterResult.compute(models, expr, byComments(models));
+        assertSame(result, result.update(models, byComments(models)));
+        assertEquals(Arrays.asList(2, 1), ids(result.getIssues()));
+    }
+
+    /**
+     * Tests that splicing changed issues into a result gives the same issues, in the same order,
+     * as computing it afresh
+     */
+    @Test
+    public void update_changedIssues_sameAsFullComputation() {
+        List<TurboIssue> issues = Arrays.asList(
+            issue(1, 2, true, "type.bug"), issue(2, 2, true), issue(3, 5, false, "type.bug"),
+            issue(4, 1, true, "type.feature"), issue(5, 2, true, "type.bug"));
+        MultiModel models = modelsWith(issues);
+        Model model = models.toModels().get(0);
+
+        List<FilterExpression> exprs = Arrays.asList(
+            Parser.parse("is:open"), Parser.parse("label:bug"), Parser.parse("-label:feature is:open"),
+            Parser.parse("issue"), Parser.parse("sort:type"));
+        List<FilterResult> results = new ArrayList<>();
+        exprs.forEach(expr -> results.add(FilterResult.compute(models, expr, byComments(models))));
+
+        // Close one issue, relabel another in place and add a third
+        TurboIssue closed = new TurboIssue(issues.get(1));
+        closed.setOpen(false);
+        TurboIssue commented = new TurboIssue(issues.get(4));
+        commented.setCommentCount(4);
+        Model updated = new Model(REPO,
+            TurboIssue.reconcile(model.getIssues(), Arrays.asList(closed, commented, issue(6, 2, true))),
+            LABELS, new ArrayList<>(), new ArrayList<>());
+        updated.inheritIssueIndex(model);
+        models.replace(Arrays.asList(updated));
+        updated.replaceIssueLabels(1, Arrays.asList("type.feature"));
+
+        for (int i = 0; i < exprs.size(); i++) {
+            FilterResult spliced = results.get(i).update(models, byComments(models));
+            FilterResult computed = FilterResult.compute(models, exprs.get(i), byComments(models));
+            assertNotSame(results.get(i), spliced);
+            assertEquals(exprs.get(i).toString(), computed.getIssues(), spliced.getIssues());
+        }
+    }
+
+    /**
+     * Tests that filtering and sorting in chunks in parallel gives the same issues, in the same order,
+     * as doing so serially
+     */
+    @Test
+    public void compute_parallel_sameAsSerial() {
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= 10000; i++) {
+            issues.add(issue(i, i % 7, i % 3 != 0, i % 2 == 0 ? "type.bug" : "type.feature"));
+        }
+        MultiModel models = modelsWith(issues);
+        List<FilterExpression> exprs = Arrays.asList(
+            Parser.parse("is:open"), Parser.parse("label:bug OR issue 12"), Parser.parse("sort:type"));
+
+        ParallelMapper parallel = new ParallelMapper(4);
+        List<List<TurboIssue>> parallelResults = parallel.map(exprs,
+            expr -> FilterResult.compute(models, expr, byComments(models)).getIssues());
+        parallel.shutdown();
+
+        for (int i = 0; i < exprs.size(); i++) {
+            assertEquals(FilterResult.compute(models, exprs.get(i), byComments(models)).getIssues(),
+                parallelResults.get(i));
+        }
+    }
+
+    /**
+     * Tests that the issues picked for a count qualifier are the first of those sorted in full,
+     * both when computed and when the picked issues change
+     */
+    @Test
+    public void count_sameAsFirstOfSorted() {
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= 10000; i++) {
+            issues.add(issue(i, i % 13, i % 3 != 0));
+        }
+        MultiModel models = modelsWith(issues);
+        Model model = models.toModels().get(0);
+        FilterExpression expr = Parser.parse("is:open count:20");
+        FilterResult result = FilterResult.compute(models, expr, byComments(models));
+
+        List<TurboIssue> all = FilterResult.compute(models, Parser.parse("is:open"), byComments(models)).getIssues();
+        assertEquals(all.subList(0, 20), result.getIssues());
+
+        // Close the issue with the most comments, so another must take its place
+        TurboIssue closed = new TurboIssue(result.getIssues().get(0));
+        closed.setOpen(false);
+        Model updated = new Model(REPO, TurboIssue.reconcile(model.getIssues(), Arrays.asList(closed)),
+            LABELS, new ArrayList<>(), new ArrayList<>());
+        updated.inheritIssueIndex(model);
+        models.replace(Arrays.asList(updated));
+
+        all = FilterResult.compute(models, Parser.parse("is:open"), byComments(models)).getIssues();
+        assertEquals(all.subList(0, 20), result.update(models, byComments(models)).getIssues());
+        assertEquals(0, FilterResult.compute(models, Parser.parse("count:0"), byComments(models))
+            .getIssues().size());
+    }
+
+    /**
+     * Tests that issues are in the same order however much of a lazily sorted result was read
+     * before it was updated
+     */
+    @Test
+    public void update_partlyRead_sameAsFullComputation() {
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            issues.add(issue(i, i % 17, true));
+        }
+        MultiModel models = modelsWith(issues);
+        Model model = models.toModels().get(0);
+        FilterExpression expr = Parser.parse("is:open");
+
+        List<FilterResult> results = new ArrayList<>();
+        for (int read : Arrays.asList(0, 1, 100, 1000)) {
+            FilterResult result = FilterResult.compute(models, expr, byComments(models));
+            if (read > 0) {
+                result.getIssues().get(read - 1);
+            }
+            results.add(result);
+        }
+
+        TurboIssue commented = new TurboIssue(issues.get(500));
+        commented.setCommentCount(100);
+        TurboIssue uncommented = new TurboIssue(issues.get(15));
+        uncommented.setCommentCount(0);
+        Model updated = new Model(REPO,
+            TurboIssue.reconcile(model.getIssues(), Arrays.asList(commented, uncommented, issue(1001, 8, true))),
+            LABELS, new ArrayList<>(), new ArrayList<>());
+        updated.inheritIssueIndex(model);
+        models.replace(Arrays.asList(updated));
+
+        List<TurboIssue> computed = FilterResult.compute(models, expr, byComments(models)).getIssues();
+        assertEquals(501, computed.get(0).getId());
+        for (FilterResult result : results) {
+            assertEquals(computed, result.update(models, byComments(models)).getIssues());
+        }
+    }
+
+    @Test
+    public void update_defaultRepoChanged_recomputed() {
+        MultiModel models = modelsWith(Arrays.asList(issue(1, 0, true)));
+        FilterExpression expr = Parser.parse("is:open");
+        FilterResult result = FilterResult.compute(models, expr, byComments(models));
+
+        models.setDefaultRepo("other/repo");
+        assertEquals(0, result.update(models, byComments(models)).getIssues().size());
+    }
+
+    private static List<Integer> ids(List<TurboIssue> issues) {
+        List<Integer> result = new ArrayList<>();
+        issues.forEach(issue -> result.add(issue.getId()));
+        return result;
+    }
+}
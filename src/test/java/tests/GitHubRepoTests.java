@@ -20,15 +20,15 @@ public class GitHubRepoTests {
     }
 
     /**
-     * GitHubRepo.getAllComments should return an empty list if the requested repository is invalid
+     * GitHubRepo.getUpdatedComments should return an empty list if the requested repository is invalid
      */
     @Test
-    public void testGetAllCommentsForInvalidRepo() {
+    public void testGetUpdatedCommentsForInvalidRepo() {
         GitHubRepo repo = new GitHubRepo();
         TurboIssue issue = new TurboIssue("repo", 1, "title", "owner", LocalDateTime.now(), false);
-        TurboIssue pullRequest = new TurboIssue("repo", 1, "title", "owner", LocalDateTime.now(), false);
+        TurboIssue pullRequest = new TurboIssue("repo", 1, "title", "owner", LocalDateTime.now(), true);
 
-        assertEquals(new ArrayList<>(), repo.getAllComments("owner/nonexistentrepo", issue));
-        assertEquals(new ArrayList<>(), repo.getAllComments("owner/nonexistentrepo", pullRequest));
+        assertEquals(new ArrayList<>(), repo.getUpdatedComments("owner/nonexistentrepo", issue, "").getLeft());
+        assertEquals(new ArrayList<>(), repo.getUpdatedComments("owner/nonexistentrepo", pullRequest, "").getLeft());
     }
 }
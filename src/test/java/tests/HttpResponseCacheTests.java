@@ -0,0 +1,164 @@
+package tests;
+
+import com.google.gson.reflect.TypeToken;
+import github.GitHubClientEx;
+import github.HttpResponseCache;
+import github.HttpResponseCache.CachedResponse;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.eclipse.egit.github.core.client.GitHubResponse;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockserver.model.HttpResponse.response;
+
+public class HttpResponseCacheTests {
+
+    private static final int PORT = 8891;
+    private static final String DIRECTORY = "store/test/responses";
+    private static final String URI = "/repos/" + TestUtils.REPO + "/milestones";
+    private static final String ETAG = "\"4c0ad3c08dc706b76d8277a88a4c037e\"";
+    private static final String BODY = "[{\"number\": 1, \"title\": \"V1\"}]";
+    private static final String NEXT = "http://localhost:" + PORT + TestUtils.API_PREFIX + URI + "?page=2";
+    private static final String LAST = "http://localhost:" + PORT + TestUtils.API_PREFIX + URI + "?page=3";
+    private static final String LINK = "<" + NEXT + ">; rel=\"next\", <" + LAST + ">; rel=\"last\"";
+
+    private static ClientAndServer server;
+
+    @BeforeClass
+    public static void startServer() {
+        server = ClientAndServer.startClientAndServer(PORT);
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+        new HttpResponseCache(DIRECTORY, Long.MAX_VALUE).clear();
+    }
+
+    @Before
+    public void reset() {
+        server.reset();
+        new HttpResponseCache(DIRECTORY, Long.MAX_VALUE).clear();
+    }
+
+    private static CachedResponse createResponse(int size) {
+        return new CachedResponse(ETAG, null, null, new byte[size]);
+    }
+
+    @Test
+    public void get_storedResponse_returned() {
+        HttpResponseCache cache = new HttpResponseCache(DIRECTORY, 10000);
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        cache.put("GET user /a", new CachedResponse(ETAG, "Sun, 27 Dec 2015 15:28:46 GMT", LINK, body));
+
+        CachedResponse cached = cache.get("GET user /a").get();
+        assertEquals(ETAG, cached.eTag);
+        assertEquals("Sun, 27 Dec 2015 15:28:46 GMT", cached.lastModified);
+        assertEquals(LINK, cached.link);
+        assertArrayEquals(body, cached.body);
+        assertFalse(cache.get("GET other /a").isPresent());
+    }
+
+    @Test
+    public void get_afterRestart_storedResponseReturned() {
+        new HttpResponseCache(DIRECTORY, 10000).put("GET user /a", createResponse(100));
+        assertEquals(100, new HttpResponseCache(DIRECTORY, 10000).get("GET user /a").get().body.length);
+    }
+
+    @Test
+    public void put_tooLarge_leastRecentlyUsedEvicted() {
+        HttpResponseCache cache = new HttpResponseCache(DIRECTORY, 2500);
+        cache.put("GET user /a", createResponse(1000));
+        cache.put("GET user /b", createResponse(1000));
+        cache.get("GET user /a");
+        cache.put("GET user /c", createResponse(1000));
+
+        assertTrue(cache.get("GET user /a").isPresent());
+        assertFalse(cache.get("GET user /b").isPresent());
+        assertTrue(cache.get("GET user /c").isPresent());
+    }
+
+    @Test
+    public void put_largerThanCache_notStored() {
+        HttpResponseCache cache = new HttpResponseCache(DIRECTORY, 500);
+        cache.put("GET user /a", createResponse(1000));
+        assertFalse(cache.get("GET user /a").isPresent());
+    }
+
+    /**
+     * Tests that a client with a response cache revalidates responses it has seen before, and answers
+     * requests for them from the cache when they are not modified
+     */
+    @Test
+    public void get_notModified_bodyFromCache() throws IOException {
+        HttpRequest conditionalRequest = HttpRequest.request()
+            .withMethod("GET")
+            .withPath(TestUtils.API_PREFIX + URI)
+            .withHeader("If-None-Match", ETAG);
+        HttpRequest anyRequest = HttpRequest.request()
+            .withMethod("GET")
+            .withPath(TestUtils.API_PREFIX + URI);
+        server.when(conditionalRequest).respond(response().withStatusCode(304).withHeader("ETag", ETAG));
+        server.when(anyRequest).respond(response().withStatusCode(200).withHeader("ETag", ETAG).withBody(BODY));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", PORT, "http")
+            .setResponseCache(new HttpResponseCache(DIRECTORY, 10000));
+        GitHubRequest request = new GitHubRequest();
+        request.setUri(URI);
+        request.setType(new TypeToken<List<Milestone>>() {}.getType());
+
+        for (int i = 0; i < 2; i++) {
+            @SuppressWarnings("unchecked")
+            List<Milestone> milestones = (List<Milestone>) client.get(request).getBody();
+            assertEquals(1, milestones.size());
+            assertEquals("V1", milestones.get(0).getTitle());
+        }
+        server.verify(conditionalRequest, VerificationTimes.exactly(1));
+        server.verify(anyRequest, VerificationTimes.exactly(2));
+    }
+
+    /**
+     * Tests that a page of a paged resource answered from the cache keeps its links to the other pages,
+     * which the 304 response does not repeat
+     */
+    @Test
+    public void get_notModifiedPage_linksFromCache() throws IOException {
+        HttpRequest conditionalRequest = HttpRequest.request()
+            .withMethod("GET")
+            .withPath(TestUtils.API_PREFIX + URI)
+            .withHeader("If-None-Match", ETAG);
+        HttpRequest anyRequest = HttpRequest.request()
+            .withMethod("GET")
+            .withPath(TestUtils.API_PREFIX + URI);
+        server.when(conditionalRequest).respond(response().withStatusCode(304).withHeader("ETag", ETAG));
+        server.when(anyRequest).respond(response().withStatusCode(200).withHeader("ETag", ETAG)
+            .withHeader("Link", LINK).withBody(BODY));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", PORT, "http")
+            .setResponseCache(new HttpResponseCache(DIRECTORY, 10000));
+        GitHubRequest request = new GitHubRequest();
+        request.setUri(URI);
+        request.setType(new TypeToken<List<Milestone>>() {}.getType());
+
+        for (int i = 0; i < 2; i++) {
+            GitHubResponse response = client.get(request);
+            assertEquals(NEXT, response.getNext());
+            assertEquals(LAST, response.getLast());
+        }
+        server.verify(conditionalRequest, VerificationTimes.exactly(1));
+    }
+}
@@ -0,0 +1,131 @@
+package tests;
+
+import backend.interfaces.IModel;
+import backend.resource.*;
+import backend.stub.DummyRepo;
+import filter.Parser;
+import filter.expression.CompiledFilter;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+import filter.expression.QualifierType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class IssueIndexTests {
+
+    private static final String REPO = "test/test";
+
+    private static Model dummyModel() {
+        DummyRepo dummy = new DummyRepo();
+        return new Model(REPO,
+            dummy.getIssues(REPO),
+            dummy.getLabels(REPO),
+            dummy.getMilestones(REPO),
+            dummy.getCollaborators(REPO));
+    }
+
+    /**
+     * Tests that index-backed evaluation selects the same issues, in the same order,
+     * as testing each issue against the expression
+     */
+    @Test
+    public void process_sameResultAsPerIssueEvaluation() {
+        Model model = dummyModel();
+        IModel models = TestUtils.singletonModel(model);
+
+        List<String> filters = Arrays.asList(
+            "", "is:open", "is:closed", "is:pr", "is:merged", "state:open", "type:issue",
+            "label:1", "label:label", "-label:2", "milestone:1", "milestone:milestone",
+            "assignee:user", "author:user", "involves:1", "has:label", "no:milestone",
+            "repo:" + REPO, "repo:other/repo", "issue 1", "title:issue", "id:>5",
+            "is:open OR label:3", "is:pr is:open -assignee:2", "(label:1 OR milestone:2) is:issue",
+            "is", "ue 1", "desc:issue", "in:description 1", "in:title iss", "title:\"issue 12\"",
+            "match:word issue", "match:word 1", "match:prefix iss", "match:prefix sue", "issue -desc:1");
+
+        for (String filter : filters) {
+            FilterExpression expr = Parser.parse(filter);
+            List<TurboIssue> expected = model.getIssues().stream()
+                .filter(issue -> Qualifier.process(models, expr, issue))
+                .collect(Collectors.toList());
+            assertEquals(filter, expected,
+                CompiledFilter.compile(models, expr).getMatchingIssues(Arrays.asList(model)));
+        }
+    }
+
+    /**
+     * Tests that a no qualifier without content matches nothing, as when testing each issue
+     */
+    @Test
+    public void process_noQualifierWithoutContent_noMatches() {
+        Model model = dummyModel();
+        IModel models = TestUtils.singletonModel(model);
+        Qualifier noContent = new Qualifier(QualifierType.NO, 1);
+
+        assertEquals(0, model.getIssues().stream()
+            .filter(issue -> Qualifier.process(models, noContent, issue))
+            .count());
+        assertEquals(0, CompiledFilter.compile(models, noContent).getMatchingIssues(Arrays.asList(model)).size());
+    }
+
+    /**
+     * Tests that an index derived from a previous model only differs where issues changed,
+     * and that an unchanged model keeps its index. Few enough issues change that the index is
+     * updated incrementally rather than rebuilt.
+     */
+    @Test
+    public void update_reindexesChangedIssues() {
+        TurboIssue open = new TurboIssue(REPO, 1, "open");
+        TurboIssue closed = new TurboIssue(REPO, 2, "closed");
+        closed.setOpen(false);
+        List<TurboIssue> issues = new ArrayList<>(Arrays.asList(open, closed));
+        for (int i = 3; i <= 6; i++) {
+            TurboIssue unchanged = new TurboIssue(REPO, i, "unchanged " + i);
+            unchanged.setOpen(false);
+            issues.add(unchanged);
+        }
+        TurboLabel label = new TurboLabel(REPO, "type.bug");
+        Model model = new Model(REPO, issues, Arrays.asList(label), new ArrayList<>(), new ArrayList<>());
+
+        IssueIndex index = model.getIssueIndex();
+        assertSame(index, model.getIssueIndex());
+        assertEquals(1, index.open().cardinality());
+
+        // 2 of 7 issues change, under the fraction past which the index is rebuilt
+        TurboIssue reopened = new TurboIssue(closed);
+        reopened.setOpen(true);
+        reopened.setTitle("reopened");
+        TurboIssue added = new TurboIssue(REPO, 7, "added");
+        added.setLabels(Arrays.asList("type.bug"));
+        Model updated = new Model(REPO, TurboIssue.reconcile(model.getIssues(), Arrays.asList(reopened, added)),
+                                  Arrays.asList(label), new ArrayList<>(), new ArrayList<>());
+        updated.inheritIssueIndex(model);
+
+        IssueIndex updatedIndex = updated.getIssueIndex();
+        assertEquals(7, updatedIndex.size());
+        assertEquals(3, updatedIndex.open().cardinality());
+        assertEquals(1, updatedIndex.withLabelMatching(name -> true).cardinality());
+        BitSet all = updatedIndex.all();
+        assertEquals(1, updatedIndex.withTitleMatching("open", TextMatch.WORD, all).cardinality());
+        assertEquals(2, updatedIndex.withTitleMatching("open", TextMatch.SUBSTRING, all).cardinality());
+        assertEquals(0, updatedIndex.withTitleMatching("closed", TextMatch.SUBSTRING, all).cardinality());
+        assertEquals(4, updatedIndex.withTitleMatching("unchanged", TextMatch.WORD, all).cardinality());
+        assertEquals(1, updatedIndex.withTitleMatching("added", TextMatch.SUBSTRING, all).cardinality());
+
+        // Labels replaced in place are picked up on the next request for the index
+        updated.replaceIssueLabels(1, Arrays.asList("type.bug"));
+        assertEquals(2, updated.getIssueIndex().withLabelMatching(name -> true).cardinality());
+
+        // The original index is not affected
+        assertEquals(1, index.open().cardinality());
+        assertEquals(1, index.withTitleMatching("closed", TextMatch.SUBSTRING, index.all()).cardinality());
+        assertEquals(0, index.withTitleMatching("added", TextMatch.SUBSTRING, index.all()).cardinality());
+    }
+}
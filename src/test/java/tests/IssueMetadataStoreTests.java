@@ -0,0 +1,172 @@
+package tests;
+
+import backend.IssueMetadata;
+import backend.RepoIO;
+import backend.interfaces.RepoSource;
+import backend.interfaces.RepoStore;
+import backend.json.JSONStore;
+import backend.resource.TurboIssue;
+import github.IssueEventType;
+import github.TurboIssueEvent;
+import guitests.UITest;
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.User;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ui.UI;
+import util.Utility;
+import util.events.EventDispatcherStub;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class IssueMetadataStoreTests {
+
+    private static final String REPO = "testrepo/testrepo";
+
+    @BeforeClass
+    public static void setup() {
+        UI.events = new EventDispatcherStub();
+    }
+
+    @Before
+    public void enableTestDirectory() {
+        RepoStore.changeDirectory(RepoStore.TEST_DIRECTORY);
+        UITest.clearTestFolder();
+    }
+
+    private static Date time(long seconds) {
+        return new Date(seconds * 1000);
+    }
+
+    private static IssueMetadata metadata() {
+        TurboIssueEvent labeled = new TurboIssueEvent(new User().setLogin("other"), IssueEventType.Labeled, time(100))
+            .setLabelName("type.bug").setLabelColour("ff0000");
+        TurboIssueEvent renamed = new TurboIssueEvent(new User().setLogin("self"), IssueEventType.Renamed, time(200));
+        renamed.setRenamedFrom("Old title");
+        renamed.setRenamedTo("New title");
+
+        Comment comment = new Comment();
+        comment.setId(5);
+        comment.setUser(new User().setLogin("other"));
+        comment.setBody("Not stored");
+        comment.setCreatedAt(time(300));
+        comment.setUpdatedAt(time(400));
+
+        return IssueMetadata.intermediate(Arrays.asList(labeled, renamed), Arrays.asList(comment),
+            "events-etag", "comments-etag").full("self");
+    }
+
+    @Test
+    public void metadata_savedAndLoaded_keepsEventsCommentsAndETags() throws Exception {
+        IssueMetadata original = metadata();
+        Map<Integer, IssueMetadata> toSave = new HashMap<>();
+        toSave.put(1, original);
+
+        JSONStore store = new JSONStore();
+        assertFalse(store.saveMetadata(REPO, toSave).get());
+        assertTrue(Files.isRegularFile(Paths.get("store/test/testrepo-testrepo.metadata")));
+
+        IssueMetadata loaded = store.loadMetadata(REPO).get().get(1);
+        assertFalse(loaded.isLatest());
+        assertEquals("events-etag", loaded.getEventsETag());
+        assertEquals("comments-etag", loaded.getCommentsETag());
+        assertEquals(original.getNonSelfUpdatedAt(), loaded.getNonSelfUpdatedAt());
+        assertEquals(1, loaded.getNonSelfCommentCount());
+
+        assertEquals(2, loaded.getEvents().size());
+        TurboIssueEvent labeled = loaded.getEvents().get(0);
+        assertEquals(IssueEventType.Labeled, labeled.getType());
+        assertEquals("other", labeled.getActor().getLogin());
+        assertEquals("type.bug", labeled.getLabelName());
+        assertEquals("ff0000", labeled.getLabelColour());
+        assertEquals(time(100), labeled.getDate());
+        assertEquals("New title", loaded.getEvents().get(1).getRenamedTo());
+
+        Comment comment = loaded.getComments().get(0);
+        assertEquals(5, comment.getId());
+        assertEquals("other", comment.getUser().getLogin());
+        assertEquals(time(400), comment.getUpdatedAt());
+    }
+
+    @Test
+    public void metadata_removedRepo_isCleared() throws Exception {
+        Map<Integer, IssueMetadata> toSave = new HashMap<>();
+        toSave.put(1, metadata());
+        JSONStore store = new JSONStore();
+        store.saveMetadata(REPO, toSave).get();
+
+        store.removeStoredRepo(REPO);
+        assertTrue(store.loadMetadata(REPO).get().isEmpty());
+    }
+
+    @Test
+    public void metadata_corruptedFile_loadsNothing() throws Exception {
+        Files.write(Paths.get("store/test/testrepo-testrepo.metadata"), "[{\"issueId\": 1, \"even".getBytes());
+        assertTrue(new JSONStore().loadMetadata(REPO).get().isEmpty());
+    }
+
+    /**
+     * Issues without metadata from this session are given their stored metadata before downloading,
+     * so that their first download can be a conditional request.
+     */
+    @Test
+    public void getIssueMetadata_storedMetadata_restoredBeforeDownload() throws Exception {
+        Map<Integer, IssueMetadata> stored = new HashMap<>();
+        stored.put(1, metadata());
+        new JSONStore().saveMetadata(REPO, stored).get();
+
+        RepoSource source = mock(RepoSource.class);
+        doReturn(CompletableFuture.completedFuture(new HashMap<>()))
+            .when(source).downloadMetadata(anyString(), anyListOf(TurboIssue.class), any());
+        RepoIO repoIO = new RepoIO(Optional.of(source), Optional.of(new JSONStore()), Optional.empty());
+
+        TurboIssue withStored = new TurboIssue(REPO, 1, "Issue 1");
+        TurboIssue withoutStored = new TurboIssue(REPO, 2, "Issue 2");
+        List<TurboIssue> issues = new ArrayList<>(Arrays.asList(withStored, withoutStored));
+        repoIO.getIssueMetadata(REPO, issues).get();
+
+        assertEquals("events-etag", withStored.getMetadata().getEventsETag());
+        assertEquals(2, withStored.getMetadata().getEvents().size());
+        assertEquals("", withoutStored.getMetadata().getEventsETag());
+    }
+
+    /**
+     * When events are unchanged, only their ETag is downloaded again, so the time of the latest event by
+     * others has to come from the existing events.
+     */
+    @Test
+    public void reconcile_unchangedEvents_keepsEventUpdateTime() {
+        IssueMetadata existing = metadata();
+        TurboIssueEvent lateEvent = new TurboIssueEvent(new User().setLogin("other"), IssueEventType.Closed,
+            time(1000));
+        List<TurboIssueEvent> existingEvents = new ArrayList<>(existing.getEvents());
+        existingEvents.add(lateEvent);
+
+        IssueMetadata downloaded = IssueMetadata.intermediate(new ArrayList<>(), existing.getComments(),
+            "events-etag", "comments-etag").full("self");
+        IssueMetadata reconciled = downloaded.reconcile(downloaded.getNonSelfUpdatedAt(), existingEvents,
+            "events-etag", existing.getComments(), "comments-etag");
+
+        assertEquals(3, reconciled.getEvents().size());
+        assertEquals(Utility.dateToLocalDateTime(time(1000)), reconciled.getNonSelfUpdatedAt());
+    }
+}
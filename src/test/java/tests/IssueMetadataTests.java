@@ -111,7 +111,7 @@ public class IssueMetadataTests {
 
         // Failed update
         List<TurboIssueEvent> newEvents = stubEvents();
-        IssueMetadata updated = derived.reconcile(rightNow, newEvents, "events2");
+        IssueMetadata updated = derived.reconcile(rightNow, newEvents, "events2", originalComments, "comments");
 
         assertEquals(originalEvents, updated.getEvents());
         assertEquals(originalComments, updated.getComments());
@@ -119,7 +119,7 @@ public class IssueMetadataTests {
         assertEquals("comments", updated.getCommentsETag());
 
         // Successful update
-        updated = derived.reconcile(rightNow, newEvents, "events");
+        updated = derived.reconcile(rightNow, newEvents, "events", originalComments, "comments");
 
         assertEquals(newEvents, updated.getEvents());
         assertEquals(originalComments, updated.getComments());
@@ -127,6 +127,30 @@ public class IssueMetadataTests {
         assertEquals("comments", updated.getCommentsETag());
     }
 
+    /**
+     * Comments are only downloaded when their ETag changes, so the existing comments, and what is computed
+     * from them, are kept when it does not.
+     */
+    @Test
+    public void reconcile_unchangedComments_keepsExistingComments() {
+        List<Comment> existingComments = stubComments();
+        IssueMetadata downloaded = IssueMetadata.intermediate(new ArrayList<>(), new ArrayList<>(),
+            "events", "comments").full("test");
+        LocalDateTime epoch = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.ofHours(0));
+
+        IssueMetadata unchanged = downloaded.reconcile(epoch, new ArrayList<>(), "events",
+            existingComments, "comments");
+        assertEquals(existingComments, unchanged.getComments());
+        assertEquals(2, unchanged.getNonSelfCommentCount());
+        assertEquals(Utility.dateToLocalDateTime(now), unchanged.getNonSelfUpdatedAt());
+
+        IssueMetadata changed = downloaded.reconcile(epoch, new ArrayList<>(), "events",
+            existingComments, "comments2");
+        assertEquals(0, changed.getComments().size());
+        assertEquals(0, changed.getNonSelfCommentCount());
+        assertEquals("comments", changed.getCommentsETag());
+    }
+
     private static List<TurboIssueEvent> stubEvents() {
         List<TurboIssueEvent> events = new ArrayList<>();
         events.add(new TurboIssueEvent(new User().setLogin("test"), IssueEventType.Closed, now));
@@ -1,5 +1,6 @@
 package tests;
 
+import backend.IssueMetadata;
 import backend.Logic;
 import backend.RepoIO;
 import backend.UIManager;
@@ -9,25 +10,34 @@ import backend.resource.MultiModel;
 import backend.resource.TurboIssue;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import prefs.Preferences;
 import ui.UI;
+import ui.components.StatusUIStub;
 import util.events.EventDispatcher;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 public class LogicTests {
@@ -38,7 +48,9 @@ public class LogicTests {
     public LogicTests() throws NoSuchFieldException, IllegalAccessException {
         Preferences mockedPreferences = mock(Preferences.class);
         when(mockedPreferences.getLastViewedRepository()).thenReturn(Optional.empty());
+        when(mockedPreferences.getLastLoginUsername()).thenReturn("testuser");
         UI.events = mock(EventDispatcher.class);
+        UI.status = new StatusUIStub();
 
         mockedRepoIO = mock(RepoIO.class);
         mockedMultiModel = mock(MultiModel.class);
@@ -47,6 +59,9 @@ public class LogicTests {
         Field repoOpControlField = logic.getClass().getDeclaredField("repoOpControl");
         repoOpControlField.setAccessible(true);
         repoOpControlField.set(logic, new RepoOpControl(mockedRepoIO));
+        Field repoIOField = logic.getClass().getDeclaredField("repoIO");
+        repoIOField.setAccessible(true);
+        repoIOField.set(logic, mockedRepoIO);
     }
 
     @Before
@@ -136,6 +151,40 @@ public class LogicTests {
                 .replaceIssueLabels(anyString(), anyInt(), anyListOf(String.class));
     }
 
+    /**
+     * Tests that metadata handed over in several chunks is inserted chunk by chunk but stored only once
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getIssueMetadata_severalChunks_savedOnce() throws ExecutionException, InterruptedException {
+        List<TurboIssue> issues = Arrays.asList(createIssueWithLabels(1, new ArrayList<>()),
+                                                createIssueWithLabels(2, new ArrayList<>()));
+        String repoId = issues.get(0).getRepoId();
+        when(mockedMultiModel.getModelById(repoId)).thenReturn(Optional.of(
+                new Model(repoId, issues, new ArrayList<>(), new ArrayList<>(), new ArrayList<>())));
+        when(mockedRepoIO.getIssueMetadata(eq(repoId), eq(issues), any(Consumer.class))).then(invocation -> {
+            Consumer<Map<Integer, IssueMetadata>> chunkListener =
+                    (Consumer<Map<Integer, IssueMetadata>>) invocation.getArguments()[2];
+            for (TurboIssue issue : issues) {
+                Map<Integer, IssueMetadata> chunk = new HashMap<>();
+                chunk.put(issue.getId(), IssueMetadata.intermediate(new ArrayList<>(), new ArrayList<>(), "", ""));
+                chunkListener.accept(chunk);
+            }
+            return CompletableFuture.completedFuture(new HashMap<>());
+        });
+        when(mockedRepoIO.saveIssueMetadata(anyString(), anyMapOf(Integer.class, IssueMetadata.class)))
+                .thenReturn(CompletableFuture.completedFuture(false));
+
+        assertTrue(logic.getIssueMetadata(repoId, issues).get());
+
+        verify(mockedMultiModel, times(2)).insertMetadata(eq(repoId), anyMapOf(Integer.class, IssueMetadata.class),
+                                                          anyString());
+        ArgumentCaptor<Map<Integer, IssueMetadata>> saved =
+                ArgumentCaptor.forClass((Class<Map<Integer, IssueMetadata>>) (Class<?>) Map.class);
+        verify(mockedRepoIO, times(1)).saveIssueMetadata(eq(repoId), saved.capture());
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), saved.getValue().keySet());
+    }
+
     private void mockRepoIOReplaceIssueLabelsResult(boolean replaceResult) {
         when(mockedRepoIO.replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class)))
                 .thenReturn(CompletableFuture.completedFuture(replaceResult));
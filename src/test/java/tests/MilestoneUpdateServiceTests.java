@@ -11,6 +11,7 @@ import org.mockserver.client.server.MockServerClient;
 import org.mockserver.junit.MockServerRule;
 import org.mockserver.model.Header;
 import org.mockserver.model.HttpRequest;
+import org.mockserver.verify.VerificationTimes;
 import util.Utility;
 
 import java.io.IOException;
@@ -26,6 +27,8 @@ public class MilestoneUpdateServiceTests {
 
     private final MockServerClient mockServer = new MockServerClient("localhost", 8888);
     private static final String resourceDir = "tests/PagedMilestonesSample/";
+    private static final String PAGE1_ETAG = "4c0ad3c08dc706b76d8277a88a4c037e";
+    private static final String PAGE2_ETAG = "4b56f029e953e9983344b9e0b60d9a71";
 
     private final String page1Header;
     private final String page1;
@@ -41,17 +44,18 @@ public class MilestoneUpdateServiceTests {
 
     @Before
     public void setUpMockServer() {
+        mockPages("teammates/repo");
+    }
+
+    /**
+     * Serves both pages of milestones of a repo, in full, whatever ETags are sent
+     */
+    private void mockPages(String repoId) {
         List<Header> page1Headers = TestUtils.parseHeaderRecord(page1Header);
         List<Header> page2Headers = TestUtils.parseHeaderRecord(page2Header);
 
         mockServer.when(
-                createMockServerRequest("HEAD", 1)
-        ).respond(
-                response().withHeaders(page1Headers)
-        );
-
-        mockServer.when(
-                createMockServerRequest("GET", 1)
+                createMockServerRequest("GET", 1, repoId)
         ).respond(
                 response()
                         .withHeaders(page1Headers)
@@ -59,17 +63,26 @@ public class MilestoneUpdateServiceTests {
         );
 
         mockServer.when(
-                createMockServerRequest("HEAD", 2)
+                createMockServerRequest("GET", 2, repoId)
         ).respond(
-                response().withHeaders(page2Headers)
+                response()
+                        .withHeaders(page2Headers)
+                        .withBody(page2)
         );
+    }
 
+    /**
+     * Answers requests for a page of milestones of a repo with 304 Not Modified if they are conditional
+     * on the given ETag. Must be set up before mockPages, as the first matching expectation is used.
+     */
+    private void mockNotModified(String repoId, int page, String eTag) {
         mockServer.when(
-                createMockServerRequest("GET", 2)
+                createMockServerRequest("GET", page, repoId).withHeader("If-None-Match", "\"" + eTag + "\"")
         ).respond(
                 response()
-                        .withHeaders(page2Headers)
-                        .withBody(page2)
+                        .withStatusCode(304)
+                        .withHeader("ETag", "\"" + eTag + "\"")
+                        .withHeader("Date", "Mon, 28 Dec 2015 10:00:00 GMT")
         );
     }
 
@@ -112,7 +125,81 @@ public class MilestoneUpdateServiceTests {
                 service.getUpdatedCheckTime());
     }
 
-    private static HttpRequest createMockServerRequest(String method, int page) {
-        return TestUtils.createMockServerRequest(method, page, "teammates/repo", "19369035", "/milestones");
+    /**
+     * Tests that getUpdatedItems only makes one conditional request per page, and returns empty result,
+     * if no page is modified. The check time should reflect the first page's Date header
+     */
+    @Test
+    public void testGetUpdatedMilestonesNotModified() {
+        mockServer.reset();
+        mockNotModified("teammates/repo", 1, PAGE1_ETAG);
+        mockNotModified("teammates/repo", 2, PAGE2_ETAG);
+        mockPages("teammates/repo");
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        String previousETags = PAGE1_ETAG + "#" + PAGE2_ETAG;
+        MilestoneUpdateService service = new MilestoneUpdateService(client, previousETags);
+
+        List<Milestone> milestones = service.getUpdatedItems(RepositoryId.createFromId("teammates/repo"));
+
+        assertTrue(milestones.isEmpty());
+        assertEquals(previousETags, service.getUpdatedETags());
+        assertEquals(Utility.parseHTTPLastModifiedDate("Mon, 28 Dec 2015 10:00:00 GMT"),
+                service.getUpdatedCheckTime());
+        mockServer.verify(createMockServerRequest("GET", 1, "teammates/repo"), VerificationTimes.exactly(1));
+        mockServer.verify(createMockServerRequest("GET", 2, "teammates/repo"), VerificationTimes.exactly(1));
+    }
+
+    /**
+     * Tests that getUpdatedItems returns all milestones when only the 2nd page is modified, taking the
+     * 1st page from the pages downloaded by an earlier update rather than downloading it again
+     */
+    @Test
+    public void testGetUpdatedMilestonesUnmodifiedPageFromCache() {
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        new MilestoneUpdateService(client, "").getUpdatedItems(RepositoryId.createFromId("teammates/repo"));
+
+        mockServer.reset();
+        mockNotModified("teammates/repo", 1, PAGE1_ETAG);
+        mockPages("teammates/repo");
+
+        MilestoneUpdateService service = new MilestoneUpdateService(client, PAGE1_ETAG + "#ffffff");
+        List<Milestone> milestones = service.getUpdatedItems(RepositoryId.createFromId("teammates/repo"));
+
+        assertEquals(188, milestones.size());
+        assertEquals(PAGE1_ETAG + "#" + PAGE2_ETAG, service.getUpdatedETags());
+        mockServer.verify(createMockServerRequest("GET", 1, "teammates/repo"), VerificationTimes.exactly(1));
+        mockServer.verify(createMockServerRequest("GET", 2, "teammates/repo"), VerificationTimes.exactly(1));
+    }
+
+    /**
+     * Tests that getUpdatedItems downloads an unmodified page again when another page is modified,
+     * if it was not downloaded before, e.g. after a restart
+     */
+    @Test
+    public void testGetUpdatedMilestonesUnmodifiedPageNotCached() {
+        mockServer.reset();
+        mockNotModified("teammates/uncached", 1, PAGE1_ETAG);
+        mockPages("teammates/uncached");
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        MilestoneUpdateService service = new MilestoneUpdateService(client, PAGE1_ETAG + "#ffffff");
+        List<Milestone> milestones = service.getUpdatedItems(RepositoryId.createFromId("teammates/uncached"));
+
+        assertEquals(188, milestones.size());
+        assertEquals(PAGE1_ETAG + "#" + PAGE2_ETAG, service.getUpdatedETags());
+        mockServer.verify(createMockServerRequest("GET", 1, "teammates/uncached"), VerificationTimes.exactly(2));
+    }
+
+    /**
+     * Pages after the first are requested through the repo id, as in the sample Link headers,
+     * or by page number when a page is not modified and its Link header is not known
+     */
+    private static HttpRequest createMockServerRequest(String method, int page, String repoId) {
+        HttpRequest request = TestUtils.createMockServerRequest(method, page, repoId, "19369035", "/milestones");
+        if (page > 1 && !"teammates/repo".equals(repoId)) {
+            request.withPath(TestUtils.API_PREFIX + "/repos/" + repoId + "/milestones");
+        }
+        return request;
     }
 }
@@ -303,4 +303,26 @@ public class ModelTests {
         assertEquals(1, result.get().getId());
         assertEquals(newLabels, result.get().getLabels());
     }
+
+    /**
+     * Tests that lookups resolve to the first matching resource, as a linear scan would,
+     * and that in-place label replacement is visible through the issue index
+     */
+    @Test
+    public void lookups_firstMatchAndConsistentAfterLabelReplacement() {
+        String repoId = "testowner/testrepo";
+        TurboIssue issue = new TurboIssue(repoId, 1, "first");
+        TurboIssue duplicate = new TurboIssue(repoId, 1, "duplicate");
+        TurboMilestone milestone = new TurboMilestone(repoId, 1, "v1");
+        TurboMilestone sameTitle = new TurboMilestone(repoId, 2, "v1");
+
+        Model model = new Model(repoId, Arrays.asList(issue, duplicate), new ArrayList<>(),
+                                Arrays.asList(milestone, sameTitle), new ArrayList<>());
+        assertEquals("first", model.getIssueById(1).get().getTitle());
+        assertEquals(1, model.getMilestoneByTitle("v1").get().getId());
+        assertEquals(2, model.getMilestoneById(2).get().getId());
+
+        model.replaceIssueLabels(1, Arrays.asList("label1"));
+        assertEquals(Arrays.asList("label1"), model.getIssueById(1).get().getLabels());
+    }
 }
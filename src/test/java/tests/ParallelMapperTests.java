@@ -0,0 +1,47 @@
+package tests;
+
+import org.junit.Test;
+import util.ParallelMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelMapperTests {
+
+    @Test
+    public void map_preservesInputOrder() {
+        List<Integer> inputs = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        List<Integer> expected = inputs.stream().map(i -> i * i).collect(Collectors.toList());
+
+        ParallelMapper parallel = new ParallelMapper(4);
+        assertTrue(parallel.isParallel());
+        assertEquals(expected, parallel.map(inputs, i -> i * i));
+        assertEquals(new ArrayList<>(), parallel.map(new ArrayList<Integer>(), i -> i * i));
+        parallel.shutdown();
+
+        ParallelMapper serial = new ParallelMapper(1);
+        assertFalse(serial.isParallel());
+        assertEquals(expected, serial.map(inputs, i -> i * i));
+    }
+
+    @Test
+    public void inParallelMapper_onlyInParallelPool() {
+        assertFalse(ParallelMapper.inParallelMapper());
+
+        ParallelMapper parallel = new ParallelMapper(2);
+        List<Boolean> inParallel = parallel.map(new ArrayList<>(IntStream.range(0, 4).boxed()
+            .collect(Collectors.toList())), i -> ParallelMapper.inParallelMapper());
+        parallel.shutdown();
+        inParallel.forEach(org.junit.Assert::assertTrue);
+
+        List<Boolean> inSerial = new ParallelMapper(1).map(new ArrayList<>(IntStream.range(0, 4).boxed()
+            .collect(Collectors.toList())), i -> ParallelMapper.inParallelMapper());
+        inSerial.forEach(org.junit.Assert::assertFalse);
+    }
+}
@@ -0,0 +1,129 @@
+package tests;
+
+import com.google.gson.reflect.TypeToken;
+import github.GitHubClientEx;
+import github.ParallelPageDownloader;
+import org.eclipse.egit.github.core.Issue;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockserver.model.HttpResponse.response;
+
+public class ParallelPageDownloaderTests {
+
+    private static final int PORT = 8890;
+    private static final String URI = "/repos/" + TestUtils.REPO + "/issues";
+
+    private static ClientAndServer server;
+
+    @BeforeClass
+    public static void startServer() {
+        server = ClientAndServer.startClientAndServer(PORT);
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+    }
+
+    @Before
+    public void reset() {
+        server.reset();
+    }
+
+    private static HttpRequest pageRequest(int page) {
+        return HttpRequest.request()
+            .withMethod("GET")
+            .withPath(TestUtils.API_PREFIX + URI)
+            .withQueryStringParameter("state", "all")
+            .withQueryStringParameter("per_page", "100")
+            .withQueryStringParameter("page", Integer.toString(page));
+    }
+
+    /**
+     * Serves pages of two issues each, numbered in page order.
+     */
+    private static void servePages(int pageCount, String rateLimitRemaining) {
+        String last = String.format("<http://localhost:%d%s/repositories/1/issues?state=all&per_page=100&page=%d>;"
+            + " rel=\"last\"", PORT, TestUtils.API_PREFIX, pageCount);
+        for (int page = 1; page <= pageCount; page++) {
+            String body = String.format("[{\"number\": %d}, {\"number\": %d}]", page * 2 - 1, page * 2);
+            server.when(pageRequest(page)).respond(response()
+                .withStatusCode(200)
+                .withHeader("Link", page == pageCount ? "" : last)
+                .withHeader("X-RateLimit-Remaining", rateLimitRemaining)
+                .withBody(body));
+        }
+    }
+
+    private static List<Integer> download(List<int[]> progress) {
+        Map<String, String> params = new HashMap<>();
+        params.put("state", "all");
+        ParallelPageDownloader downloader =
+            new ParallelPageDownloader(new GitHubClientEx("localhost", PORT, "http"), 4);
+        List<Issue> issues = downloader.getAll(URI, params, new TypeToken<List<Issue>>() {}.getType(),
+            (pagesDownloaded, pageCount) -> progress.add(new int[]{pagesDownloaded, pageCount}));
+        return issues.stream().map(Issue::getNumber).collect(Collectors.toList());
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Test
+    public void getAll_manyPages_mergedInPageOrder() {
+        servePages(10, "5000");
+        List<int[]> progress = new ArrayList<>();
+
+        assertEquals(range(1, 20), download(progress));
+        assertEquals(10, progress.size());
+        for (int i = 0; i < progress.size(); i++) {
+            assertEquals(i + 1, progress.get(i)[0]);
+            assertEquals(10, progress.get(i)[1]);
+        }
+    }
+
+    @Test
+    public void getAll_singlePage_downloadedOnce() {
+        servePages(1, "5000");
+        List<int[]> progress = new ArrayList<>();
+
+        assertEquals(range(1, 2), download(progress));
+        assertEquals(1, progress.size());
+    }
+
+    @Test
+    public void getAll_lowRateLimit_stillDownloadsEveryPage() {
+        servePages(6, Integer.toString(GitHubClientEx.LOW_RATE_LIMIT - 1));
+        assertEquals(range(1, 12), download(new ArrayList<>()));
+    }
+
+    @Test
+    public void getAll_failedPage_pagesBeforeItReturned() {
+        server.when(pageRequest(3)).respond(response().withStatusCode(500));
+        servePages(5, "5000");
+
+        assertEquals(range(1, 4), download(new ArrayList<>()));
+    }
+
+    @Test
+    public void getAll_failedFirstPage_nothingReturned() {
+        server.when(pageRequest(1)).respond(response().withStatusCode(500));
+        assertEquals(new ArrayList<Integer>(), download(new ArrayList<>()));
+    }
+}
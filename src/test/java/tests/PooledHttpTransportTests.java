@@ -0,0 +1,127 @@
+package tests;
+
+import github.PooledHttpTransport;
+import org.junit.Test;
+import util.AtomicMaxInteger;
+import util.IOUtilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class PooledHttpTransportTests {
+
+    private static final String BODY = "[{\"number\": 1, \"title\": \"Issue 1\"}]";
+
+    private static HttpURLConnection createConnection(String contentEncoding) throws IOException {
+        return new HttpURLConnection(new URL("http://localhost:8892/issues")) {
+            @Override
+            public String getContentEncoding() {
+                return contentEncoding;
+            }
+
+            @Override
+            public void connect() {}
+
+            @Override
+            public void disconnect() {}
+
+            @Override
+            public boolean usingProxy() {
+                return false;
+            }
+        };
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        return IOUtilities.inputStreamToByteArrayOutputStream(stream).toString(StandardCharsets.UTF_8.name());
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream stream = new GZIPOutputStream(bytes)) {
+            stream.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void open_asksForGzip() throws IOException {
+        HttpURLConnection connection = new PooledHttpTransport().open(new URL("http://localhost:8892/issues"));
+        assertEquals("gzip", connection.getRequestProperty("Accept-Encoding"));
+    }
+
+    @Test
+    public void decode_gzippedBody_decompressed() throws IOException {
+        InputStream body = new ByteArrayInputStream(gzip(BODY));
+        assertEquals(BODY, read(new PooledHttpTransport().decode(createConnection("gzip"), body)));
+    }
+
+    @Test
+    public void decode_uncompressedBody_unchanged() throws IOException {
+        InputStream body = new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8));
+        assertEquals(BODY, read(new PooledHttpTransport().decode(createConnection(null), body)));
+    }
+
+    @Test
+    public void decode_uncompressedBodyLabelledGzip_unchanged() throws IOException {
+        InputStream body = new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8));
+        assertEquals(BODY, read(new PooledHttpTransport().decode(createConnection("gzip"), body)));
+    }
+
+    @Test
+    public void decode_emptyGzippedBody_empty() throws IOException {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        assertEquals("", read(new PooledHttpTransport().decode(createConnection("gzip"), body)));
+    }
+
+    @Test
+    public void send_manyRequests_limitedPerHost() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(2);
+        AtomicMaxInteger counter = new AtomicMaxInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requests.add(CompletableFuture.runAsync(() -> {
+                try {
+                    transport.send("api.github.com", () -> {
+                        counter.increment();
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        counter.decrement();
+                        return null;
+                    });
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[requests.size()])).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(2, counter.getMax());
+    }
+
+    @Test
+    public void send_nestedRequestToSameHost_notBlocked() throws IOException {
+        PooledHttpTransport transport = new PooledHttpTransport(1);
+        assertEquals("done", transport.send("api.github.com", () -> transport.send("api.github.com", () -> "done")));
+    }
+}
@@ -10,6 +10,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.Test;
 
@@ -17,6 +18,7 @@ import backend.interfaces.IModel;
 import backend.resource.*;
 import filter.Parser;
 import filter.expression.FilterExpression;
+import filter.expression.KeyedIssueComparator;
 import filter.expression.Qualifier;
 import filter.expression.QualifierType;
 
@@ -536,10 +538,20 @@ public class QualifierTests {
     private void assertSorted(List<TurboIssue> issues, List<Integer> expectedIds,
                                   IModel model, String sortCriteria, 
                                   boolean isInverted, boolean isNonSelfUpdate) {
-        Collections.sort(issues, 
-            Qualifier.getSortComparator(model, sortCriteria, isInverted, isNonSelfUpdate));
-        
+        KeyedIssueComparator comparator =
+            Qualifier.getSortComparator(model, sortCriteria, isInverted, isNonSelfUpdate);
+        List<TurboIssue> unsorted = new ArrayList<>(issues);
+        Collections.sort(issues, comparator);
+
         assertEquals(expectedIds, getIds(issues));
+
+        // Sorting by keys looked up in advance gives the same order
+        List<Object[]> keys = unsorted.stream().map(comparator::keyOf).collect(Collectors.toList());
+        List<Integer> keyOrder = IntStream.range(0, unsorted.size()).boxed()
+            .sorted((a, b) -> comparator.compareKeys(keys.get(a), keys.get(b)))
+            .map(i -> unsorted.get(i).getId())
+            .collect(Collectors.toList());
+        assertEquals(expectedIds, keyOrder);
     }
 
     /**
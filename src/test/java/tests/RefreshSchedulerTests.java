@@ -0,0 +1,81 @@
+package tests;
+
+import backend.RefreshScheduler;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class RefreshSchedulerTests {
+
+    private static final long NOW = 1451230000000L;
+    private static final long HOUR = 3600 * 1000;
+
+    /**
+     * Runs refresh cycles which each use the given number of requests, starting from the given number
+     * of remaining requests
+     */
+    private static RefreshScheduler runCycles(int remaining, int cost, int cycles) {
+        RefreshScheduler scheduler = new RefreshScheduler();
+        scheduler.updateRateLimits(remaining, NOW + HOUR);
+        for (int i = 0; i < cycles; i++) {
+            scheduler.refreshStarted();
+            remaining -= cost;
+            scheduler.updateRateLimits(remaining, NOW + HOUR);
+        }
+        scheduler.refreshStarted();
+        return scheduler;
+    }
+
+    @Test
+    public void getPeriod_noRateLimits_minPeriod() {
+        assertEquals(RefreshScheduler.MIN_PERIOD, new RefreshScheduler().getPeriod(NOW));
+    }
+
+    @Test
+    public void getEstimatedCost_averageOfRecentCycles() {
+        RefreshScheduler scheduler = new RefreshScheduler();
+        scheduler.updateRateLimits(5000, NOW + HOUR);
+        scheduler.refreshStarted();
+        scheduler.updateRateLimits(4990, NOW + HOUR);
+        scheduler.refreshStarted();
+        scheduler.updateRateLimits(4960, NOW + HOUR);
+        scheduler.refreshStarted();
+
+        assertEquals(20, scheduler.getEstimatedCost());
+    }
+
+    @Test
+    public void getEstimatedCost_cycleAcrossReset_notCounted() {
+        RefreshScheduler scheduler = new RefreshScheduler();
+        scheduler.updateRateLimits(100, NOW);
+        scheduler.refreshStarted();
+        scheduler.updateRateLimits(4990, NOW + HOUR);
+        scheduler.refreshStarted();
+
+        assertEquals(1, scheduler.getEstimatedCost());
+    }
+
+    @Test
+    public void getPeriod_cheapRefreshes_minPeriod() {
+        assertEquals(RefreshScheduler.MIN_PERIOD, runCycles(5000, 10, 3).getPeriod(NOW));
+    }
+
+    @Test
+    public void getPeriod_expensiveRefreshes_stretched() {
+        // 4200 usable requests at 150 requests a refresh afford 28 refreshes in the hour left
+        RefreshScheduler scheduler = runCycles(4850, 150, 3);
+        assertEquals(3600 / 28 + 1, scheduler.getPeriod(NOW));
+    }
+
+    @Test
+    public void getPeriod_fewRequestsRemaining_waitsForReset() {
+        RefreshScheduler scheduler = runCycles(RefreshScheduler.RESERVED_REQUESTS + 100, 50, 2);
+        assertEquals(3600 + 5, scheduler.getPeriod(NOW));
+    }
+
+    @Test
+    public void getPeriod_afterReset_minPeriod() {
+        RefreshScheduler scheduler = runCycles(RefreshScheduler.RESERVED_REQUESTS + 100, 50, 2);
+        assertEquals(RefreshScheduler.MIN_PERIOD, scheduler.getPeriod(NOW + HOUR));
+    }
+}
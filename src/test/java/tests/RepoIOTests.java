@@ -3,10 +3,12 @@ package tests;
 import backend.IssueMetadata;
 import backend.RepoIO;
 import backend.interfaces.RepoSource;
+import backend.json.JSONStoreStub;
 import backend.resource.TurboIssue;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,19 +22,21 @@ import static org.mockito.Mockito.*;
 public class RepoIOTests {
     /**
      * Tests that RepoIO's getIssueMetadata calls RepoSource's downloadMetaData method and
-     * receives a corresponding CompletableFuture response
+     * receives its response, once any stored metadata is loaded
      */
     @Test
-    public void testGetIssueMetaData() {
+    public void testGetIssueMetaData() throws Exception {
         RepoSource source = mock(RepoSource.class);
-        CompletableFuture<Map<Integer, IssueMetadata>> response = new CompletableFuture<>();
-        doReturn(response).when(source).downloadMetadata(anyString(), anyListOf(TurboIssue.class));
+        Map<Integer, IssueMetadata> metadata = new HashMap<>();
+        CompletableFuture<Map<Integer, IssueMetadata>> response = CompletableFuture.completedFuture(metadata);
+        doReturn(response).when(source).downloadMetadata(anyString(), anyListOf(TurboIssue.class), any());
 
-        RepoIO repoIO = new RepoIO(Optional.of(source), Optional.empty(), Optional.empty());
-        CompletableFuture result = repoIO.getIssueMetadata("test/test", new ArrayList<>());
+        RepoIO repoIO = new RepoIO(Optional.of(source), Optional.of(new JSONStoreStub()), Optional.empty());
+        CompletableFuture<Map<Integer, IssueMetadata>> result =
+            repoIO.getIssueMetadata("test/test", new ArrayList<>());
 
-        verify(source, times(1)).downloadMetadata(anyString(), anyListOf(TurboIssue.class));
-        assertEquals(response, result);
+        assertEquals(metadata, result.get());
+        verify(source, times(1)).downloadMetadata(anyString(), anyListOf(TurboIssue.class), any());
     }
 
     /**
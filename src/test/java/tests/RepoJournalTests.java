@@ -0,0 +1,224 @@
+package tests;
+
+import backend.UpdateSignature;
+import backend.binary.BinaryStore;
+import backend.interfaces.RepoStore;
+import backend.json.JSONStore;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import backend.resource.serialization.SerializableChanges;
+import backend.resource.serialization.SerializableModel;
+import guitests.UITest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ui.UI;
+import util.events.EventDispatcherStub;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RepoJournalTests {
+
+    private static final String REPO = "testrepo/testrepo";
+    private static final Path JOURNAL = Paths.get("store/test/testrepo-testrepo.journal");
+    private static final Path JSON_FILE = Paths.get("store/test/testrepo-testrepo.json");
+
+    @BeforeClass
+    public static void setup() {
+        UI.events = new EventDispatcherStub();
+    }
+
+    @Before
+    public void enableTestDirectory() {
+        RepoStore.changeDirectory(RepoStore.TEST_DIRECTORY);
+        UITest.clearTestFolder();
+    }
+
+    private static Model model(int issueCount, String eTag) {
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= issueCount; i++) {
+            TurboIssue issue = new TurboIssue(REPO, i, "Issue " + i);
+            issue.setDescription("A description long enough to make the issue take some space " + i);
+            issues.add(issue);
+        }
+        return new Model(REPO, issues, Arrays.asList(new TurboLabel(REPO, "type.bug")), new ArrayList<>(),
+            new ArrayList<>(), new UpdateSignature(eTag, null, null, null, new Date()));
+    }
+
+    /**
+     * @return the model after changing the title of an issue and adding another one
+     */
+    private static Model update(Model model, int changedId, String eTag) {
+        List<TurboIssue> issues = model.getIssues();
+        TurboIssue changed = new TurboIssue(issues.get(changedId - 1));
+        changed.setTitle("Changed " + eTag);
+        issues.set(changedId - 1, changed);
+        issues.add(new TurboIssue(REPO, issues.size() + 1, "New " + eTag));
+        return new Model(REPO, issues, Arrays.asList(new TurboLabel(REPO, "type.bug"),
+            new TurboLabel(REPO, "type.feature")), new ArrayList<>(), new ArrayList<>(),
+            new UpdateSignature(eTag, null, null, null, new Date()));
+    }
+
+    private static boolean saveChanges(RepoStore store, Model previous, Model current) throws Exception {
+        SerializableChanges changes = SerializableChanges.between(previous, current).get();
+        return store.saveRepositoryChanges(REPO, changes, () -> new SerializableModel(current)).get();
+    }
+
+    @Test
+    public void saveChanges_appended_replayedOnLoad() throws Exception {
+        JSONStore store = new JSONStore();
+        Model original = model(100, "a");
+        store.saveRepository(REPO, new SerializableModel(original)).get();
+        byte[] snapshot = Files.readAllBytes(JSON_FILE);
+
+        Model first = update(original, 3, "b");
+        Model second = update(first, 50, "c");
+        assertFalse(saveChanges(store, original, first));
+        assertFalse(saveChanges(store, first, second));
+
+        // Only the journal was written to
+        assertTrue(Arrays.equals(snapshot, Files.readAllBytes(JSON_FILE)));
+        assertEquals(2, Files.readAllLines(JOURNAL).size());
+        assertEquals(second, store.loadRepository(REPO).get());
+        assertEquals(second, new BinaryStore().loadRepository(REPO).get());
+    }
+
+    @Test
+    public void saveChanges_notSavedBefore_savedInFull() throws Exception {
+        JSONStore store = new JSONStore();
+        Model original = model(10, "a");
+        Model updated = update(original, 1, "b");
+
+        assertFalse(saveChanges(store, original, updated));
+        assertFalse(Files.exists(JOURNAL));
+        assertEquals(updated, store.loadRepository(REPO).get());
+    }
+
+    /**
+     * Tests that changes are not appended to a stored repo which cannot be loaded, but saved in full over it
+     */
+    @Test
+    public void saveChanges_corruptedSave_savedInFull() throws Exception {
+        JSONStore store = new JSONStore();
+        Model original = model(100, "a");
+        store.saveRepository(REPO, new SerializableModel(original)).get();
+        byte[] saved = Files.readAllBytes(JSON_FILE);
+        Files.write(JSON_FILE, Arrays.copyOf(saved, saved.length / 2));
+        Model updated = update(original, 3, "b");
+
+        assertFalse(saveChanges(store, original, updated));
+        assertFalse(Files.exists(JOURNAL));
+        assertEquals(updated, store.loadRepository(REPO).get());
+        assertEquals(Arrays.asList(REPO), store.getStoredRepos());
+    }
+
+    /**
+     * Tests that changes made to a model other than the stored one, e.g. one downloaded again,
+     * are not appended to the stored repo
+     */
+    @Test
+    public void saveChanges_otherBase_savedInFull() throws Exception {
+        JSONStore store = new JSONStore();
+        Model stale = model(100, "a");
+        store.saveRepository(REPO, new SerializableModel(stale)).get();
+        assertFalse(saveChanges(store, stale, update(stale, 3, "b")));
+
+        Model downloaded = update(model(100, "a"), 5, "c");
+        Model updated = update(downloaded, 6, "d");
+        assertFalse(saveChanges(store, downloaded, updated));
+        assertFalse(Files.exists(JOURNAL));
+        assertEquals(updated, store.loadRepository(REPO).get());
+    }
+
+    @Test
+    public void load_journalNotFollowingSave_discarded() throws Exception {
+        JSONStore store = new JSONStore();
+        Model original = model(100, "a");
+        store.saveRepository(REPO, new SerializableModel(original)).get();
+        saveChanges(store, original, update(original, 3, "b"));
+        byte[] journal = Files.readAllBytes(JOURNAL);
+
+        Model other = model(100, "x");
+        store.saveRepository(REPO, new SerializableModel(other)).get();
+        Files.write(JOURNAL, journal);
+        assertEquals(other, store.loadRepository(REPO).get());
+    }
+
+    @Test
+    public void saveChanges_journalPastRatio_compacted() throws Exception {
+        BinaryStore store = new BinaryStore();
+        Model model = model(10, "a");
+        store.saveRepository(REPO, new SerializableModel(model)).get();
+
+        for (int i = 0; i < 10; i++) {
+            Model updated = update(model, 1 + i, "e" + i);
+            assertFalse(saveChanges(store, model, updated));
+            model = updated;
+        }
+        // The full save is queued behind the last changes
+        assertEquals(model, store.loadRepository(REPO).get());
+        assertTrue(!Files.exists(JOURNAL) || Files.readAllLines(JOURNAL).size() < 10);
+    }
+
+    @Test
+    public void load_partlyWrittenJournal_discarded() throws Exception {
+        JSONStore store = new JSONStore();
+        Model original = model(100, "a");
+        store.saveRepository(REPO, new SerializableModel(original)).get();
+        Model updated = update(original, 3, "b");
+        saveChanges(store, original, updated);
+        long completeLength = Files.size(JOURNAL);
+
+        Files.write(JOURNAL, "{\"repoId\":\"testrepo/tes".getBytes("UTF-8"), StandardOpenOption.APPEND);
+        assertEquals(updated, store.loadRepository(REPO).get());
+        assertEquals(completeLength, Files.size(JOURNAL));
+
+        // Later changes are still replayed
+        Model later = update(updated, 4, "c");
+        saveChanges(store, updated, later);
+        assertEquals(later, store.loadRepository(REPO).get());
+    }
+
+    @Test
+    public void saveRepository_journalCleared() throws Exception {
+        JSONStore store = new JSONStore();
+        Model original = model(100, "a");
+        store.saveRepository(REPO, new SerializableModel(original)).get();
+        saveChanges(store, original, update(original, 3, "b"));
+        assertTrue(Files.exists(JOURNAL));
+
+        store.saveRepository(REPO, new SerializableModel(original)).get();
+        assertFalse(Files.exists(JOURNAL));
+        assertEquals(original, store.loadRepository(REPO).get());
+    }
+
+    @Test
+    public void between_issueRemoved_empty() {
+        Model original = model(3, "a");
+        List<TurboIssue> issues = original.getIssues();
+        issues.remove(1);
+        Model removed = new Model(REPO, issues, original.getLabels(), original.getMilestones(),
+            original.getUsers(), original.getUpdateSignature());
+
+        assertFalse(SerializableChanges.between(original, removed).isPresent());
+        assertTrue(SerializableChanges.between(original, update(original, 1, "b")).isPresent());
+    }
+
+    @After
+    public void cleanup() {
+        UITest.clearTestFolder();
+    }
+}
@@ -1,10 +1,18 @@
 package tests;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -18,6 +26,7 @@ import org.junit.Test;
 import backend.RepoIO;
 import backend.control.RepoOpControl;
 import backend.resource.Model;
+import backend.resource.TurboIssue;
 import util.AtomicMaxInteger;
 import util.Futures;
 
@@ -109,6 +118,94 @@ public class RepoOpControlTest {
         assertEquals(3, counter.getMax());
     }
 
+    @Test
+    public void waitingUpdatesMerged() throws ExecutionException, InterruptedException {
+
+        // Updates waiting behind another operation are performed once, completing every caller's result
+
+        RepoIO stub = stubbedRepoIO(new AtomicMaxInteger(0));
+        RepoOpControl control = new RepoOpControl(stub);
+
+        CompletableFuture<Model> opening = control.openRepository(REPO);
+        List<CompletableFuture<Model>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(control.updateModel(new Model(REPO)));
+        }
+        assertEquals(2, control.getCoalescedOpCount());
+
+        opening.get();
+        assertEquals(3, Futures.sequence(futures).get().size());
+        verify(stub, times(1)).updateModel(any(Model.class));
+        assertEquals(0, control.getQueueDepth(REPO));
+    }
+
+    @Test
+    public void removalCancelsWaitingUpdates() throws ExecutionException, InterruptedException {
+
+        // Updates waiting before a removal are not performed, and complete with the old model
+
+        RepoIO stub = stubbedRepoIO(new AtomicMaxInteger(0));
+        RepoOpControl control = new RepoOpControl(stub);
+
+        Model oldModel = new Model(REPO);
+        control.openRepository(REPO);
+        CompletableFuture<Model> update = control.updateModel(oldModel);
+        CompletableFuture<Boolean> removal = control.removeRepository(REPO);
+
+        assertEquals(oldModel, update.get());
+        assertTrue(removal.get());
+        verify(stub, never()).updateModel(any(Model.class));
+    }
+
+    @Test
+    public void waitingLabelsReplacementSuperseded() throws ExecutionException, InterruptedException {
+
+        // Of consecutive waiting replacements of an issue's labels, only the last is performed
+
+        RepoIO stub = stubbedRepoIO(new AtomicMaxInteger(0));
+        RepoOpControl control = new RepoOpControl(stub);
+
+        TurboIssue issue = new TurboIssue(REPO, 1, "Issue 1");
+        control.openRepository(REPO);
+        CompletableFuture<Boolean> first = control.replaceIssueLabels(issue, Arrays.asList("a"));
+        CompletableFuture<Boolean> second = control.replaceIssueLabels(issue, Arrays.asList("a", "b"));
+        assertEquals(1, control.getCoalescedOpCount());
+
+        assertTrue(first.get());
+        assertTrue(second.get());
+        verify(stub, times(1)).replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class));
+        verify(stub).replaceIssueLabels(issue, Arrays.asList("a", "b"));
+    }
+
+    @Test
+    public void manyReposOnSharedThreads() throws ExecutionException, InterruptedException {
+
+        // Operations on many repositories proceed concurrently without a thread for each repository,
+        // and queues are released once their operations complete
+
+        RepoIO stub = mock(RepoIO.class);
+        AtomicMaxInteger counter = new AtomicMaxInteger(0);
+        when(stub.openRepository(anyString()))
+            .then(invocation -> createResult(counter, new Model((String) invocation.getArguments()[0])));
+        RepoOpControl control = new RepoOpControl(stub);
+
+        List<CompletableFuture<Model>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(control.openRepository(REPO + i));
+        }
+        Futures.sequence(futures).get();
+
+        assertEquals(100, counter.getMax());
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith("repo-op-"))
+            .count() <= RepoOpControl.POOL_SIZE);
+
+        for (int i = 0; i < 50 && !control.getQueueDepths().isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(control.getQueueDepths().isEmpty());
+    }
+
     /**
      * Creates a stub RepoIO with artificial delay for various operations, and
      * which increments a value for purposes of verifying behaviour.
@@ -123,6 +220,8 @@ public class RepoOpControlTest {
             .then(invocation -> createResult(counter, true));
         when(stub.updateModel(new Model(REPO)))
             .then(invocation -> createResult(counter, new Model(REPO)));
+        when(stub.replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class)))
+            .then(invocation -> createResult(counter, true));
 
         for (int i = 0; i < 3; i++) {
             when(stub.openRepository(REPO + i))
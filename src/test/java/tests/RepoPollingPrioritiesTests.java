@@ -0,0 +1,118 @@
+package tests;
+
+import backend.RepoPollingPriorities;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RepoPollingPrioritiesTests {
+
+    private static final String REPO = "test/test";
+    private static final long NOW = 1451230000000L;
+
+    private static final Set<String> NONE = Collections.emptySet();
+    private static final Set<String> REPO_ONLY = new HashSet<>(Collections.singletonList(REPO));
+
+    private static Model createModel(TurboIssue... issues) {
+        List<TurboIssue> issueList = new ArrayList<>();
+        Collections.addAll(issueList, issues);
+        return new Model(REPO, issueList, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * @return the number of the given refreshes, made at the given time, on which the repo is updated
+     */
+    private static int countUpdates(RepoPollingPriorities priorities, Set<String> focused, Set<String> visible,
+                                    long time, int refreshes) {
+        int updates = 0;
+        for (int i = 0; i < refreshes; i++) {
+            if (priorities.shouldUpdate(REPO, focused, visible, time)) {
+                updates++;
+            }
+        }
+        return updates;
+    }
+
+    @Test
+    public void shouldUpdate_recentlyChanged_everyRefresh() {
+        RepoPollingPriorities priorities = new RepoPollingPriorities();
+        assertEquals(8, countUpdates(priorities, NONE, NONE, NOW, 8));
+    }
+
+    @Test
+    public void shouldUpdate_longUnchanged_exponentiallyLessOften() {
+        RepoPollingPriorities priorities = new RepoPollingPriorities();
+        priorities.shouldUpdate(REPO, NONE, NONE, NOW);
+
+        assertEquals(16, countUpdates(priorities, NONE, NONE, NOW + RepoPollingPriorities.HOT_PERIOD, 16));
+        assertEquals(8, countUpdates(priorities, NONE, NONE, NOW + 2 * RepoPollingPriorities.HOT_PERIOD, 16));
+        assertEquals(4, countUpdates(priorities, NONE, NONE, NOW + 4 * RepoPollingPriorities.HOT_PERIOD, 16));
+        assertEquals(1, countUpdates(priorities, NONE, NONE, NOW + 100 * RepoPollingPriorities.HOT_PERIOD,
+            RepoPollingPriorities.MAX_INTERVAL));
+    }
+
+    @Test
+    public void shouldUpdate_visibleRepo_boosted() {
+        RepoPollingPriorities priorities = new RepoPollingPriorities();
+        priorities.shouldUpdate(REPO, NONE, NONE, NOW);
+        long later = NOW + 100 * RepoPollingPriorities.HOT_PERIOD;
+
+        assertEquals(8 / RepoPollingPriorities.VISIBLE_MAX_INTERVAL,
+            countUpdates(priorities, NONE, REPO_ONLY, later, 8));
+    }
+
+    @Test
+    public void shouldUpdate_focusedRepo_everyRefresh() {
+        RepoPollingPriorities priorities = new RepoPollingPriorities();
+        priorities.shouldUpdate(REPO, NONE, NONE, NOW);
+        long later = NOW + 100 * RepoPollingPriorities.HOT_PERIOD;
+
+        assertEquals(8, countUpdates(priorities, REPO_ONLY, REPO_ONLY, later, 8));
+    }
+
+    @Test
+    public void recordUpdate_changedIssues_repoHotAgain() {
+        RepoPollingPriorities priorities = new RepoPollingPriorities();
+        priorities.shouldUpdate(REPO, NONE, NONE, NOW);
+        long later = NOW + 100 * RepoPollingPriorities.HOT_PERIOD;
+
+        TurboIssue issue = new TurboIssue(REPO, 1, "Issue 1");
+        TurboIssue updatedIssue = new TurboIssue(issue);
+        updatedIssue.setUpdatedAt(issue.getUpdatedAt().plusMinutes(1));
+        priorities.recordUpdate(createModel(issue), createModel(updatedIssue, new TurboIssue(REPO, 2, "Issue 2")),
+            later);
+
+        assertEquals(4, countUpdates(priorities, NONE, NONE, later, 4));
+    }
+
+    @Test
+    public void recordUpdate_unchanged_repoStaysCold() {
+        RepoPollingPriorities priorities = new RepoPollingPriorities();
+        priorities.shouldUpdate(REPO, NONE, NONE, NOW);
+        long later = NOW + 100 * RepoPollingPriorities.HOT_PERIOD;
+
+        TurboIssue issue = new TurboIssue(REPO, 1, "Issue 1");
+        priorities.recordUpdate(createModel(issue), createModel(new TurboIssue(issue)), later);
+
+        assertFalse(priorities.shouldUpdate(REPO, NONE, NONE, later));
+    }
+
+    @Test
+    public void remove_repoForgotten_treatedAsNew() {
+        RepoPollingPriorities priorities = new RepoPollingPriorities();
+        priorities.shouldUpdate(REPO, NONE, NONE, NOW);
+        priorities.remove(REPO);
+
+        assertTrue(priorities.shouldUpdate(REPO, NONE, NONE, NOW + 100 * RepoPollingPriorities.HOT_PERIOD));
+    }
+}
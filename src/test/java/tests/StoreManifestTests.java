@@ -0,0 +1,116 @@
+package tests;
+
+import backend.UpdateSignature;
+import backend.binary.BinaryStore;
+import backend.interfaces.RepoStore;
+import backend.json.JSONStore;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.resource.serialization.SerializableModel;
+import guitests.UITest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import ui.UI;
+import util.events.EventDispatcherStub;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StoreManifestTests {
+
+    private static final Path JSON_MANIFEST = Paths.get("store/test/json.manifest");
+    private static final Path REPO_FILE = Paths.get("store/test/testrepo-testrepo.json");
+
+    @BeforeClass
+    public static void setup() {
+        UI.events = new EventDispatcherStub();
+    }
+
+    @Before
+    public void enableTestDirectory() {
+        RepoStore.changeDirectory(RepoStore.TEST_DIRECTORY);
+        UITest.clearTestFolder();
+    }
+
+    private static SerializableModel model(String repoId, int issueCount) {
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 1; i <= issueCount; i++) {
+            issues.add(new TurboIssue(repoId, i, "Issue " + i));
+        }
+        return new SerializableModel(new Model(repoId, issues, new ArrayList<>(), new ArrayList<>(),
+            new ArrayList<>(), new UpdateSignature("issues", "labels", "milestones", "users", new Date())));
+    }
+
+    @Test
+    public void getStoredRepos_manifestUpToDate_filesNotRead() throws Exception {
+        JSONStore store = new JSONStore();
+        store.saveRepository("testrepo/testrepo", model("testrepo/testrepo", 3)).get();
+        assertEquals(Arrays.asList("testrepo/testrepo"), store.getStoredRepos());
+        assertTrue(Files.exists(JSON_MANIFEST));
+
+        // Replacing the file without changing its last-write time goes unnoticed, as it is not read
+        FileTime lastWriteTime = Files.getLastModifiedTime(REPO_FILE);
+        Files.write(REPO_FILE, "abcde".getBytes("UTF-8"));
+        Files.setLastModifiedTime(REPO_FILE, lastWriteTime);
+        assertEquals(Arrays.asList("testrepo/testrepo"), new JSONStore().getStoredRepos());
+
+        // But it is read again once its last-write time changes
+        Files.setLastModifiedTime(REPO_FILE, FileTime.fromMillis(lastWriteTime.toMillis() + 1000));
+        assertTrue(new JSONStore().getStoredRepos().isEmpty());
+    }
+
+    @Test
+    public void getStoredRepos_manifestMissing_rebuilt() throws Exception {
+        JSONStore store = new JSONStore();
+        store.saveRepository("testrepo/testrepo", model("testrepo/testrepo", 3)).get();
+        store.saveRepository("other/repo", model("other/repo", 2)).get();
+        Files.deleteIfExists(JSON_MANIFEST);
+
+        List<String> repos = new JSONStore().getStoredRepos();
+        assertEquals(2, repos.size());
+        assertTrue(repos.containsAll(Arrays.asList("testrepo/testrepo", "other/repo")));
+        assertTrue(Files.exists(JSON_MANIFEST));
+        String manifest = new String(Files.readAllBytes(JSON_MANIFEST), "UTF-8");
+        assertTrue(manifest.contains("\"issueCount\":3"));
+        assertTrue(manifest.contains("\"issuesETag\":\"issues\""));
+    }
+
+    @Test
+    public void getStoredRepos_fileRemovedElsewhere_dropped() throws Exception {
+        JSONStore store = new JSONStore();
+        store.saveRepository("testrepo/testrepo", model("testrepo/testrepo", 3)).get();
+        assertEquals(1, store.getStoredRepos().size());
+
+        Files.delete(REPO_FILE);
+        assertTrue(store.getStoredRepos().isEmpty());
+    }
+
+    @Test
+    public void removeStoredRepo_manifestUpdated() throws Exception {
+        BinaryStore store = new BinaryStore();
+        store.saveRepository("testrepo/testrepo", model("testrepo/testrepo", 3)).get();
+        assertEquals(Arrays.asList("testrepo/testrepo"), store.getStoredRepos());
+
+        assertFalse(store.removeStoredRepo("testrepo/testrepo").get());
+        String manifest = new String(Files.readAllBytes(Paths.get("store/test/bin.manifest")), "UTF-8");
+        assertFalse(manifest.contains("testrepo/testrepo"));
+        assertTrue(store.getStoredRepos().isEmpty());
+    }
+
+    @After
+    public void cleanup() {
+        UITest.clearTestFolder();
+    }
+}
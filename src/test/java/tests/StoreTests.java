@@ -142,6 +142,11 @@ public class StoreTests {
         assertEquals(false, Files.exists(Paths.get("store/test/dummy1-dummy1.json")));
     }
 
+    @Test
+    public void getSubdirectory_testDirectory_insideTestDirectory() {
+        assertEquals(Paths.get(RepoStore.TEST_DIRECTORY, "avatars"), Paths.get(RepoStore.getSubdirectory("avatars")));
+    }
+
     @After
     public void cleanup() {
         UITest.clearTestFolder();
@@ -8,7 +8,9 @@ import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 public class TickingTimerTests {
@@ -89,4 +91,25 @@ public class TickingTimerTests {
             }
         }
     }
+
+    @Test
+    public void setPeriodTest() {
+        final AtomicInteger timeouts = new AtomicInteger(0);
+        final TickingTimer tickingTimer = new TickingTimer("test3", 10, (i) -> {}, timeouts::incrementAndGet,
+                TimeUnit.SECONDS);
+
+        tickingTimer.start();
+        delay(2.5);
+        // More than the new period has been counted down, so the timer times out on the next tick
+        tickingTimer.setPeriod(2);
+        delay(1.5);
+        assertEquals(1, timeouts.get());
+
+        // The time counted down in the current period counts towards the longer period
+        tickingTimer.setPeriod(10);
+        delay(3);
+        tickingTimer.stop();
+        assertEquals(1, timeouts.get());
+        assertEquals(10, tickingTimer.getPeriod());
+    }
 }
@@ -14,10 +14,16 @@ import static util.Utility.safeLongToInt;
 import static util.Utility.snakeCaseToCamelCase;
 import static util.Utility.stripQuotes;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
@@ -172,4 +178,24 @@ public class UtilityTest {
 
 
     }
+
+    @Test
+    public void writeFileAtomicallyTest() throws IOException {
+        Path directory = Files.createTempDirectory("utilitytest");
+        Path file = directory.resolve("file");
+        Utility.writeFileAtomically(file, "old".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            Utility.writeFileAtomically(file, output -> {
+                output.write("new".getBytes(StandardCharsets.UTF_8));
+                throw new IOException("Write failed");
+            });
+            fail();
+        } catch (IOException ignored) {}
+
+        assertEquals("old", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(Arrays.asList(file), files.collect(Collectors.toList()));
+        }
+    }
 }